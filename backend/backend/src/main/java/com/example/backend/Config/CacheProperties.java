@@ -0,0 +1,94 @@
+package com.example.backend.Config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache registry bound from {@code app.cache.*}. Each named cache may declare its own
+ * Redis TTL, L1 size, value serializer and whether it only holds data for the current
+ * day; caches that are not listed use the defaults.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+    private String invalidationChannel = "cache-invalidation";
+
+    // Zone whose midnight ends date-scoped entries; server default when blank
+    private String zone;
+
+    private Duration defaultTtl = Duration.ofMinutes(60);
+
+    private Local l1 = new Local();
+
+    private Map<String, Policy> caches = new LinkedHashMap<>();
+
+    public Policy policyFor(String cacheName) {
+        Policy policy = caches.get(cacheName);
+        return policy != null ? policy : new Policy();
+    }
+
+    /**
+     * Redis TTL for an entry written now.
+     */
+    public Duration remoteTtl(Policy policy) {
+        Duration ttl = policy.getTtl() != null ? policy.getTtl() : defaultTtl;
+        return policy.isDateScoped() ? min(ttl, untilMidnight()) : ttl;
+    }
+
+    /**
+     * L1 TTL for an entry written now; never longer than the Redis TTL.
+     * Local-only caches use their own TTL since there is no Redis copy to refresh from.
+     */
+    public Duration localTtl(Policy policy) {
+        return policy.isLocalOnly() ? remoteTtl(policy) : min(l1.getTtl(), remoteTtl(policy));
+    }
+
+    public long localMaxEntries(Policy policy) {
+        return policy.getMaxEntries() != null ? policy.getMaxEntries() : l1.getMaxEntries();
+    }
+
+    Duration untilMidnight() {
+        ZoneId zoneId = zone == null || zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone);
+        ZonedDateTime now = ZonedDateTime.now(zoneId);
+        ZonedDateTime midnight = now.toLocalDate().plusDays(1).atStartOfDay(zoneId);
+        Duration remaining = Duration.between(now, midnight);
+        // never hand out a zero/negative TTL right at the rollover
+        return remaining.compareTo(Duration.ofSeconds(1)) < 0 ? Duration.ofSeconds(1) : remaining;
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    @Getter
+    @Setter
+    public static class Local {
+        private long maxEntries = 10000;
+        private Duration ttl = Duration.ofMinutes(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Policy {
+        private Duration ttl;
+        private Long maxEntries;
+        private Serializer serializer = Serializer.JSON;
+        private boolean dateScoped;
+        // L1 only, nothing stored in Redis; invalidations are still broadcast
+        private boolean localOnly;
+    }
+
+    public enum Serializer {
+        JSON,   // human-readable, same format as before
+        BINARY  // Smile (binary JSON), smaller payloads and faster to parse
+    }
+}
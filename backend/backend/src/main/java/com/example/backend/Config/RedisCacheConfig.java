@@ -2,22 +2,28 @@ package com.example.backend.Config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import org.springframework.cache.CacheManager;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
-import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
 public class RedisCacheConfig {
 
     /**
@@ -48,22 +54,76 @@ public class RedisCacheConfig {
         return template;
     }
 
+    /**
+     * Caffeine L1 per replica in front of the shared Redis cache (L2).
+     * TTL, L1 size and value format come from the app.cache registry.
+     */
     @Bean
-    public CacheManager cacheManager(
-            RedisConnectionFactory connectionFactory) {
+    public TwoTierCacheManager cacheManager(
+            RedisConnectionFactory connectionFactory,
+            StringRedisTemplate stringRedisTemplate,
+            ObjectMapper objectMapper,
+            CacheProperties cacheProperties) {
+
+        RedisCacheConfiguration defaults = redisCacheConfiguration(cacheProperties, new CacheProperties.Policy());
+
+        Map<String, RedisCacheConfiguration> perCache = new HashMap<>();
+        cacheProperties.getCaches().forEach((name, policy) ->
+                perCache.put(name, redisCacheConfiguration(cacheProperties, policy)));
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaults)
+                .withInitialCacheConfigurations(perCache)
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoTierCacheManager(
+                redisCacheManager,
+                stringRedisTemplate,
+                objectMapper,
+                cacheProperties);
+    }
+
+    private RedisCacheConfiguration redisCacheConfiguration(
+            CacheProperties cacheProperties, CacheProperties.Policy policy) {
+
+        // Evaluated per write so date-scoped entries always end at the next midnight
+        RedisCacheWriter.TtlFunction ttl = (key, value) -> cacheProperties.remoteTtl(policy);
 
         RedisCacheConfiguration config =
                 RedisCacheConfiguration.defaultCacheConfig()
-                        .entryTtl(Duration.ofMinutes(60))
+                        .entryTtl(ttl)
                         .serializeKeysWith(
                                 RedisSerializationContext.SerializationPair
-                                        .fromSerializer(StringRedisSerializer.UTF_8))
-                        .serializeValuesWith(
-                                RedisSerializationContext.SerializationPair
-                                        .fromSerializer(RedisSerializer.json()));
+                                        .fromSerializer(StringRedisSerializer.UTF_8));
 
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(config)
-                .build();
+        if (policy.getSerializer() == CacheProperties.Serializer.BINARY) {
+            // Smile has no representation for Spring's null marker
+            return config
+                    .disableCachingNullValues()
+                    .serializeValuesWith(
+                            RedisSerializationContext.SerializationPair
+                                    .fromSerializer(new SmileRedisSerializer()));
+        }
+        return config.serializeValuesWith(
+                RedisSerializationContext.SerializationPair
+                        .fromSerializer(RedisSerializer.json()));
+    }
+
+    /**
+     * Applies L1 invalidations published by other replicas.
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListener(
+            RedisConnectionFactory connectionFactory,
+            TwoTierCacheManager cacheManager) {
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> cacheManager.handleInvalidation(
+                        new String(message.getBody(), java.nio.charset.StandardCharsets.UTF_8)),
+                new ChannelTopic(cacheManager.getChannel()));
+        return container;
     }
 }
@@ -0,0 +1,67 @@
+package com.example.backend.Config;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.regex.Pattern;
+
+/**
+ * Compact binary cache values: Jackson with the Smile format and embedded type
+ * information, so cached DTOs round-trip without per-cache configuration. Type ids read
+ * back from Redis are limited to our DTOs and entities plus JDK value, collection and time
+ * types, so a tampered payload cannot name an arbitrary class.
+ */
+public class SmileRedisSerializer implements RedisSerializer<Object> {
+
+    private static final PolymorphicTypeValidator TYPES = BasicPolymorphicTypeValidator.builder()
+            .allowIfSubType("com.example.backend.DTO.")
+            .allowIfSubType("com.example.backend.Entity.")
+            // Top-level classes of these packages only, not subpackages such as java.util.logging
+            .allowIfSubType(Pattern.compile("java\\.util\\.[^.]+"))
+            .allowIfSubType(Pattern.compile("java\\.time\\.[^.]+"))
+            .allowIfSubType(Pattern.compile("java\\.lang\\.(String|Boolean|Byte|Short|Integer|Long|Float|Double|Character)"))
+            .allowIfSubType(Pattern.compile("java\\.math\\.(BigDecimal|BigInteger)"))
+            .allowIfSubTypeIsArray()
+            .build();
+
+    private final ObjectMapper mapper;
+
+    public SmileRedisSerializer() {
+        this.mapper = new ObjectMapper(new SmileFactory());
+        this.mapper.registerModule(new JavaTimeModule());
+        this.mapper.activateDefaultTyping(
+                TYPES,
+                ObjectMapper.DefaultTyping.EVERYTHING,
+                JsonTypeInfo.As.PROPERTY);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        try {
+            return mapper.writeValueAsBytes(value);
+        } catch (Exception ex) {
+            throw new SerializationException("Could not write Smile: " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return mapper.readValue(bytes, Object.class);
+        } catch (Exception ex) {
+            throw new SerializationException("Could not read Smile: " + ex.getMessage(), ex);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.backend.Config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A per-pod Caffeine L1 in front of a shared (Redis) L2 cache.
+ * Writes go to L2 first; evictions, puts and clears are broadcast so other replicas
+ * drop their L1 copy. Keys are held in L1 by their string form, which is also how
+ * the Redis cache and the invalidation messages identify them.
+ */
+public class TwoTierCache implements org.springframework.cache.Cache {
+
+    private final String name;
+    private final Cache<String, ValueWrapper> local;
+    private final org.springframework.cache.Cache remote;
+    private final TwoTierCacheManager manager;
+
+    // Bumped on every invalidation; an L2 read only fills L1 if nothing was invalidated meanwhile
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    TwoTierCache(String name, Cache<String, ValueWrapper> local,
+                 org.springframework.cache.Cache remote, TwoTierCacheManager manager) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.manager = manager;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = String.valueOf(key);
+        ValueWrapper cached = local.getIfPresent(localKey);
+        if (cached != null) {
+            localHits.increment();
+            return cached;
+        }
+
+        long seen = generation.get();
+        ValueWrapper loaded = remote.get(key);
+        if (loaded == null) {
+            misses.increment();
+            return null;
+        }
+
+        remoteHits.increment();
+        ValueWrapper copy = new SimpleValueWrapper(loaded.get());
+        if (generation.get() == seen) {
+            local.put(localKey, copy);
+        }
+        return copy;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+
+        // Filling a miss: nothing to invalidate on other replicas
+        long seen = generation.get();
+        remote.put(key, value);
+        if (generation.get() == seen) {
+            local.put(String.valueOf(key), new SimpleValueWrapper(value));
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        invalidateLocal(String.valueOf(key));
+        local.put(String.valueOf(key), new SimpleValueWrapper(value));
+        manager.publishInvalidation(name, String.valueOf(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        invalidateLocal(String.valueOf(key));
+        manager.publishInvalidation(name, String.valueOf(key));
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        invalidateLocal(String.valueOf(key));
+        manager.publishInvalidation(name, String.valueOf(key));
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        invalidateLocal(null);
+        manager.publishInvalidation(name, null);
+    }
+
+    /**
+     * Drops one L1 entry, or all of them when {@code key} is null. Used for local writes
+     * and for invalidations received from other replicas.
+     */
+    void invalidateLocal(String key) {
+        generation.incrementAndGet();
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+
+    long getLocalHits() {
+        return localHits.sum();
+    }
+
+    long getRemoteHits() {
+        return remoteHits.sum();
+    }
+
+    long getMisses() {
+        return misses.sum();
+    }
+
+    long getLocalSize() {
+        return local.estimatedSize();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.backend.Config;
+
+import com.example.backend.DTO.CacheStatsDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps the Redis cache manager so each named cache gets a bounded in-process L1.
+ * Invalidations are published on a Redis channel and applied by every replica
+ * except the one that sent them.
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager {
+
+    private final CacheManager remoteManager;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final CacheProperties cacheProperties;
+
+    private final String origin = UUID.randomUUID().toString();
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager remoteManager,
+                               StringRedisTemplate redisTemplate,
+                               ObjectMapper objectMapper,
+                               CacheProperties cacheProperties) {
+        this.remoteManager = remoteManager;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.cacheProperties = cacheProperties;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoTierCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        CacheProperties.Policy policy = cacheProperties.policyFor(name);
+        Cache remote = policy.isLocalOnly() ? new NoOpCache(name) : remoteManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> new TwoTierCache(
+                n,
+                Caffeine.newBuilder()
+                        .maximumSize(cacheProperties.localMaxEntries(policy))
+                        .expireAfter(localExpiry(policy))
+                        .build(),
+                remote,
+                this));
+    }
+
+    // Same rule as the Redis TTL, capped by the L1 TTL, evaluated when each entry is written
+    private Expiry<String, ValueWrapper> localExpiry(CacheProperties.Policy policy) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(String key, ValueWrapper value, long currentTime) {
+                return cacheProperties.localTtl(policy).toNanos();
+            }
+
+            @Override
+            public long expireAfterUpdate(String key, ValueWrapper value, long currentTime, long currentDuration) {
+                return cacheProperties.localTtl(policy).toNanos();
+            }
+
+            @Override
+            public long expireAfterRead(String key, ValueWrapper value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteManager.getCacheNames();
+    }
+
+    public String getChannel() {
+        return cacheProperties.getInvalidationChannel();
+    }
+
+    void publishInvalidation(String cacheName, String key) {
+        try {
+            String payload = objectMapper.writeValueAsString(new CacheInvalidation(origin, cacheName, key));
+            redisTemplate.convertAndSend(getChannel(), payload);
+        } catch (Exception ex) {
+            // Other replicas fall back to the L1 TTL for this entry
+            log.warn("Failed to publish invalidation for cache {}: {}", cacheName, ex.getMessage());
+        }
+    }
+
+    /**
+     * Applies an invalidation received on the channel.
+     */
+    public void handleInvalidation(String payload) {
+        try {
+            CacheInvalidation message = objectMapper.readValue(payload, CacheInvalidation.class);
+            if (origin.equals(message.origin())) {
+                return;
+            }
+            TwoTierCache cache = caches.get(message.cache());
+            if (cache != null) {
+                cache.invalidateLocal(message.key());
+            }
+        } catch (Exception ex) {
+            log.warn("Ignoring malformed cache invalidation message: {}", ex.getMessage());
+        }
+    }
+
+    public List<CacheStatsDto> getStats() {
+        List<CacheStatsDto> stats = new ArrayList<>();
+        caches.values().forEach(cache -> {
+            long l1 = cache.getLocalHits();
+            long l2 = cache.getRemoteHits();
+            long misses = cache.getMisses();
+            long requests = l1 + l2 + misses;
+            stats.add(CacheStatsDto.builder()
+                    .cacheName(cache.getName())
+                    .l1Hits(l1)
+                    .l2Hits(l2)
+                    .misses(misses)
+                    .l1HitRatio(requests == 0 ? 0.0 : (double) l1 / requests)
+                    // share of L1 misses that Redis could answer
+                    .l2HitRatio(l2 + misses == 0 ? 0.0 : (double) l2 / (l2 + misses))
+                    .hitRatio(requests == 0 ? 0.0 : (double) (l1 + l2) / requests)
+                    .l1Size(cache.getLocalSize())
+                    .build());
+        });
+        stats.sort((a, b) -> a.getCacheName().compareTo(b.getCacheName()));
+        return stats;
+    }
+
+    record CacheInvalidation(String origin, String cache, String key) {
+    }
+}
@@ -7,6 +7,9 @@ import com.example.backend.Entity.type.UserRole;
 import com.example.backend.Repository.FarmRepository;
 import com.example.backend.Repository.UserRepository;
 import com.example.backend.Security.JwtTokenProvider;
+import com.example.backend.Security.PrincipalCache;
+import com.example.backend.Security.TokenRevocationList;
+import com.example.backend.Security.VerifiedToken;
 import com.example.backend.Service.impl.EmailServiceImpl;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -15,8 +18,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
@@ -34,10 +35,11 @@ public class AuthController {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserDetailsService userDetailsService;
     private final ModelMapper modelMapper;
     private final FarmRepository farmRepository;
     private final EmailServiceImpl emailService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList tokenRevocationList;
     @PostMapping("/register")
     public ResponseEntity<AuthResponseDto> register(@RequestBody @Valid CreateUserRequestDto request) {
 
@@ -78,10 +80,7 @@ public class AuthController {
         User savedUser = userRepository.save(user);
         emailService.sendRegistrationSuccessEmail(savedUser.getEmail(), savedUser.getName());
 
-        UserDetails userDetails =
-                userDetailsService.loadUserByUsername(savedUser.getEmail());
-
-        String token = jwtTokenProvider.generateToken(userDetails);
+        String token = jwtTokenProvider.generateToken(savedUser);
 
         UserResponseDto userResponse = toUserResponse(savedUser);
         AuthResponseDto response = AuthResponseDto.builder()
@@ -103,12 +102,9 @@ public class AuthController {
         );
 
         // Load user and generate token
-        UserDetails userDetails = userDetailsService.loadUserByUsername(request.getEmail());
-        String token = jwtTokenProvider.generateToken(userDetails);
-
-        // Get user entity for response
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        String token = jwtTokenProvider.generateToken(user);
 
         UserResponseDto userResponse = toUserResponse(user);
         AuthResponseDto response = AuthResponseDto.builder()
@@ -119,6 +115,18 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, String>> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            VerifiedToken token = jwtTokenProvider.verify(authHeader.substring(7));
+            if (token != null) {
+                tokenRevocationList.revoke(token);
+            }
+        }
+        return ResponseEntity.ok(Map.of("message", "Logged out"));
+    }
+
     @PostMapping("/forgot-password/request-otp")
     public ResponseEntity<Map<String, String>> requestPasswordResetOtp(
             @RequestBody @Valid ForgotPasswordRequestDto request) {
@@ -147,10 +155,14 @@ public class AuthController {
                     .body(Map.of("message", "Invalid or expired OTP"));
         }
 
+        // New token version: every token issued with the old password stops working
+        int previousVersion = PrincipalCache.currentVersion(user);
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         user.setPasswordResetOtp(null);
         user.setPasswordResetOtpExpiry(null);
+        user.setTokenVersion(previousVersion + 1);
         userRepository.save(user);
+        principalCache.evict(user.getEmail(), previousVersion);
 
         return ResponseEntity.ok(Map.of("message", "Password reset successful"));
     }
@@ -0,0 +1,27 @@
+package com.example.backend.Controller;
+
+import com.example.backend.Config.TwoTierCacheManager;
+import com.example.backend.DTO.CacheStatsDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/admin/cache")
+public class CacheStatsController {
+
+    private final TwoTierCacheManager cacheManager;
+
+    // Hit counters of this replica since startup, per cache and per tier
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CacheStatsDto>> getStats() {
+        return ResponseEntity.ok(cacheManager.getStats());
+    }
+}
@@ -2,6 +2,7 @@ package com.example.backend.Controller;
 
 import com.example.backend.DTO.*;
 import com.example.backend.Service.CattleService;
+import com.example.backend.Service.CattleYieldAnalyticsService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -16,6 +17,7 @@ import java.util.List;
 public class CattleController {
 
     private final CattleService cattleService;
+    private final CattleYieldAnalyticsService cattleYieldAnalyticsService;
 
     // CREATE cattle (only OWNER)
     @PostMapping
@@ -58,6 +60,22 @@ public class CattleController {
         return ResponseEntity.ok(allCattle);
     }
 
+    // GET rolling yield figures and 90-day curve of one cattle
+    @GetMapping("/{id}/yield")
+    public ResponseEntity<CattleYieldDto> getCattleYield(
+            @PathVariable Long id,
+            @org.springframework.security.core.annotation.AuthenticationPrincipal com.example.backend.Entity.User user) {
+        return ResponseEntity.ok(cattleYieldAnalyticsService.getCattleYield(id, user));
+    }
+
+    // GET rolling yield figures and drop alerts for the whole herd
+    @GetMapping("/farm/{farmId}/yield")
+    public ResponseEntity<List<CattleYieldDto>> getFarmYield(
+            @PathVariable Long farmId,
+            @org.springframework.security.core.annotation.AuthenticationPrincipal com.example.backend.Entity.User user) {
+        return ResponseEntity.ok(cattleYieldAnalyticsService.getFarmYield(farmId, user));
+    }
+
     // PATCH cattle (only OWNER)
     @PatchMapping("/{id}")
     @org.springframework.security.access.prepost.PreAuthorize("hasRole('FARM_OWNER')")
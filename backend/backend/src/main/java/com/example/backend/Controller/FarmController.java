@@ -183,7 +183,16 @@ public class FarmController {
     @org.springframework.security.access.prepost.PreAuthorize("hasRole('FARM_OWNER')")
     public ResponseEntity<java.util.List<com.example.backend.DTO.ShedStatusDto>> getShedsStatus(
             @PathVariable Long id,
+            @RequestParam(required = false) com.example.backend.Entity.type.MilkSession session,
             @org.springframework.security.core.annotation.AuthenticationPrincipal com.example.backend.Entity.User user) {
-        return ResponseEntity.ok(farmService.getShedStatus(id, user));
+        return ResponseEntity.ok(farmService.getShedStatus(id, session, user));
+    }
+
+    @GetMapping("/{id}/sheds/remaining")
+    public ResponseEntity<java.util.List<com.example.backend.DTO.RemainingCattleDto>> getRemainingCattle(
+            @PathVariable Long id,
+            @RequestParam(required = false) com.example.backend.Entity.type.MilkSession session,
+            @org.springframework.security.core.annotation.AuthenticationPrincipal com.example.backend.Entity.User user) {
+        return ResponseEntity.ok(farmService.getRemainingCattle(id, session, user));
     }
 }
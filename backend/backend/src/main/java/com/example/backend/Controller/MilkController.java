@@ -1,11 +1,20 @@
 package com.example.backend.Controller;
 
+import com.example.backend.DTO.AddMilkBatchRequestDto;
 import com.example.backend.DTO.AddMilkInventoryRequestDto;
+import com.example.backend.DTO.DemandProjectionDto;
+import com.example.backend.DTO.ForecastAccuracyDto;
+import com.example.backend.DTO.MilkBatchResultDto;
+import com.example.backend.DTO.MilkForecastDto;
 import com.example.backend.DTO.MilkHistoryDto;
 import com.example.backend.DTO.MilkTypeHistoryDto;
 import com.example.backend.DTO.TodayMilkBreakdownDto;
 import com.example.backend.DTO.TodayMilkEntryDto;
 import com.example.backend.Entity.User;
+import com.example.backend.Entity.type.HistoryGranularity;
+import com.example.backend.Service.DemandProjectionService;
+import com.example.backend.Service.LiveDashboardService;
+import com.example.backend.Service.MilkForecastService;
 import com.example.backend.Service.MilkInventoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -23,6 +32,9 @@ import org.springframework.web.bind.annotation.RestController;
 public class MilkController {
 
     private final MilkInventoryService milkInventoryService;
+    private final MilkForecastService milkForecastService;
+    private final DemandProjectionService demandProjectionService;
+    private final LiveDashboardService liveDashboardService;
 
     @PostMapping("/today")
     public ResponseEntity<?> addTodayMilk(
@@ -36,6 +48,18 @@ public class MilkController {
         }
     }
 
+    @PostMapping("/today/batch")
+    public ResponseEntity<?> addTodayMilkBatch(
+            @RequestBody AddMilkBatchRequestDto dto,
+            @AuthenticationPrincipal User user) {
+        try {
+            MilkBatchResultDto result = milkInventoryService.addTodayMilkBatch(dto, user);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(ex.getMessage()));
+        }
+    }
+
     // Simple error response wrapper
     static class ErrorResponse {
         public final String message;
@@ -60,15 +84,47 @@ public class MilkController {
     @GetMapping("/history")
     public ResponseEntity<java.util.List<MilkHistoryDto>> getHistory(
             @RequestParam Long farmId,
-            @RequestParam(defaultValue = "7") int days) {
-        return ResponseEntity.ok(milkInventoryService.getLastNDaysMilk(farmId, days));
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "DAY") HistoryGranularity granularity) {
+        return ResponseEntity.ok(milkInventoryService.getLastNDaysMilk(farmId, days, granularity));
     }
 
     @GetMapping("/history/by-type")
     public ResponseEntity<java.util.List<MilkTypeHistoryDto>> getHistoryByType(
             @RequestParam Long farmId,
-            @RequestParam(defaultValue = "7") int days) {
-        return ResponseEntity.ok(milkInventoryService.getLastNDaysMilkByType(farmId, days));
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "DAY") HistoryGranularity granularity) {
+        return ResponseEntity.ok(milkInventoryService.getLastNDaysMilkByType(farmId, days, granularity));
+    }
+
+    @GetMapping("/forecast")
+    public ResponseEntity<java.util.List<MilkForecastDto>> getForecast(
+            @RequestParam Long farmId,
+            @RequestParam(required = false) String method,
+            @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(milkForecastService.getForecast(farmId, method, user));
+    }
+
+    @GetMapping("/forecast/accuracy")
+    public ResponseEntity<java.util.List<ForecastAccuracyDto>> getForecastAccuracy(
+            @RequestParam Long farmId,
+            @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(milkForecastService.getAccuracy(farmId, user));
+    }
+
+    @GetMapping("/demand-projection")
+    public ResponseEntity<java.util.List<DemandProjectionDto>> getDemandProjection(
+            @RequestParam Long farmId,
+            @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(demandProjectionService.getProjection(farmId, user));
+    }
+
+    // Server-sent events: today's snapshot, then milk and order changes as they commit
+    @GetMapping(value = "/live", produces = org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE)
+    public org.springframework.web.servlet.mvc.method.annotation.SseEmitter getLiveUpdates(
+            @RequestParam Long farmId,
+            @AuthenticationPrincipal User user) {
+        return liveDashboardService.subscribe(farmId, user);
     }
 
     @GetMapping("/today/entries")
@@ -1,22 +1,34 @@
 package com.example.backend.Controller;
 
+import com.example.backend.DTO.KeysetCursor;
+import com.example.backend.DTO.OrderDecisionBatchRequestDto;
+import com.example.backend.DTO.OrderDecisionResultDto;
+import com.example.backend.DTO.OrderPageDto;
 import com.example.backend.DTO.OrderResponseDto;
 import com.example.backend.DTO.OrderPaymentRequestDto;
 import com.example.backend.DTO.RazorpayOrderResponseDto;
 import com.example.backend.Entity.Orders;
 import com.example.backend.Entity.User;
+import com.example.backend.Repository.OrdersExportRepository;
 import com.example.backend.Repository.OrdersRepository;
 import com.example.backend.Service.FarmAccessService;
 import com.example.backend.Service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.Comparator;
 import java.util.List;
@@ -33,9 +45,13 @@ public class OrderController {
             .thenComparing(Orders::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
             .thenComparing(Orders::getId, Comparator.nullsLast(Comparator.reverseOrder()));
 
+    private static final int MAX_FEED_LIMIT = 200;
+
     private final OrdersRepository ordersRepository;
     private final FarmAccessService farmAccessService;
     private final OrderService orderService;
+    private final OrdersExportRepository ordersExportRepository;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/my-orders")
     public ResponseEntity<List<OrderResponseDto>> getMyOrders(@AuthenticationPrincipal User user) {
@@ -55,23 +71,82 @@ public class OrderController {
             @RequestParam(required = false) Integer size) {
         farmAccessService.verifyFarmAccess(user, farmId);
 
-        List<Orders> orders;
-        if (page != null && size != null) {
-            Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "orderDate"));
-            Page<Orders> orderPage = ordersRepository.findByFarm_Id(farmId, pageable);
-            orders = orderPage.getContent().stream().sorted(ORDER_LIST_COMPARATOR).toList();
-        } else {
-            orders = ordersRepository.findByFarm_IdOrderByOrderDateDescCreatedAtDescIdDesc(farmId)
-                    .stream()
-                    .sorted(ORDER_LIST_COMPARATOR)
-                    .toList();
-        }
+        // Sorted in SQL, pending first within a day, so pages line up; prefer /feed for large farms
+        Pageable pageable = page != null && size != null ? PageRequest.of(page, size) : Pageable.unpaged();
+        List<Orders> orders = ordersRepository.findFarmOrders(farmId, pageable);
 
         List<OrderResponseDto> dtos = orders.stream().map(this::mapToDto).collect(Collectors.toList());
 
         return ResponseEntity.ok(dtos);
     }
 
+    @GetMapping("/farm/{farmId}/feed")
+    public ResponseEntity<OrderPageDto> getFarmOrderFeed(
+            @PathVariable Long farmId,
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        farmAccessService.verifyFarmAccess(user, farmId);
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_LIMIT));
+        // One extra row tells whether there is a next page
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<Orders> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = ordersRepository.findFarmOrders(farmId, pageable);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = ordersRepository.findFarmOrdersAfter(
+                    farmId, after.date(), after.rank(), after.createdAt(), after.id(), pageable);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Orders> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Orders last = pageRows.get(pageRows.size() - 1);
+            int pendingFirst = last.getStatus() == com.example.backend.Entity.type.OrderStatus.PENDING ? 1 : 0;
+            nextCursor = new KeysetCursor(last.getOrderDate(), pendingFirst, last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return ResponseEntity.ok(OrderPageDto.builder()
+                .items(pageRows.stream().map(this::mapToDto).toList())
+                .nextCursor(nextCursor)
+                .build());
+    }
+
+    @GetMapping(value = "/farm/{farmId}/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportFarmOrders(
+            @PathVariable Long farmId,
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(required = false) LocalDate to) {
+        farmAccessService.verifyFarmAccess(user, farmId);
+
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            try {
+                ordersExportRepository.streamFarmOrders(farmId, from, to, dto -> {
+                    try {
+                        out.write(writer.writeValueAsBytes(dto));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header("Content-Disposition", "attachment; filename=\"farm-" + farmId + "-orders.ndjson\"")
+                .body(body);
+    }
+
     @GetMapping("/farm/{farmId}/date-range")
     public ResponseEntity<List<OrderResponseDto>> getFarmOrdersByDateRange(
             @PathVariable Long farmId,
@@ -107,6 +182,15 @@ public class OrderController {
         return ResponseEntity.ok(approvedOrder);
     }
 
+    @PostMapping("/farm/{farmId}/decisions")
+    @org.springframework.security.access.prepost.PreAuthorize("hasRole('FARM_OWNER')")
+    public ResponseEntity<OrderDecisionResultDto> decideOrders(
+            @PathVariable Long farmId,
+            @RequestBody OrderDecisionBatchRequestDto request,
+            @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(orderService.decideOrders(farmId, request, user));
+    }
+
     @PatchMapping("/{orderId}/reject")
     public ResponseEntity<OrderResponseDto> rejectOrder(
             @PathVariable Long orderId,
@@ -150,6 +234,7 @@ public class OrderController {
                 .session(order.getSession())
                 .timeSlot(order.getTimeSlot())
                 .status(order.getStatus())
+                .reservationStatus(order.getReservationStatus())
                 .buyerId(order.getBuyer() != null ? order.getBuyer().getId() : null)
                 .buyerName(order.getBuyer() != null ? order.getBuyer().getName() : null)
                 .farmId(order.getFarm() != null ? order.getFarm().getId() : null)
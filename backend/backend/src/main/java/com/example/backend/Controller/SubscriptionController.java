@@ -1,6 +1,9 @@
 package com.example.backend.Controller;
 
+import com.example.backend.DTO.KeysetCursor;
 import com.example.backend.DTO.SubscribeDto;
+import com.example.backend.DTO.SubscriptionListRow;
+import com.example.backend.DTO.SubscriptionPageDto;
 import com.example.backend.DTO.SubscriptionPaymentRequestDto;
 import com.example.backend.DTO.SubscriptionResponseDto;
 import com.example.backend.Entity.Subscription;
@@ -10,7 +13,6 @@ import com.example.backend.Repository.SubscriptionRepository;
 import com.example.backend.Service.FarmAccessService;
 import com.example.backend.Service.SubscriptionService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
@@ -32,6 +34,8 @@ public class SubscriptionController {
             .thenComparing(Subscription::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
             .thenComparing(Subscription::getId, Comparator.nullsLast(Comparator.reverseOrder()));
 
+    private static final int MAX_FEED_LIMIT = 200;
+
     private final SubscriptionService subscriptionService;
     private final SubscriptionRepository subscriptionRepository;
     private final FarmAccessService farmAccessService;
@@ -119,20 +123,10 @@ public class SubscriptionController {
         // Verify user has access to this farm
         farmAccessService.verifyFarmAccess(user, farmId);
 
-        List<Subscription> subscriptions;
-        if (page != null && size != null) {
-            Pageable pageable = PageRequest.of(page, size);
-            Page<Subscription> subPage = subscriptionRepository.findByFarm_Id(farmId, pageable);
-            subscriptions = subPage.getContent().stream().sorted(SUBSCRIPTION_LIST_COMPARATOR).toList();
-        } else {
-            subscriptions = subscriptionRepository.findByFarm_IdOrderByStartDateDescCreatedAtDescIdDesc(farmId)
-                    .stream()
-                    .sorted(SUBSCRIPTION_LIST_COMPARATOR)
-                    .toList();
-        }
-
-        List<SubscriptionResponseDto> dtos = subscriptions.stream()
-                .map(this::mapToDto)
+        Pageable pageable = page != null && size != null ? PageRequest.of(page, size) : Pageable.unpaged();
+        List<SubscriptionResponseDto> dtos = subscriptionRepository.findFarmListRows(farmId, pageable)
+                .stream()
+                .map(this::mapRowToDto)
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(dtos);
@@ -149,17 +143,91 @@ public class SubscriptionController {
         // Verify user has access to this farm
         farmAccessService.verifyFarmAccess(user, farmId);
 
-        List<Subscription> subscriptions = subscriptionRepository
-            .findByFarm_IdAndStatusOrderByStartDateDescCreatedAtDescIdDesc(farmId, status)
+        List<SubscriptionResponseDto> dtos = subscriptionRepository
+            .findFarmFeedByStatusFirst(farmId, status, Pageable.unpaged())
             .stream()
-            .sorted(SUBSCRIPTION_LIST_COMPARATOR)
-            .toList();
-        List<SubscriptionResponseDto> dtos = subscriptions.stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+            .map(this::mapRowToDto)
+            .collect(Collectors.toList());
         return ResponseEntity.ok(dtos);
     }
 
+    /**
+     * Cursor-paginated subscriptions for a farm, newest start date first, optionally by status
+     */
+    @GetMapping("/farm/{farmId}/feed")
+    public ResponseEntity<SubscriptionPageDto> getFarmSubscriptionFeed(
+            @PathVariable Long farmId,
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) SubscriptionStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        farmAccessService.verifyFarmAccess(user, farmId);
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_LIMIT));
+        // One extra row tells whether there is a next page
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+
+        List<SubscriptionListRow> rows;
+        if (status == null) {
+            rows = after == null
+                    ? subscriptionRepository.findFarmFeedFirst(farmId, pageable)
+                    : subscriptionRepository.findFarmFeedAfter(
+                            farmId, after.date(), after.createdAt(), after.id(), pageable);
+        } else {
+            rows = after == null
+                    ? subscriptionRepository.findFarmFeedByStatusFirst(farmId, status, pageable)
+                    : subscriptionRepository.findFarmFeedByStatusAfter(
+                            farmId, status, after.date(), after.createdAt(), after.id(), pageable);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<SubscriptionListRow> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            SubscriptionListRow last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new KeysetCursor(last.startDate(), last.createdAt(), last.id()).encode();
+        }
+
+        return ResponseEntity.ok(SubscriptionPageDto.builder()
+                .items(pageRows.stream().map(this::mapRowToDto).toList())
+                .nextCursor(nextCursor)
+                .build());
+    }
+
+    private SubscriptionResponseDto mapRowToDto(SubscriptionListRow row) {
+        int counter = normalizeCounter(row.billingDayCounter());
+        double quantity = row.quantity() == null ? 0.0 : row.quantity();
+        String buyerAddress = row.buyerAddress() != null && !row.buyerAddress().isBlank()
+                ? row.buyerAddress()
+                : row.buyerLocation();
+        return SubscriptionResponseDto.builder()
+                .id(row.id())
+                .displayCode(row.displayCode() != null && !row.displayCode().isBlank()
+                        ? row.displayCode()
+                        : String.format("%06d", row.id()))
+                .buyerId(row.buyerId())
+                .buyerName(row.buyerName())
+                .buyerAddress(buyerAddress)
+                .buyerCity(row.buyerCity())
+                .farmId(row.farmId())
+                .farmName(row.farmName())
+                .quantity(row.quantity())
+                .session(row.session())
+                .startDate(row.startDate())
+                .endDate(row.endDate())
+                .skipDate(row.skipDate())
+                .status(row.status())
+                .animalType(row.animalType())
+                .billingDayCounter(counter)
+                .maxBillingDays(30)
+                .paymentRequired(counter >= 30)
+                .billingAmountDue(counter * quantity * (row.pricePerLiter() == null ? 0.0 : row.pricePerLiter()))
+                .lastCyclePaidAt(row.lastCyclePaidAt())
+                .createdAt(row.createdAt())
+                .build();
+    }
+
     private SubscriptionResponseDto mapToDto(Subscription subscription) {
         return SubscriptionResponseDto.builder()
                 .id(subscription.getId())
@@ -0,0 +1,17 @@
+package com.example.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AddMilkBatchRequestDto {
+    private Long farmId;
+    private List<MilkBatchEntryDto> entries;
+}
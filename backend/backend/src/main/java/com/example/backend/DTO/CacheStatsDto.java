@@ -0,0 +1,21 @@
+package com.example.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDto {
+    private String cacheName;
+    private long l1Hits;
+    private long l2Hits;
+    private long misses;
+    private double l1HitRatio;   // L1 hits / all lookups
+    private double l2HitRatio;   // L2 hits / lookups that missed L1
+    private double hitRatio;     // (L1 + L2 hits) / all lookups
+    private long l1Size;
+}
@@ -0,0 +1,19 @@
+package com.example.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CattleDailyYieldDto {
+    private LocalDate date;
+    private Double morningLiters;
+    private Double eveningLiters;
+    private Double totalLiters;
+}
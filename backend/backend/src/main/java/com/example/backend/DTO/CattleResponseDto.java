@@ -2,6 +2,8 @@ package com.example.backend.DTO;
 
 import lombok.*;
 
+import java.time.LocalDate;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -15,4 +17,7 @@ public class CattleResponseDto {
     private Double avgMilkPerDay;
     private Long farmId;
     private ShedResponseDto shed;
+    private Double last7DaysLiters;
+    private Double last30DaysLiters;
+    private LocalDate lastEntryDate;
 }
@@ -0,0 +1,37 @@
+package com.example.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CattleYieldDto {
+    private Long cattleId;
+    private String tagId;
+    private String type;
+    private String status;
+
+    // Means per recorded day over windows ending yesterday
+    private Double mean7Days;
+    private Double mean30Days;
+    private Double mean90Days;
+    private Double morningMean30Days;
+    private Double eveningMean30Days;
+
+    private Double todayLiters;          // may be partial
+    private Double yesterdayLiters;
+    private Double dayBeforeLiters;
+    private Double dayOverDayDelta;      // yesterday - day before
+
+    // 7-day mean against the 8-30 day baseline; positive when yield fell
+    private Double dropPercent;
+    private Boolean dropAlert;
+
+    private List<CattleDailyYieldDto> curve; // last 90 days, single-cattle endpoint only
+}
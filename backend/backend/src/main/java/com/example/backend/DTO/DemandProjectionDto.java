@@ -0,0 +1,27 @@
+package com.example.backend.DTO;
+
+import com.example.backend.Entity.type.MilkSession;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DemandProjectionDto {
+    private LocalDate date;
+    private MilkSession session;
+    private String animalType;
+    private Double subscriptionLiters;
+    private Double oneOffLiters;
+    private Double bookedLiters;
+    private Double demandLiters;
+    private Double productionLiters;
+    private Double balanceLiters;   // negative is a shortfall
+    private LocalDateTime computedAt;
+}
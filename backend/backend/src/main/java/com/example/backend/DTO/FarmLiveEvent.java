@@ -0,0 +1,31 @@
+package com.example.backend.DTO;
+
+import com.example.backend.Entity.type.LiveEventType;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A change on a farm pushed to its live dashboards once the writing transaction commits.
+ * Published as a Spring application event and fanned out to all replicas as JSON.
+ *
+ * @param farmId farm whose dashboards receive the event
+ * @param type   what happened
+ * @param data   small delta the dashboard applies without re-fetching
+ * @param at     epoch millis when the event was raised
+ */
+public record FarmLiveEvent(Long farmId, LiveEventType type, Map<String, Object> data, long at) {
+
+    /**
+     * Event with {@code data} given as alternating keys and values; null values are left out.
+     */
+    public static FarmLiveEvent of(Long farmId, LiveEventType type, Object... keyValues) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < keyValues.length; i += 2) {
+            if (keyValues[i + 1] != null) {
+                data.put(String.valueOf(keyValues[i]), keyValues[i + 1]);
+            }
+        }
+        return new FarmLiveEvent(farmId, type, data, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ForecastAccuracyDto {
+    private String method;
+    private Double mae;
+    private Double mape;
+    private Integer folds;
+    private Integer evaluatedDays;
+    private Boolean best;
+    private LocalDateTime evaluatedAt;
+}
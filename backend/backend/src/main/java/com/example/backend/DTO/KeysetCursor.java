@@ -0,0 +1,40 @@
+package com.example.backend.DTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset page, sorted by (date, rank, createdAt, id) descending.
+ * Order feeds rank pending orders 1 and others 0; lists without a rank use 0. A null
+ * createdAt is kept as such. Sent to clients as an opaque URL-safe string.
+ */
+public record KeysetCursor(LocalDate date, int rank, LocalDateTime createdAt, Long id) {
+
+    public KeysetCursor(LocalDate date, LocalDateTime createdAt, Long id) {
+        this(date, 0, createdAt, id);
+    }
+
+    public String encode() {
+        String raw = date + "|" + rank + "|" + (createdAt != null ? createdAt : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new KeysetCursor(
+                    LocalDate.parse(parts[0]),
+                    Integer.parseInt(parts[1]),
+                    parts[2].isEmpty() ? null : LocalDateTime.parse(parts[2]),
+                    Long.parseLong(parts[3]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.backend.DTO;
+
+import com.example.backend.Entity.type.MilkSession;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MilkBatchEntryDto {
+    private String tagId;           // scanned (possibly while offline)
+    private MilkSession session;    // MORNING / EVENING
+    private Double milkLiters;
+}
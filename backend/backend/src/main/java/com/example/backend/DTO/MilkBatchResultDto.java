@@ -0,0 +1,18 @@
+package com.example.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MilkBatchResultDto {
+    private int saved;
+    private int rejected;
+    private List<MilkBatchRowResultDto> rows;
+}
@@ -0,0 +1,19 @@
+package com.example.backend.DTO;
+
+import com.example.backend.Entity.type.MilkSession;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MilkBatchRowResultDto {
+    private int index;              // position in the submitted batch
+    private String tagId;
+    private MilkSession session;
+    private String status;          // SAVED / DUPLICATE / UNKNOWN_TAG / INACTIVE / INVALID
+    private String message;
+}
@@ -0,0 +1,20 @@
+package com.example.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MilkForecastDto {
+    private LocalDate date;
+    private Double predictedLiters;
+    private String method;
+    private LocalDateTime generatedAt;
+}
@@ -0,0 +1,16 @@
+package com.example.backend.DTO;
+
+import com.example.backend.Entity.type.OrderDecision;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDecisionDto {
+    private Long orderId;
+    private OrderDecision decision;
+}
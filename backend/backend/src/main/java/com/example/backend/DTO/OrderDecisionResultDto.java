@@ -0,0 +1,19 @@
+package com.example.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDecisionResultDto {
+    private int approved;
+    private int rejected;
+    private int failed;
+    private List<OrderDecisionRowResultDto> rows;
+}
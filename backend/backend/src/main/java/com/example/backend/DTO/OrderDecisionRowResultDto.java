@@ -0,0 +1,21 @@
+package com.example.backend.DTO;
+
+import com.example.backend.Entity.type.OrderDecision;
+import com.example.backend.Entity.type.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderDecisionRowResultDto {
+    private int index;              // position in the submitted batch
+    private Long orderId;
+    private OrderDecision decision;
+    private String result;          // APPROVED / REJECTED / NOT_FOUND / NOT_PENDING / DUPLICATE / INVALID
+    private OrderStatus status;     // order status after the batch, when the order exists
+    private String message;
+}
@@ -2,6 +2,7 @@ package com.example.backend.DTO;
 
 import com.example.backend.Entity.type.MilkSession;
 import com.example.backend.Entity.type.OrderStatus;
+import com.example.backend.Entity.type.ReservationStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -22,6 +23,7 @@ public class OrderResponseDto {
     private MilkSession session;
     private String timeSlot;
     private OrderStatus status;
+    private ReservationStatus reservationStatus;
     private Long buyerId;
     private String buyerName;
     private Long farmId;
@@ -0,0 +1,13 @@
+package com.example.backend.DTO;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Orders moved to TIMEOUT_REJECTED in one transaction, by the sweep or the expiry wheel.
+ * Listeners run after commit.
+ *
+ * @param orderIdsByFarm timed-out order ids grouped by farm
+ */
+public record OrdersTimedOutEvent(Map<Long, List<Long>> orderIdsByFarm) {
+}
@@ -0,0 +1,18 @@
+package com.example.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RemainingCattleDto {
+    private Long cattleId;
+    private String tagId;
+    private String type;
+    private Long shedId;
+    private String shedName;
+}
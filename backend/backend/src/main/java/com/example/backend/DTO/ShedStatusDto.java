@@ -15,4 +15,5 @@ public class ShedStatusDto {
     private int milkedCattle;
     private int remainingCattle;
     private String workerInCharge;
+    private Long shedId; // null for cattle without a shed
 }
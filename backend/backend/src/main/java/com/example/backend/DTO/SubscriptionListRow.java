@@ -0,0 +1,35 @@
+package com.example.backend.DTO;
+
+import com.example.backend.Entity.type.MilkSession;
+import com.example.backend.Entity.type.SubscriptionStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat row for farm subscription listings, filled by a JPQL constructor expression
+ * together with the buyer and farm columns it needs, so no association is loaded lazily.
+ * {@code pricePerLiter} is already resolved for the subscription's animal type.
+ */
+public record SubscriptionListRow(
+        Long id,
+        String displayCode,
+        Long buyerId,
+        String buyerName,
+        String buyerAddress,
+        String buyerLocation,
+        String buyerCity,
+        Long farmId,
+        String farmName,
+        Double quantity,
+        MilkSession session,
+        LocalDate startDate,
+        LocalDate endDate,
+        LocalDate skipDate,
+        SubscriptionStatus status,
+        String animalType,
+        Integer billingDayCounter,
+        LocalDateTime lastCyclePaidAt,
+        LocalDateTime createdAt,
+        Double pricePerLiter) {
+}
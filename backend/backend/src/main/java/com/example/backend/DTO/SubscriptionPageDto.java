@@ -0,0 +1,17 @@
+package com.example.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SubscriptionPageDto {
+    private List<SubscriptionResponseDto> items;
+    private String nextCursor; // null on the last page
+}
@@ -0,0 +1,47 @@
+package com.example.backend.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Per-cattle, per-day milk totals split by session. Upserted with every milk entry, so
+ * rolling-window analytics read at most one row per animal and day.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(
+        name = "cattle_daily_yield",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"cattle_id", "record_date"})
+        },
+        indexes = {
+                @Index(name = "idx_cattle_daily_yield_farm_date", columnList = "farm_id, record_date")
+        }
+)
+public class CattleDailyYield {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cattle_id", nullable = false)
+    private Long cattleId;
+
+    @Column(name = "farm_id", nullable = false)
+    private Long farmId;
+
+    @Column(name = "record_date", nullable = false)
+    private LocalDate recordDate;
+
+    @Column(name = "morning_liters", nullable = false)
+    private Double morningLiters;
+
+    @Column(name = "evening_liters", nullable = false)
+    private Double eveningLiters;
+}
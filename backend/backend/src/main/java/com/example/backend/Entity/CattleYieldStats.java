@@ -0,0 +1,51 @@
+package com.example.backend.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Running milk yield figures per cattle, so listings don't aggregate raw entries.
+ * Totals and the day count grow with each entry; the 7/30-day sums are also bumped per
+ * entry and recomputed from raw entries by a nightly job as days leave the windows.
+ * Windows include the current day.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "cattle_yield_stats", indexes = {
+        @Index(name = "idx_cattle_yield_stats_farm", columnList = "farm_id")
+})
+public class CattleYieldStats {
+
+    @Id
+    @Column(name = "cattle_id")
+    private Long cattleId;
+
+    @Column(name = "farm_id", nullable = false)
+    private Long farmId;
+
+    @Column(name = "total_liters", nullable = false)
+    private Double totalLiters;
+
+    // Distinct days with at least one entry
+    @Column(name = "day_count", nullable = false)
+    private Integer dayCount;
+
+    @Column(name = "last7_liters", nullable = false)
+    private Double last7Liters;
+
+    @Column(name = "last30_liters", nullable = false)
+    private Double last30Liters;
+
+    @Column(name = "last_entry_date")
+    private LocalDate lastEntryDate;
+
+    public double averagePerDay() {
+        return dayCount == null || dayCount == 0 || totalLiters == null ? 0.0 : totalLiters / dayCount;
+    }
+}
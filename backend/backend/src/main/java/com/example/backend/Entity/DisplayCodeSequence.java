@@ -0,0 +1,40 @@
+package com.example.backend.Entity;
+
+import com.example.backend.Entity.type.DisplayCodeKind;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Per-farm counter behind display codes. Replicas reserve blocks of values from
+ * {@code nextValue} and hand them out from memory, see
+ * {@link com.example.backend.Service.DisplayCodeAllocator}.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(
+        name = "display_code_sequence",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"farm_id", "kind"})
+        }
+)
+public class DisplayCodeSequence {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "farm_id", nullable = false)
+    private Long farmId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, columnDefinition = "VARCHAR(20)")
+    private DisplayCodeKind kind;
+
+    // First value not yet reserved by any replica, 0 .. 900000
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+}
@@ -0,0 +1,51 @@
+package com.example.backend.Entity;
+
+import com.example.backend.Entity.type.MilkSession;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Read model of milk produced and allocated per farm, day, session and animal type.
+ * Rows are only written through delta upserts and the periodic rebuild in
+ * {@link com.example.backend.Service.FarmAvailabilityService}.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(
+        name = "farm_daily_availability",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"farm_id", "record_date", "session", "animal_type"})
+        }
+)
+public class FarmDailyAvailability {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "farm_id", nullable = false)
+    private Farm farm;
+
+    @Column(name = "record_date", nullable = false)
+    private LocalDate recordDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private MilkSession session; // MORNING / EVENING
+
+    @Column(name = "animal_type", nullable = false, length = 32)
+    private String animalType; // upper-case, UNKNOWN when not set
+
+    @Column(name = "produced_liters", nullable = false)
+    private Double producedLiters;
+
+    @Column(name = "allocated_liters", nullable = false)
+    private Double allocatedLiters;
+}
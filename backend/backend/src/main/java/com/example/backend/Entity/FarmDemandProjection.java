@@ -0,0 +1,68 @@
+package com.example.backend.Entity;
+
+import com.example.backend.Entity.type.MilkSession;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Projected demand against projected production per farm, day, session and animal type
+ * for the coming days. Rows are replaced per farm by
+ * {@link com.example.backend.Service.DemandProjectionService} whenever the farm's orders
+ * or subscriptions change.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(
+        name = "farm_demand_projection",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"farm_id", "projection_date", "session", "animal_type"})
+        }
+)
+public class FarmDemandProjection {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "farm_id", nullable = false)
+    private Farm farm;
+
+    @Column(name = "projection_date", nullable = false)
+    private LocalDate projectionDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private MilkSession session; // MORNING / EVENING / ALL, as on orders
+
+    @Column(name = "animal_type", nullable = false, length = 32)
+    private String animalType; // upper-case, UNKNOWN when not set
+
+    @Column(name = "subscription_liters", nullable = false)
+    private Double subscriptionLiters; // active subscriptions due that day, known skips removed
+
+    @Column(name = "one_off_liters", nullable = false)
+    private Double oneOffLiters; // expected one-off orders, from the same weekday in recent weeks
+
+    @Column(name = "booked_liters", nullable = false)
+    private Double bookedLiters; // already allocated in farm_daily_availability
+
+    @Column(name = "demand_liters", nullable = false)
+    private Double demandLiters;
+
+    @Column(name = "production_liters", nullable = false)
+    private Double productionLiters;
+
+    @Column(name = "balance_liters", nullable = false)
+    private Double balanceLiters; // production - demand; negative is a shortfall
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+}
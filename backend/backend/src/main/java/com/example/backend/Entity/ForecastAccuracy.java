@@ -0,0 +1,51 @@
+package com.example.backend.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Latest walk-forward backtest of one forecast method on one farm. The row flagged
+ * {@code best} is the method served by default.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(
+        name = "forecast_accuracy",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"farm_id", "method"})
+        }
+)
+public class ForecastAccuracy {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "farm_id", nullable = false)
+    private Farm farm;
+
+    @Column(nullable = false)
+    private String method;
+
+    private Double mae;
+
+    private Double mape;
+
+    private Integer folds;
+
+    @Column(name = "evaluated_days")
+    private Integer evaluatedDays;
+
+    @Column(nullable = false)
+    private boolean best;
+
+    @Column(name = "evaluated_at")
+    private LocalDateTime evaluatedAt;
+}
@@ -13,7 +13,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "milk_allocations")
+@Table(name = "milk_allocations", indexes = {
+        @Index(name = "idx_allocation_reference", columnList = "type, reference_id")
+})
 public class MilkAllocation {
 
     @Id
@@ -34,6 +36,9 @@ public class MilkAllocation {
     @Column(name = "reference_id")
     private Long referenceId; // orderId or subscriptionId
 
+    @Column(name = "animal_type")
+    private String animalType; // normalised, as in farm_daily_availability
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -4,12 +4,18 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
-@Table(name = "milk_forecast")
+@Table(
+        name = "milk_forecast",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"farm_id", "forecast_date", "method"})
+        }
+)
 public class
 MilkForecast {
 
@@ -24,6 +30,9 @@ MilkForecast {
 
     private String method; // MOVING_AVERAGE, etc.
 
+    @Column(name = "generated_at")
+    private LocalDateTime generatedAt;
+
     @ManyToOne
     @JoinColumn(name = "farm_id", nullable = false)
     private Farm farm;
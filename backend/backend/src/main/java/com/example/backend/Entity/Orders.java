@@ -2,6 +2,7 @@ package com.example.backend.Entity;
 
 import com.example.backend.Entity.type.MilkSession;
 import com.example.backend.Entity.type.OrderStatus;
+import com.example.backend.Entity.type.ReservationStatus;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -16,7 +17,10 @@ import java.time.LocalDateTime;
 @Table(name = "orders", indexes = {
         @Index(name = "idx_order_date", columnList = "orderDate"),
         @Index(name = "idx_order_status", columnList = "status"),
-        @Index(name = "idx_order_farm", columnList = "farm_id")
+        @Index(name = "idx_order_status_created", columnList = "status, createdAt"),
+        @Index(name = "idx_order_status_confirmed", columnList = "status, confirmedAt, createdAt"),
+        @Index(name = "idx_order_farm", columnList = "farm_id"),
+        @Index(name = "idx_order_farm_feed", columnList = "farm_id, orderDate, pendingFirst, createdAt, id")
 })
 public class Orders {
 
@@ -33,6 +37,15 @@ public class Orders {
 
     private OrderStatus status; // PENDING / COMPLETED / CANCELLED
 
+    // 1 while PENDING (ordinal 0), maintained by MySQL; indexed so farm lists sort pending first
+    @Column(insertable = false, updatable = false,
+            columnDefinition = "TINYINT AS (IF(status = 0, 1, 0)) STORED")
+    private Integer pendingFirst;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private ReservationStatus reservationStatus; // null for subscription and legacy orders
+
     private MilkSession session;
 
     private String timeSlot;
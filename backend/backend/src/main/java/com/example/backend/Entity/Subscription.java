@@ -15,7 +15,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "subscriptions")
+@Table(name = "subscriptions", indexes = {
+        @Index(name = "idx_subscription_farm_status_seek", columnList = "farm_id, status, startDate, createdAt, id"),
+        @Index(name = "idx_subscription_farm_seek", columnList = "farm_id, startDate, createdAt, id")
+})
 public class Subscription {
 
     @Id
@@ -0,0 +1,64 @@
+package com.example.backend.Entity;
+
+import com.example.backend.Entity.type.GenerationRunStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Throughput record and checkpoint of one daily subscription order generation run.
+ * A run left RUNNING (lost lease, crash or failed chunks) resumes after
+ * {@code lastSubscriptionId} the next time the job starts.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "subscription_generation_run", indexes = {
+        @Index(name = "idx_generation_run_date", columnList = "run_date")
+})
+public class SubscriptionGenerationRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, columnDefinition = "VARCHAR(20)")
+    private GenerationRunStatus status;
+
+    // Keyset checkpoint: every active subscription with a lower or equal id has been handled
+    private Long lastSubscriptionId;
+
+    // 1 for the first scan; later passes rescan from the start to retry failed chunks
+    private Integer pass;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    private Long durationMs;
+
+    private Integer activeSubscriptions;
+
+    private Integer farmPartitions;
+
+    private Integer ordersGenerated;
+
+    private Integer skipped;       // not started, skipped today or awaiting payment
+
+    private Integer completed;     // ended and marked COMPLETED
+
+    private Integer failed;
+
+    private Integer alreadyGenerated; // found in the subscription_run ledger
+
+    private Double ordersPerSecond;
+}
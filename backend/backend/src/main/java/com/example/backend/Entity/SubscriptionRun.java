@@ -0,0 +1,44 @@
+package com.example.backend.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Ledger of subscription orders already generated: at most one row per subscription per day.
+ * Written in the same transaction as the order, so a retried or concurrent run cannot
+ * create a second order for the same subscription and date.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(
+        name = "subscription_run",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"subscription_id", "run_date"})
+        }
+)
+public class SubscriptionRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "subscription_id", nullable = false)
+    private Subscription subscription;
+
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    @Column(name = "order_display_code", length = 6)
+    private String orderDisplayCode;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
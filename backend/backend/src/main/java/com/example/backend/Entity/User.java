@@ -54,6 +54,11 @@ public class User {
 
     private LocalDateTime passwordResetOtpExpiry;
 
+    // Embedded in issued tokens; bumping it invalidates every token issued before
+    @Builder.Default
+    @Column(name = "token_version", nullable = false)
+    private Integer tokenVersion = 0;
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
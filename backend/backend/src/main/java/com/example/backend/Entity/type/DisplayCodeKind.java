@@ -0,0 +1,6 @@
+package com.example.backend.Entity.type;
+
+public enum DisplayCodeKind {
+    ORDER,
+    SUBSCRIPTION
+}
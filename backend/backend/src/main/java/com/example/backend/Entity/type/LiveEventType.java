@@ -0,0 +1,9 @@
+package com.example.backend.Entity.type;
+
+public enum LiveEventType {
+    MILK_RECORDED,
+    ORDER_PLACED,
+    ORDER_STATUS_CHANGED,
+    ORDERS_GENERATED,
+    HERD_CHANGED
+}
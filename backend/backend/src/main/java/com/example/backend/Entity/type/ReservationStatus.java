@@ -0,0 +1,6 @@
+package com.example.backend.Entity.type;
+
+public enum ReservationStatus {
+    ACCEPTED,       // Fits the session's recorded production
+    WAITLISTED      // Promoted in arrival order once milk frees up
+}
@@ -0,0 +1,112 @@
+package com.example.backend.Repository;
+
+import com.example.backend.Entity.CattleDailyYield;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface CattleDailyYieldRepository extends JpaRepository<CattleDailyYield, Long> {
+
+        /**
+         * Window sums per cattle over [from90, today]. Windows end yesterday so a half-milked
+         * today doesn't drag the means down; today is reported on its own.
+         * Columns: cattle_id, sum7, days7, sum30, days30, morning30, evening30, sum90, days90,
+         * today, yesterday, day_before.
+         */
+        String WINDOW_SELECT = """
+                            SELECT d.cattle_id,
+                                   SUM(CASE WHEN d.record_date >= :from7 AND d.record_date < :today
+                                            THEN d.morning_liters + d.evening_liters ELSE 0 END),
+                                   SUM(CASE WHEN d.record_date >= :from7 AND d.record_date < :today THEN 1 ELSE 0 END),
+                                   SUM(CASE WHEN d.record_date >= :from30 AND d.record_date < :today
+                                            THEN d.morning_liters + d.evening_liters ELSE 0 END),
+                                   SUM(CASE WHEN d.record_date >= :from30 AND d.record_date < :today THEN 1 ELSE 0 END),
+                                   SUM(CASE WHEN d.record_date >= :from30 AND d.record_date < :today
+                                            THEN d.morning_liters ELSE 0 END),
+                                   SUM(CASE WHEN d.record_date >= :from30 AND d.record_date < :today
+                                            THEN d.evening_liters ELSE 0 END),
+                                   SUM(CASE WHEN d.record_date < :today THEN d.morning_liters + d.evening_liters ELSE 0 END),
+                                   SUM(CASE WHEN d.record_date < :today THEN 1 ELSE 0 END),
+                                   SUM(CASE WHEN d.record_date = :today THEN d.morning_liters + d.evening_liters ELSE 0 END),
+                                   SUM(CASE WHEN d.record_date = :yesterday THEN d.morning_liters + d.evening_liters ELSE 0 END),
+                                   SUM(CASE WHEN d.record_date = :dayBefore THEN d.morning_liters + d.evening_liters ELSE 0 END)
+                            FROM cattle_daily_yield d
+                        """;
+
+        @Query(value = WINDOW_SELECT + """
+                            WHERE d.farm_id = :farmId AND d.record_date >= :from90
+                            GROUP BY d.cattle_id
+                        """, nativeQuery = true)
+        List<Object[]> windowsByFarm(
+                        @Param("farmId") Long farmId,
+                        @Param("today") LocalDate today,
+                        @Param("yesterday") LocalDate yesterday,
+                        @Param("dayBefore") LocalDate dayBefore,
+                        @Param("from7") LocalDate from7,
+                        @Param("from30") LocalDate from30,
+                        @Param("from90") LocalDate from90);
+
+        @Query(value = WINDOW_SELECT + """
+                            WHERE d.cattle_id = :cattleId AND d.record_date >= :from90
+                            GROUP BY d.cattle_id
+                        """, nativeQuery = true)
+        List<Object[]> windowsByCattle(
+                        @Param("cattleId") Long cattleId,
+                        @Param("today") LocalDate today,
+                        @Param("yesterday") LocalDate yesterday,
+                        @Param("dayBefore") LocalDate dayBefore,
+                        @Param("from7") LocalDate from7,
+                        @Param("from30") LocalDate from30,
+                        @Param("from90") LocalDate from90);
+
+        List<CattleDailyYield> findByCattleIdAndRecordDateGreaterThanEqualOrderByRecordDateAsc(
+                        Long cattleId, LocalDate from);
+
+        /**
+         * Adds liters to one cattle/day bucket, creating it on first use.
+         */
+        @Modifying
+        @Query(value = """
+                            INSERT INTO cattle_daily_yield (cattle_id, farm_id, record_date, morning_liters, evening_liters)
+                            VALUES (:cattleId, :farmId, :date, :morning, :evening)
+                            ON DUPLICATE KEY UPDATE
+                                morning_liters = morning_liters + VALUES(morning_liters),
+                                evening_liters = evening_liters + VALUES(evening_liters)
+                        """, nativeQuery = true)
+        int addEntry(
+                        @Param("cattleId") Long cattleId,
+                        @Param("farmId") Long farmId,
+                        @Param("date") LocalDate date,
+                        @Param("morning") double morning,
+                        @Param("evening") double evening);
+
+        /**
+         * Rebuilds every bucket from raw entries.
+         */
+        @Modifying
+        @Query(value = """
+                            INSERT INTO cattle_daily_yield (cattle_id, farm_id, record_date, morning_liters, evening_liters)
+                            SELECT e.cattle_id,
+                                   MAX(e.farm_id),
+                                   e.record_date,
+                                   SUM(CASE WHEN e.session = 'MORNING' THEN e.milk_liters ELSE 0 END),
+                                   SUM(CASE WHEN e.session = 'EVENING' THEN e.milk_liters ELSE 0 END)
+                            FROM cattle_milk_entry e
+                            GROUP BY e.cattle_id, e.record_date
+                            ON DUPLICATE KEY UPDATE
+                                farm_id = VALUES(farm_id),
+                                morning_liters = VALUES(morning_liters),
+                                evening_liters = VALUES(evening_liters)
+                        """, nativeQuery = true)
+        int rebuildAll();
+
+        @Modifying
+        @Query("DELETE FROM CattleDailyYield d WHERE d.cattleId = :cattleId")
+        int deleteByCattleId(@Param("cattleId") Long cattleId);
+}
@@ -0,0 +1,95 @@
+package com.example.backend.Repository;
+
+import com.example.backend.Entity.CattleMilkEntry;
+import com.example.backend.Entity.type.MilkSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Plain JDBC batch insert for bulk milk uploads; saving hundreds of entries through
+ * the entity manager would issue one INSERT (and identity round trip) per row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CattleMilkEntryBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO cattle_milk_entry (record_date, session, milk_liters, cattle_id, farm_id, entered_by)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String ADD_YIELD_SQL = """
+            INSERT INTO cattle_yield_stats
+                (cattle_id, farm_id, total_liters, day_count, last7_liters, last30_liters, last_entry_date)
+            VALUES (?, ?, ?, 1, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                day_count = day_count + IF(last_entry_date IS NULL OR last_entry_date < VALUES(last_entry_date), 1, 0),
+                total_liters = total_liters + VALUES(total_liters),
+                last7_liters = last7_liters + VALUES(last7_liters),
+                last30_liters = last30_liters + VALUES(last30_liters),
+                last_entry_date = GREATEST(COALESCE(last_entry_date, VALUES(last_entry_date)), VALUES(last_entry_date))
+            """;
+
+    private static final String ADD_DAILY_YIELD_SQL = """
+            INSERT INTO cattle_daily_yield (cattle_id, farm_id, record_date, morning_liters, evening_liters)
+            VALUES (?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                morning_liters = morning_liters + VALUES(morning_liters),
+                evening_liters = evening_liters + VALUES(evening_liters)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<CattleMilkEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setDate(1, Date.valueOf(entry.getRecordDate()));
+            ps.setString(2, entry.getSession().name());
+            ps.setDouble(3, entry.getMilkLiters());
+            ps.setLong(4, entry.getCattle().getId());
+            ps.setLong(5, entry.getFarm().getId());
+            ps.setLong(6, entry.getEnteredBy().getId());
+        });
+    }
+
+    /**
+     * Same upsert as {@link CattleYieldStatsRepository#addEntry}, batched for bulk uploads.
+     */
+    public void addToYieldStats(Collection<CattleMilkEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_YIELD_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getCattle().getId());
+            ps.setLong(2, entry.getFarm().getId());
+            ps.setDouble(3, entry.getMilkLiters());
+            ps.setDouble(4, entry.getMilkLiters());
+            ps.setDouble(5, entry.getMilkLiters());
+            ps.setDate(6, Date.valueOf(entry.getRecordDate()));
+        });
+    }
+
+    /**
+     * Same upsert as {@link CattleDailyYieldRepository#addEntry}, batched for bulk uploads.
+     */
+    public void addToDailyYield(Collection<CattleMilkEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_DAILY_YIELD_SQL, entries, entries.size(), (ps, entry) -> {
+            boolean morning = entry.getSession() == MilkSession.MORNING;
+            ps.setLong(1, entry.getCattle().getId());
+            ps.setLong(2, entry.getFarm().getId());
+            ps.setDate(3, Date.valueOf(entry.getRecordDate()));
+            ps.setDouble(4, morning ? entry.getMilkLiters() : 0.0);
+            ps.setDouble(5, morning ? 0.0 : entry.getMilkLiters());
+        });
+    }
+}
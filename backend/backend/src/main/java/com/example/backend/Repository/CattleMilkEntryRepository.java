@@ -17,6 +17,20 @@ public interface CattleMilkEntryRepository extends JpaRepository<CattleMilkEntry
             MilkSession session
     );
 
+    @Query("SELECT MIN(e.recordDate) FROM CattleMilkEntry e")
+    LocalDate findFirstRecordDate();
+
+    // Milking board: (cattleId, session) pairs recorded on the farm for the date
+    @Query("""
+        SELECT e.cattle.id, e.session
+        FROM CattleMilkEntry e
+        WHERE e.farm.id = :farmId
+          AND e.recordDate = :date
+    """)
+    java.util.List<Object[]> findMilkedSessions(
+            @org.springframework.data.repository.query.Param("farmId") Long farmId,
+            @org.springframework.data.repository.query.Param("date") LocalDate date);
+
     @Query("""
         SELECT COALESCE(SUM(e.milkLiters), 0)
         FROM CattleMilkEntry e
@@ -77,4 +91,29 @@ public interface CattleMilkEntryRepository extends JpaRepository<CattleMilkEntry
                 );
 
     java.util.List<CattleMilkEntry> findByCattle_Id(Long cattleId);
+
+    // Already recorded (cattleId, session) pairs, used to flag duplicates of a batch upload
+    @Query("""
+        SELECT e.cattle.id, e.session
+        FROM CattleMilkEntry e
+        WHERE e.farm.id = :farmId
+          AND e.recordDate = :date
+          AND e.cattle.id IN :cattleIds
+    """)
+    java.util.List<Object[]> findRecordedSessions(
+            @org.springframework.data.repository.query.Param("farmId") Long farmId,
+            @org.springframework.data.repository.query.Param("date") LocalDate date,
+            @org.springframework.data.repository.query.Param("cattleIds") java.util.Collection<Long> cattleIds
+    );
+
+    // Reconciliation source of truth: farmId, recordDate, session, liters
+    @Query("""
+        SELECT e.farm.id, e.recordDate, e.session, COALESCE(SUM(e.milkLiters), 0)
+        FROM CattleMilkEntry e
+        WHERE e.recordDate >= :fromDate
+        GROUP BY e.farm.id, e.recordDate, e.session
+    """)
+    java.util.List<Object[]> sumBySessionSince(
+            @org.springframework.data.repository.query.Param("fromDate") LocalDate fromDate
+    );
 }
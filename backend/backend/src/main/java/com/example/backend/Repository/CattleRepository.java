@@ -2,8 +2,11 @@ package com.example.backend.Repository;
 
 import com.example.backend.Entity.Cattle;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +18,32 @@ public interface CattleRepository extends JpaRepository<Cattle, Long> {
     Optional<Cattle> findByFarm_IdAndTagId(Long farmId, String tagId);
     long countByFarmIdAndStatus(Long farmId, String status);
 
-}
\ No newline at end of file
+    // Farm listing: farmId, herd size
+    @Query("SELECT c.farm.id, COUNT(c) FROM Cattle c WHERE c.farm.id IN :farmIds GROUP BY c.farm.id")
+    List<Object[]> countByFarmIds(@Param("farmIds") Collection<Long> farmIds);
+
+    // Herd listing: each cattle with its shed and running yield figures (stats may be null)
+    @Query("""
+        SELECT c, s FROM Cattle c
+        LEFT JOIN FETCH c.shed
+        LEFT JOIN CattleYieldStats s ON s.cattleId = c.id
+        WHERE c.farm.id = :farmId
+    """)
+    List<Object[]> findWithYieldStatsByFarmId(@Param("farmId") Long farmId);
+
+    // Resolves a whole scanned batch of tags in one round trip
+    @Query("SELECT c FROM Cattle c LEFT JOIN FETCH c.shed WHERE c.farm.id = :farmId AND c.tagId IN :tagIds")
+    List<Cattle> findByFarmIdAndTagIdIn(@Param("farmId") Long farmId, @Param("tagIds") Collection<String> tagIds);
+
+
+    // Milking board: id, tagId, type, shedId, shedName of the farm's active cattle
+    @Query("""
+        SELECT c.id, c.tagId, c.type, s.id, s.name
+        FROM Cattle c
+        LEFT JOIN c.shed s
+        WHERE c.farm.id = :farmId
+          AND UPPER(c.status) = 'ACTIVE'
+        ORDER BY s.name ASC, c.tagId ASC
+    """)
+    List<Object[]> findBoardRows(@Param("farmId") Long farmId);
+}
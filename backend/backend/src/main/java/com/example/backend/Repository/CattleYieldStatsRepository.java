@@ -0,0 +1,81 @@
+package com.example.backend.Repository;
+
+import com.example.backend.Entity.CattleYieldStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface CattleYieldStatsRepository extends JpaRepository<CattleYieldStats, Long> {
+
+        /**
+         * Adds one milk entry to the cattle's running figures, creating the row on first use.
+         * The day count only grows when the entry is for a later day than the last one seen.
+         */
+        @Modifying
+        @Query(value = """
+                            INSERT INTO cattle_yield_stats
+                                (cattle_id, farm_id, total_liters, day_count, last7_liters, last30_liters, last_entry_date)
+                            VALUES (:cattleId, :farmId, :liters, 1, :liters, :liters, :date)
+                            ON DUPLICATE KEY UPDATE
+                                day_count = day_count + IF(last_entry_date IS NULL OR last_entry_date < VALUES(last_entry_date), 1, 0),
+                                total_liters = total_liters + VALUES(total_liters),
+                                last7_liters = last7_liters + VALUES(last7_liters),
+                                last30_liters = last30_liters + VALUES(last30_liters),
+                                last_entry_date = GREATEST(COALESCE(last_entry_date, VALUES(last_entry_date)), VALUES(last_entry_date))
+                        """, nativeQuery = true)
+        int addEntry(
+                        @Param("cattleId") Long cattleId,
+                        @Param("farmId") Long farmId,
+                        @Param("date") LocalDate date,
+                        @Param("liters") double liters);
+
+        /**
+         * Recomputes the rolling sums from the last 30 days of raw entries.
+         */
+        @Modifying
+        @Query(value = """
+                            UPDATE cattle_yield_stats s
+                            LEFT JOIN (
+                                SELECT e.cattle_id,
+                                       SUM(CASE WHEN e.record_date >= :from7 THEN e.milk_liters ELSE 0 END) AS l7,
+                                       SUM(e.milk_liters) AS l30
+                                FROM cattle_milk_entry e
+                                WHERE e.record_date >= :from30
+                                GROUP BY e.cattle_id
+                            ) w ON w.cattle_id = s.cattle_id
+                            SET s.last7_liters = COALESCE(w.l7, 0),
+                                s.last30_liters = COALESCE(w.l30, 0)
+                        """, nativeQuery = true)
+        int refreshWindows(@Param("from7") LocalDate from7, @Param("from30") LocalDate from30);
+
+        /**
+         * Rebuilds every row from the full entry history.
+         */
+        @Modifying
+        @Query(value = """
+                            INSERT INTO cattle_yield_stats
+                                (cattle_id, farm_id, total_liters, day_count, last7_liters, last30_liters, last_entry_date)
+                            SELECT e.cattle_id,
+                                   MAX(e.farm_id),
+                                   SUM(e.milk_liters),
+                                   COUNT(DISTINCT e.record_date),
+                                   SUM(CASE WHEN e.record_date >= :from7 THEN e.milk_liters ELSE 0 END),
+                                   SUM(CASE WHEN e.record_date >= :from30 THEN e.milk_liters ELSE 0 END),
+                                   MAX(e.record_date)
+                            FROM cattle_milk_entry e
+                            GROUP BY e.cattle_id
+                            ON DUPLICATE KEY UPDATE
+                                farm_id = VALUES(farm_id),
+                                total_liters = VALUES(total_liters),
+                                day_count = VALUES(day_count),
+                                last7_liters = VALUES(last7_liters),
+                                last30_liters = VALUES(last30_liters),
+                                last_entry_date = VALUES(last_entry_date)
+                        """, nativeQuery = true)
+        int rebuildAll(@Param("from7") LocalDate from7, @Param("from30") LocalDate from30);
+}
@@ -0,0 +1,27 @@
+package com.example.backend.Repository;
+
+import com.example.backend.Entity.DisplayCodeSequence;
+import com.example.backend.Entity.type.DisplayCodeKind;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DisplayCodeSequenceRepository extends JpaRepository<DisplayCodeSequence, Long> {
+
+    @Modifying
+    @Query(value = """
+        INSERT IGNORE INTO display_code_sequence (farm_id, kind, next_value)
+        VALUES (:farmId, :kind, 0)
+    """, nativeQuery = true)
+    int ensureExists(@Param("farmId") Long farmId, @Param("kind") String kind);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<DisplayCodeSequence> findByFarmIdAndKind(Long farmId, DisplayCodeKind kind);
+}
@@ -0,0 +1,154 @@
+package com.example.backend.Repository;
+
+import com.example.backend.Entity.FarmDailyAvailability;
+import com.example.backend.Entity.type.MilkSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FarmDailyAvailabilityRepository extends JpaRepository<FarmDailyAvailability, Long> {
+
+        List<FarmDailyAvailability> findByFarmIdAndRecordDate(Long farmId, LocalDate recordDate);
+
+        List<FarmDailyAvailability> findByFarmIdAndRecordDateBetween(Long farmId, LocalDate from, LocalDate to);
+
+        // Milk history: recordDate, animalType, morning liters, evening liters, oldest first
+        @Query("""
+                            SELECT a.recordDate, a.animalType,
+                                   SUM(CASE WHEN a.session = com.example.backend.Entity.type.MilkSession.MORNING
+                                            THEN a.producedLiters ELSE 0 END),
+                                   SUM(CASE WHEN a.session = com.example.backend.Entity.type.MilkSession.EVENING
+                                            THEN a.producedLiters ELSE 0 END)
+                            FROM FarmDailyAvailability a
+                            WHERE a.farm.id = :farmId
+                              AND a.recordDate BETWEEN :from AND :to
+                              AND a.producedLiters > 0
+                            GROUP BY a.recordDate, a.animalType
+                            ORDER BY a.recordDate ASC, a.animalType ASC
+                        """)
+        List<Object[]> sumProducedByDateAndType(
+                        @Param("farmId") Long farmId,
+                        @Param("from") LocalDate from,
+                        @Param("to") LocalDate to);
+
+        @Query("""
+                            SELECT COALESCE(SUM(a.producedLiters), 0)
+                            FROM FarmDailyAvailability a
+                            WHERE a.farm.id = :farmId
+                              AND a.recordDate = :date
+                              AND a.session = :session
+                              AND a.animalType = :animalType
+                        """)
+        Double findProducedLiters(
+                        @Param("farmId") Long farmId,
+                        @Param("date") LocalDate date,
+                        @Param("session") MilkSession session,
+                        @Param("animalType") String animalType);
+
+        @Query("SELECT MIN(a.recordDate) FROM FarmDailyAvailability a WHERE a.producedLiters > 0")
+        LocalDate findFirstProducedDate();
+
+        // Production share per session/animal type: session, animalType, produced liters
+        @Query("""
+                            SELECT a.session, a.animalType, SUM(a.producedLiters)
+                            FROM FarmDailyAvailability a
+                            WHERE a.farm.id = :farmId
+                              AND a.recordDate >= :from AND a.recordDate < :to
+                              AND a.producedLiters > 0
+                            GROUP BY a.session, a.animalType
+                        """)
+        List<Object[]> sumProducedBySessionAndType(
+                        @Param("farmId") Long farmId,
+                        @Param("from") LocalDate from,
+                        @Param("to") LocalDate to);
+
+        // Farm listing: farmId, animalType, produced, allocated for the MORNING/EVENING sessions of a day
+        @Query("""
+                            SELECT a.farm.id, a.animalType, SUM(a.producedLiters), SUM(a.allocatedLiters)
+                            FROM FarmDailyAvailability a
+                            WHERE a.farm.id IN :farmIds
+                              AND a.recordDate = :date
+                              AND a.session IN (com.example.backend.Entity.type.MilkSession.MORNING,
+                                                com.example.backend.Entity.type.MilkSession.EVENING)
+                            GROUP BY a.farm.id, a.animalType
+                        """)
+        List<Object[]> sumByFarmIds(
+                        @Param("farmIds") Collection<Long> farmIds,
+                        @Param("date") LocalDate date);
+
+        /**
+         * Adds produced/allocated liters to one snapshot row, creating it on first use.
+         */
+        @Modifying
+        @Query(value = """
+                            INSERT INTO farm_daily_availability
+                                (farm_id, record_date, session, animal_type, produced_liters, allocated_liters)
+                            VALUES (:farmId, :date, :session, :animalType, :produced, :allocated)
+                            ON DUPLICATE KEY UPDATE
+                                produced_liters = produced_liters + VALUES(produced_liters),
+                                allocated_liters = allocated_liters + VALUES(allocated_liters)
+                        """, nativeQuery = true)
+        int addDelta(
+                        @Param("farmId") Long farmId,
+                        @Param("date") LocalDate date,
+                        @Param("session") String session,
+                        @Param("animalType") String animalType,
+                        @Param("produced") Double produced,
+                        @Param("allocated") Double allocated);
+
+        /**
+         * Rebuild, one farm at a time: adds (recomputed - current) to every row that has raw
+         * entries, open orders or a non-zero value (orders.session is stored as its ordinal).
+         * The raw tables and the current rows are read in one statement snapshot and the
+         * difference is applied under the row lock, so a delta committed after the snapshot
+         * is kept rather than overwritten, and rows left without sources drop to zero.
+         */
+        @Modifying
+        @Query(value = """
+                            INSERT INTO farm_daily_availability
+                                (farm_id, record_date, session, animal_type, produced_liters, allocated_liters)
+                            SELECT :farmId, k.record_date, k.session, k.animal_type, SUM(k.produced), SUM(k.allocated)
+                            FROM (
+                                SELECT e.record_date, e.session,
+                                       COALESCE(NULLIF(UPPER(TRIM(c.type)), ''), 'UNKNOWN') AS animal_type,
+                                       e.milk_liters AS produced, 0 AS allocated
+                                FROM cattle_milk_entry e
+                                JOIN cattle c ON c.id = e.cattle_id
+                                WHERE e.farm_id = :farmId
+                                  AND e.record_date BETWEEN :fromDate AND :toDate
+                                UNION ALL
+                                SELECT o.order_date,
+                                       CASE o.session WHEN 0 THEN 'MORNING' WHEN 1 THEN 'EVENING' ELSE 'ALL' END,
+                                       COALESCE(NULLIF(UPPER(TRIM(o.animal_type)), ''), 'UNKNOWN'),
+                                       0, o.quantity
+                                FROM orders o
+                                WHERE o.farm_id = :farmId
+                                  AND o.order_date BETWEEN :fromDate AND :toDate
+                                  AND o.session IS NOT NULL
+                                  AND o.status IN (:openStatuses)
+                                UNION ALL
+                                SELECT a.record_date, a.session, a.animal_type,
+                                       -a.produced_liters, -a.allocated_liters
+                                FROM farm_daily_availability a
+                                WHERE a.farm_id = :farmId
+                                  AND a.record_date BETWEEN :fromDate AND :toDate
+                            ) k
+                            GROUP BY k.record_date, k.session, k.animal_type
+                            HAVING ABS(SUM(k.produced)) > 1e-9 OR ABS(SUM(k.allocated)) > 1e-9
+                            ON DUPLICATE KEY UPDATE
+                                produced_liters = produced_liters + VALUES(produced_liters),
+                                allocated_liters = allocated_liters + VALUES(allocated_liters)
+                        """, nativeQuery = true)
+        int rebuildFarmBetween(
+                        @Param("farmId") Long farmId,
+                        @Param("fromDate") LocalDate fromDate,
+                        @Param("toDate") LocalDate toDate,
+                        @Param("openStatuses") Collection<Integer> openStatuses);
+}
@@ -0,0 +1,15 @@
+package com.example.backend.Repository;
+
+import com.example.backend.Entity.FarmDailyConditions;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface FarmDailyConditionsRepository extends JpaRepository<FarmDailyConditions, Long> {
+
+    List<FarmDailyConditions> findByFarm_IdAndRecordDateBetweenOrderByRecordDateAsc(
+            Long farmId, LocalDate from, LocalDate to);
+}
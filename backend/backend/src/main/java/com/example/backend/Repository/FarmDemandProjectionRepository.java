@@ -0,0 +1,22 @@
+package com.example.backend.Repository;
+
+import com.example.backend.Entity.FarmDemandProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface FarmDemandProjectionRepository extends JpaRepository<FarmDemandProjection, Long> {
+
+    List<FarmDemandProjection> findByFarmIdAndProjectionDateGreaterThanEqualOrderByProjectionDateAscSessionAscAnimalTypeAsc(
+            Long farmId, LocalDate from);
+
+    @Modifying
+    @Query("DELETE FROM FarmDemandProjection p WHERE p.farm.id = :farmId")
+    int deleteByFarm(@Param("farmId") Long farmId);
+}
@@ -1,6 +1,7 @@
 package com.example.backend.Repository;
 
 import com.example.backend.Entity.Farm;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -10,11 +11,16 @@ import java.util.Optional;
 
 @Repository
 public interface FarmRepository extends JpaRepository<Farm, Long> {
+    @EntityGraph(attributePaths = "owner")
     List<Farm> findByOwnerId(Long ownerId);
 
+    @Query("SELECT f.id FROM Farm f ORDER BY f.id")
+    List<Long> findAllIds();
+
     Optional<Farm> findByIdAndOwnerId(Long farmId, Long ownerId);
 
     // Farms where a given worker is assigned
+    @EntityGraph(attributePaths = "owner")
     @Query("SELECT f FROM Farm f WHERE EXISTS (SELECT 1 FROM FarmWorker fw WHERE fw.farm = f AND fw.worker.id = :workerId)")
     java.util.List<Farm> findByWorkers_Id(Long workerId);
 
@@ -28,11 +34,14 @@ public interface FarmRepository extends JpaRepository<Farm, Long> {
     List<Farm> findByCityIn(List<String> cities);
 
     // Filtered by selling status
+    @EntityGraph(attributePaths = "owner")
     List<Farm> findByIsSellingTrue();
 
+    @EntityGraph(attributePaths = "owner")
     List<Farm> findByCityContainingIgnoreCaseAndIsSellingTrue(String city);
 
     List<Farm> findByCityIgnoreCaseAndIsSellingTrue(String city);
 
+    @EntityGraph(attributePaths = "owner")
     List<Farm> findByAddressContainingIgnoreCaseAndIsSellingTrue(String address);
 }
@@ -3,6 +3,7 @@ package com.example.backend.Repository;
 import com.example.backend.Entity.FarmWorker;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -18,4 +19,14 @@ public interface FarmWorkerRepository extends JpaRepository<FarmWorker, Long> {
     Optional<FarmWorker> findByFarmIdAndWorkerId(Long farmId, Long workerId);
     
     void deleteByFarmIdAndWorkerId(Long farmId, Long workerId);
+
+    // Farm listing: farmId, number of users with the WORKER role
+    @Query("""
+        SELECT fw.farm.id, COUNT(fw)
+        FROM FarmWorker fw
+        WHERE fw.farm.id IN :farmIds
+          AND fw.worker.role = com.example.backend.Entity.type.UserRole.WORKER
+        GROUP BY fw.farm.id
+    """)
+    List<Object[]> countWorkersByFarmIds(@Param("farmIds") java.util.Collection<Long> farmIds);
 }
@@ -16,6 +16,18 @@ public interface FarmWorkerShedRepository extends JpaRepository<FarmWorkerShed,
 
     List<FarmWorkerShed> findByShedId(Long shedId);
 
+    // Milking board: shedId, workerId, workerName for every worker shed assignment on the farm
+    @Query("""
+        SELECT fws.shed.id, w.id, w.name
+        FROM FarmWorkerShed fws
+        JOIN fws.farmWorker fw
+        JOIN fw.worker w
+        WHERE fw.farm.id = :farmId
+          AND w.role = com.example.backend.Entity.type.UserRole.WORKER
+        ORDER BY fws.id ASC
+    """)
+    List<Object[]> findShedWorkersByFarmId(@Param("farmId") Long farmId);
+
     @Modifying
     @Query("DELETE FROM FarmWorkerShed fws WHERE fws.farmWorker.id = :farmWorkerId")
     void deleteByFarmWorkerId(@Param("farmWorkerId") Long farmWorkerId);
@@ -0,0 +1,23 @@
+package com.example.backend.Repository;
+
+import com.example.backend.Entity.ForecastAccuracy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ForecastAccuracyRepository extends JpaRepository<ForecastAccuracy, Long> {
+
+    List<ForecastAccuracy> findByFarm_IdOrderByMaeAsc(Long farmId);
+
+    Optional<ForecastAccuracy> findFirstByFarm_IdAndBestTrue(Long farmId);
+
+    @Modifying
+    @Query("DELETE FROM ForecastAccuracy a WHERE a.farm.id = :farmId")
+    int deleteByFarm(@Param("farmId") Long farmId);
+}
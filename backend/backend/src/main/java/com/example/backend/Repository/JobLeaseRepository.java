@@ -0,0 +1,47 @@
+package com.example.backend.Repository;
+
+import com.example.backend.Entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    // Creates the lease row once, already expired; concurrent callers are ignored
+    @Modifying
+    @Query(value = """
+        INSERT IGNORE INTO job_lease (name, owner, locked_until)
+        VALUES (:name, '', '2000-01-01 00:00:00')
+    """, nativeQuery = true)
+    int ensureExists(@Param("name") String name);
+
+    // Takes an expired lease or extends our own; 1 when we hold it afterwards
+    @Modifying
+    @Query(value = """
+        UPDATE job_lease
+        SET owner = :owner, locked_until = :until
+        WHERE name = :name
+          AND (locked_until < :now OR owner = :owner)
+    """, nativeQuery = true)
+    int tryAcquire(
+            @Param("name") String name,
+            @Param("owner") String owner,
+            @Param("now") LocalDateTime now,
+            @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query(value = """
+        UPDATE job_lease
+        SET locked_until = :now
+        WHERE name = :name AND owner = :owner
+    """, nativeQuery = true)
+    int release(
+            @Param("name") String name,
+            @Param("owner") String owner,
+            @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,104 @@
+package com.example.backend.Repository;
+
+import com.example.backend.Entity.type.OrderStatus;
+import com.example.backend.Entity.type.ReservationStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Write-behind side of the milk reservation ledger: keeps one ORDER allocation per accepted
+ * order. Every statement re-checks the order row, so replaying one (or running the repair
+ * after a crash lost some) is harmless. Orders store status and session as ordinals,
+ * milk_inventory stores the session by name.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MilkAllocationBatchRepository {
+
+    private static final String HOLDING = OrderStatus.PENDING.ordinal() + ", "
+            + OrderStatus.CONFIRMED.ordinal() + ", " + OrderStatus.COMPLETED.ordinal();
+
+    private static final String ACCEPTED = "'" + ReservationStatus.ACCEPTED.name() + "'";
+
+    private static final String INSERT_SELECT = """
+            INSERT INTO milk_allocations (milk_inventory_id, quantity, type, reference_id, animal_type, created_at)
+            SELECT m.id, o.quantity, 'ORDER', o.id,
+                   COALESCE(NULLIF(UPPER(TRIM(o.animal_type)), ''), 'UNKNOWN'), NOW()
+            FROM orders o
+            JOIN milk_inventory m ON m.farm_id = o.farm_id
+                                 AND m.record_date = o.order_date
+                                 AND m.session = CASE o.session WHEN 0 THEN 'MORNING' WHEN 1 THEN 'EVENING' END
+            WHERE o.reservation_status = %s
+              AND o.status IN (%s)
+              AND NOT EXISTS (SELECT 1 FROM milk_allocations a WHERE a.type = 'ORDER' AND a.reference_id = o.id)
+            """.formatted(ACCEPTED, HOLDING);
+
+    private static final String INSERT_SQL = INSERT_SELECT + "  AND o.id = ?";
+
+    private static final String REPAIR_INSERT_SQL = INSERT_SELECT + "  AND o.order_date >= ?";
+
+    private static final String DELETE_SQL = "DELETE FROM milk_allocations WHERE type = 'ORDER' AND reference_id = ?";
+
+    private static final String REPAIR_DELETE_SQL = """
+            DELETE a FROM milk_allocations a
+            LEFT JOIN orders o ON o.id = a.reference_id
+            WHERE a.type = 'ORDER'
+              AND a.created_at >= ?
+              AND (o.id IS NULL OR o.status NOT IN (%s) OR o.reservation_status IS NULL OR o.reservation_status <> %s)
+            """.formatted(HOLDING, ACCEPTED);
+
+    private static final String PROMOTE_SQL = """
+            UPDATE orders SET reservation_status = %s
+            WHERE id = ?
+              AND reservation_status = '%s'
+              AND status IN (%s)
+            """.formatted(ACCEPTED, ReservationStatus.WAITLISTED.name(), HOLDING);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Allocates accepted orders against their session's inventory row. Orders with no
+     * inventory row yet are skipped and picked up by {@link #repairSince}.
+     */
+    public void insertOrderAllocations(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, orderIds, orderIds.size(), (ps, orderId) -> ps.setLong(1, orderId));
+    }
+
+    public void deleteOrderAllocations(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DELETE_SQL, orderIds, orderIds.size(), (ps, orderId) -> ps.setLong(1, orderId));
+    }
+
+    /**
+     * Marks waitlisted orders ACCEPTED, skipping any closed since.
+     */
+    public void markAccepted(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(PROMOTE_SQL, orderIds, orderIds.size(), (ps, orderId) -> ps.setLong(1, orderId));
+    }
+
+    /**
+     * Brings allocations for orders from {@code fromDate} on in line with the orders table:
+     * drops those of closed or unaccepted orders and adds missing ones.
+     *
+     * @return rows deleted plus rows inserted
+     */
+    public int repairSince(LocalDate fromDate) {
+        Date from = Date.valueOf(fromDate);
+        int deleted = jdbcTemplate.update(REPAIR_DELETE_SQL, from);
+        int inserted = jdbcTemplate.update(REPAIR_INSERT_SQL, from);
+        return deleted + inserted;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.backend.Repository;
+
+import com.example.backend.Entity.MilkForecast;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface MilkForecastRepository extends JpaRepository<MilkForecast, Long> {
+
+    List<MilkForecast> findByFarm_IdAndForecastDateGreaterThanEqualOrderByForecastDateAscMethodAsc(
+            Long farmId, LocalDate from);
+
+    List<MilkForecast> findByFarm_IdAndMethodAndForecastDateGreaterThanEqualOrderByForecastDateAsc(
+            Long farmId, String method, LocalDate from);
+
+    // Predictions from the previous training replaced by the new ones
+    @Modifying
+    @Query("DELETE FROM MilkForecast m WHERE m.farm.id = :farmId AND m.forecastDate >= :from")
+    int deleteFromDate(@Param("farmId") Long farmId, @Param("from") LocalDate from);
+}
@@ -5,6 +5,7 @@ import com.example.backend.Entity.type.MilkSession;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -46,4 +47,53 @@ public interface MilkInventoryRepository extends JpaRepository<MilkInventory, Lo
                         "GROUP BY m.recordDate " +
                         "ORDER BY m.recordDate ASC")
         List<Object[]> findDailyTotals(@Param("farmId") Long farmId, @Param("fromDate") LocalDate fromDate);
+
+        /**
+         * Applies a single milk entry to the farm/date/session counter in one statement,
+         * creating the row on first entry of the session.
+         */
+        @Modifying
+        @Query(value = """
+                            INSERT INTO milk_inventory (record_date, session, milk_liters, farm_id, entered_by)
+                            VALUES (:date, :session, :liters, :farmId, :enteredBy)
+                            ON DUPLICATE KEY UPDATE milk_liters = milk_liters + VALUES(milk_liters)
+                        """, nativeQuery = true)
+        int addMilkLiters(
+                        @Param("farmId") Long farmId,
+                        @Param("date") LocalDate date,
+                        @Param("session") String session,
+                        @Param("liters") Double liters,
+                        @Param("enteredBy") Long enteredBy);
+
+        // Reconciliation: id, farmId, recordDate, session, milkLiters
+        @Query("""
+                            SELECT m.id, m.farm.id, m.recordDate, m.session, m.milkLiters
+                            FROM MilkInventory m
+                            WHERE m.recordDate >= :fromDate
+                        """)
+        List<Object[]> findCountersSince(@Param("fromDate") LocalDate fromDate);
+
+        // Compare-and-set so a concurrent delta update is never overwritten by a stale total
+        @Modifying
+        @Query("""
+                            UPDATE MilkInventory m
+                            SET m.milkLiters = :expected
+                            WHERE m.id = :id
+                              AND m.milkLiters = :observed
+                        """)
+        int repairMilkLiters(
+                        @Param("id") Long id,
+                        @Param("observed") Double observed,
+                        @Param("expected") Double expected);
+
+        @Modifying
+        @Query(value = """
+                            INSERT IGNORE INTO milk_inventory (record_date, session, milk_liters, farm_id)
+                            VALUES (:date, :session, :liters, :farmId)
+                        """, nativeQuery = true)
+        int insertMissingCounter(
+                        @Param("farmId") Long farmId,
+                        @Param("date") LocalDate date,
+                        @Param("session") String session,
+                        @Param("liters") Double liters);
 }
@@ -0,0 +1,76 @@
+package com.example.backend.Repository;
+
+import com.example.backend.Entity.Orders;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Plain JDBC batch insert for generated subscription orders. Status and session are
+ * written as ordinals, matching how {@link Orders} maps them.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrdersBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO orders (display_code, order_date, quantity, status, session, time_slot, animal_type,
+                                total_price, paid, buyer_name, farm_name, created_at, buyer_id, farm_id, subscription_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_RUN_SQL = """
+            INSERT INTO subscription_run (subscription_id, run_date, order_display_code, created_at)
+            VALUES (?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Ledger rows for generated subscription orders. Call before {@link #insertAll} in the
+     * same transaction: a duplicate (subscription, date) fails the batch and rolls it back.
+     */
+    public void insertSubscriptionRuns(List<Orders> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_RUN_SQL, orders, orders.size(), (ps, order) -> {
+            ps.setLong(1, order.getSubscription().getId());
+            ps.setDate(2, Date.valueOf(order.getOrderDate()));
+            ps.setString(3, order.getDisplayCode());
+            ps.setTimestamp(4, Timestamp.valueOf(order.getCreatedAt()));
+        });
+    }
+
+    public void insertAll(List<Orders> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, orders, orders.size(), (ps, order) -> {
+            ps.setString(1, order.getDisplayCode());
+            ps.setDate(2, Date.valueOf(order.getOrderDate()));
+            ps.setDouble(3, order.getQuantity());
+            ps.setInt(4, order.getStatus().ordinal());
+            ps.setInt(5, order.getSession().ordinal());
+            ps.setString(6, order.getTimeSlot());
+            ps.setString(7, order.getAnimalType());
+            ps.setDouble(8, order.getTotalPrice());
+            ps.setBoolean(9, Boolean.TRUE.equals(order.getPaid()));
+            ps.setString(10, order.getBuyerName());
+            ps.setString(11, order.getFarmName());
+            ps.setTimestamp(12, Timestamp.valueOf(order.getCreatedAt()));
+            ps.setLong(13, order.getBuyer().getId());
+            ps.setLong(14, order.getFarm().getId());
+            if (order.getSubscription() != null) {
+                ps.setLong(15, order.getSubscription().getId());
+            } else {
+                ps.setNull(15, Types.BIGINT);
+            }
+        });
+    }
+}
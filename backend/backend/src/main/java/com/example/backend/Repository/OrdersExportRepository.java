@@ -0,0 +1,116 @@
+package com.example.backend.Repository;
+
+import com.example.backend.DTO.OrderResponseDto;
+import com.example.backend.Entity.type.MilkSession;
+import com.example.backend.Entity.type.OrderStatus;
+import com.example.backend.Entity.type.ReservationStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Streams a farm's orders straight off a JDBC cursor for exports. Rows are handed to the
+ * consumer one by one in the listing order; nothing is collected in memory.
+ */
+@Repository
+public class OrdersExportRepository {
+
+    private static final String SELECT_SQL = """
+            SELECT o.id, o.display_code, o.order_date, o.quantity, o.session, o.time_slot, o.status,
+                   o.reservation_status, o.buyer_id, u.name AS buyer_name, o.farm_id, f.name AS farm_name,
+                   o.animal_type, o.total_price, o.paid, o.paid_amount, o.paid_at, o.created_at
+            FROM orders o
+            JOIN users u ON u.id = o.buyer_id
+            JOIN farms f ON f.id = o.farm_id
+            WHERE o.farm_id = ?
+            """;
+
+    // Same order as the farm feed, read from idx_order_farm_feed
+    private static final String ORDER_BY = " ORDER BY o.order_date DESC, o.pending_first DESC, o.created_at DESC, o.id DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrdersExportRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // MySQL/MariaDB drivers stream row by row instead of buffering the whole result set
+        this.jdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    public void streamFarmOrders(Long farmId, LocalDate from, LocalDate to, Consumer<OrderResponseDto> consumer) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> args = new ArrayList<>();
+        args.add(farmId);
+        if (from != null) {
+            sql.append(" AND o.order_date >= ?");
+            args.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND o.order_date <= ?");
+            args.add(Date.valueOf(to));
+        }
+        sql.append(ORDER_BY);
+
+        RowCallbackHandler handler = rs -> consumer.accept(mapRow(rs));
+        jdbcTemplate.query(sql.toString(), handler, args.toArray());
+    }
+
+    private static OrderResponseDto mapRow(ResultSet rs) throws SQLException {
+        Long id = rs.getLong("id");
+        String displayCode = rs.getString("display_code");
+        return OrderResponseDto.builder()
+                .id(id)
+                .displayCode(displayCode != null && !displayCode.isBlank() ? displayCode : String.format("%06d", id))
+                .orderDate(toLocalDate(rs.getDate("order_date")))
+                .quantity(getDouble(rs, "quantity"))
+                .session(getEnum(rs, "session", MilkSession.values()))
+                .timeSlot(rs.getString("time_slot"))
+                .status(getEnum(rs, "status", OrderStatus.values()))
+                .reservationStatus(getReservationStatus(rs))
+                .buyerId(rs.getLong("buyer_id"))
+                .buyerName(rs.getString("buyer_name"))
+                .farmId(rs.getLong("farm_id"))
+                .farmName(rs.getString("farm_name"))
+                .animalType(rs.getString("animal_type"))
+                .totalPrice(getDouble(rs, "total_price"))
+                .paid(rs.getBoolean("paid"))
+                .paidAmount(getDouble(rs, "paid_amount"))
+                .paidAt(toLocalDateTime(rs.getTimestamp("paid_at")))
+                .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                .build();
+    }
+
+    // Enum columns on orders are stored by ordinal
+    private static <E extends Enum<E>> E getEnum(ResultSet rs, String column, E[] values) throws SQLException {
+        int ordinal = rs.getInt(column);
+        return rs.wasNull() ? null : values[ordinal];
+    }
+
+    private static ReservationStatus getReservationStatus(ResultSet rs) throws SQLException {
+        String value = rs.getString("reservation_status");
+        return value == null ? null : ReservationStatus.valueOf(value);
+    }
+
+    private static Double getDouble(ResultSet rs, String column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date == null ? null : date.toLocalDate();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -14,6 +14,10 @@ import java.util.List;
 import com.example.backend.Entity.type.MilkSession;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Lock;
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
 
 @Repository
 public interface OrdersRepository extends JpaRepository<Orders, Long> {
@@ -25,12 +29,51 @@ public interface OrdersRepository extends JpaRepository<Orders, Long> {
     boolean existsByFarm_IdAndDisplayCode(Long farmId, String displayCode);
     List<Orders> findBySubscription_IdAndOrderDateAndStatus(Long subscriptionId, LocalDate orderDate, OrderStatus status);
 
+    @Query("SELECT o.displayCode FROM Orders o WHERE o.farm.id = :farmId AND o.displayCode IN :codes")
+    List<String> findExistingDisplayCodes(@Param("farmId") Long farmId, @Param("codes") java.util.Collection<String> codes);
+
     // Farm-based queries for owner/worker access
     List<Orders> findByFarm_IdOrderByOrderDateDesc(Long farmId);
     List<Orders> findByFarm_IdOrderByOrderDateDescCreatedAtDescIdDesc(Long farmId);
 
     Page<Orders> findByFarm_Id(Long farmId, Pageable pageable);
 
+    // Farm order lists: newest date first, pending orders first within a day, then
+    // (createdAt, id) descending, rows without createdAt last. The ORDER BY is the column order
+    // of idx_order_farm_feed, so pages are read from the index from the cursor on and stop at
+    // the limit instead of sorting the farm's history.
+    @Query("""
+        SELECT o FROM Orders o
+        JOIN FETCH o.buyer
+        JOIN FETCH o.farm
+        WHERE o.farm.id = :farmId
+        ORDER BY o.orderDate DESC, o.pendingFirst DESC, o.createdAt DESC, o.id DESC
+    """)
+    List<Orders> findFarmOrders(@Param("farmId") Long farmId, Pageable pageable);
+
+    @Query("""
+        SELECT o FROM Orders o
+        JOIN FETCH o.buyer
+        JOIN FETCH o.farm
+        WHERE o.farm.id = :farmId
+          AND o.orderDate <= :orderDate
+          AND (o.orderDate < :orderDate
+               OR o.pendingFirst < :pendingFirst
+               OR (o.pendingFirst = :pendingFirst
+                   AND (o.createdAt < :createdAt
+                        OR (o.createdAt IS NULL AND :createdAt IS NOT NULL)
+                        OR ((o.createdAt = :createdAt OR (o.createdAt IS NULL AND :createdAt IS NULL))
+                            AND o.id < :id))))
+        ORDER BY o.orderDate DESC, o.pendingFirst DESC, o.createdAt DESC, o.id DESC
+    """)
+    List<Orders> findFarmOrdersAfter(
+            @Param("farmId") Long farmId,
+            @Param("orderDate") LocalDate orderDate,
+            @Param("pendingFirst") int pendingFirst,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
     List<Orders> findByFarm_IdAndOrderDateBetween(Long farmId, LocalDate startDate, LocalDate endDate);
 
     // Status-based queries
@@ -39,17 +82,121 @@ public interface OrdersRepository extends JpaRepository<Orders, Long> {
 
     List<Orders> findByStatusAndCreatedAtBefore(OrderStatus status, LocalDateTime cutoff);
 
-        @Query("""
-                SELECT o
-                FROM Orders o
-                WHERE o.status = com.example.backend.Entity.type.OrderStatus.CONFIRMED
-                    AND (o.paid = false OR o.paid IS NULL)
-                    AND (
-                        (o.confirmedAt IS NOT NULL AND o.confirmedAt < :cutoff)
-                        OR (o.confirmedAt IS NULL AND o.createdAt < :cutoff)
-                    )
-        """)
-        List<Orders> findTimedOutUnpaidConfirmedOrders(@Param("cutoff") LocalDateTime cutoff);
+    // ---------- expiry wheel ----------
+
+    // id, status, createdAt, confirmedAt of every order that can still time out
+    @Query("""
+        SELECT o.id, o.status, o.createdAt, o.confirmedAt
+        FROM Orders o
+        WHERE o.status = com.example.backend.Entity.type.OrderStatus.PENDING
+           OR (o.status = com.example.backend.Entity.type.OrderStatus.CONFIRMED AND (o.paid = false OR o.paid IS NULL))
+    """)
+    List<Object[]> findExpiryCandidates();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT o FROM Orders o
+        WHERE o.id IN :ids
+          AND (o.status = com.example.backend.Entity.type.OrderStatus.PENDING
+               OR (o.status = com.example.backend.Entity.type.OrderStatus.CONFIRMED AND (o.paid = false OR o.paid IS NULL)))
+    """)
+    List<Orders> lockExpiryCandidates(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+        SELECT o.id FROM Orders o
+        WHERE o.farm.id = :farmId
+          AND o.status = com.example.backend.Entity.type.OrderStatus.PENDING
+          AND o.createdAt < :cutoff
+    """)
+    List<Long> findPendingIdsCreatedBefore(@Param("farmId") Long farmId, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("UPDATE Orders o SET o.status = com.example.backend.Entity.type.OrderStatus.TIMEOUT_REJECTED WHERE o.id IN :ids")
+    int markTimedOut(@Param("ids") Collection<Long> ids);
+
+    // ---------- timeout sweep ----------
+
+    // Lock up to :limit timed-out orders and return (id, farm_id); status is stored as its
+    // ordinal. Each claim is a range on its own index (idx_order_status_created,
+    // idx_order_status_confirmed) and runs at READ COMMITTED, so only matching rows are locked.
+    // Rows already locked (by the expiry wheel) are skipped rather than waited on
+    @Query(value = """
+        SELECT id, farm_id FROM orders
+        WHERE status = :pending
+          AND created_at < :cutoff
+        ORDER BY created_at
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<Object[]> claimTimedOutPending(
+            @Param("pending") int pending,
+            @Param("cutoff") LocalDateTime cutoff,
+            @Param("limit") int limit);
+
+    // Unpaid CONFIRMED orders time out from confirmed_at; legacy rows without it from created_at
+    @Query(value = """
+        SELECT id, farm_id FROM orders
+        WHERE status = :confirmed
+          AND (confirmed_at < :cutoff OR (confirmed_at IS NULL AND created_at < :cutoff))
+          AND (paid = false OR paid IS NULL)
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<Object[]> claimTimedOutUnpaid(
+            @Param("confirmed") int confirmed,
+            @Param("cutoff") LocalDateTime cutoff,
+            @Param("limit") int limit);
+
+    // ---------- bulk owner decisions ----------
+
+    // (id, status ordinal) of the farm's orders among :ids, locked until the batch commits
+    @Query(value = """
+        SELECT id, status FROM orders
+        WHERE farm_id = :farmId
+          AND id IN :ids
+        FOR UPDATE
+    """, nativeQuery = true)
+    List<Object[]> lockFarmOrderStatuses(@Param("farmId") Long farmId, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("""
+        UPDATE Orders o
+        SET o.status = com.example.backend.Entity.type.OrderStatus.CONFIRMED, o.confirmedAt = :now
+        WHERE o.id IN :ids
+    """)
+    int markConfirmed(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Orders o SET o.status = com.example.backend.Entity.type.OrderStatus.CANCELLED WHERE o.id IN :ids")
+    int markCancelled(@Param("ids") Collection<Long> ids);
+
+    // ---------- milk reservations ----------
+
+    // Reservation ledger load: (id, quantity, raw animal type, reservation status) of the orders
+    // holding milk in one farm session, oldest first
+    @Query("""
+        SELECT o.id, o.quantity, o.animalType, o.reservationStatus
+        FROM Orders o
+        WHERE o.farm.id = :farmId
+          AND o.orderDate = :date
+          AND o.session = :session
+          AND o.status IN :statuses
+        ORDER BY o.id
+    """)
+    List<Object[]> findReservationRows(
+            @Param("farmId") Long farmId,
+            @Param("date") LocalDate date,
+            @Param("session") MilkSession session,
+            @Param("statuses") Collection<OrderStatus> statuses);
+
+    // Liters per availability row (farm, date, session, raw animal type) for the given orders
+    @Query("""
+        SELECT o.farm.id, o.orderDate, o.session, o.animalType, SUM(o.quantity)
+        FROM Orders o
+        WHERE o.id IN :ids
+        GROUP BY o.farm.id, o.orderDate, o.session, o.animalType
+    """)
+    List<Object[]> sumQuantityByAvailabilityKey(@Param("ids") Collection<Long> ids);
 
     @Query("""
         SELECT COALESCE(SUM(o.quantity), 0)
@@ -66,4 +213,24 @@ public interface OrdersRepository extends JpaRepository<Orders, Long> {
             @Param("session") MilkSession session,
             @Param("type") String type
     );
+
+    // One-off (non-subscription) demand per day: orderDate, session, animalType, liters.
+    // Only orders that hold milk count; cancelled and timed-out ones were never delivered
+    @Query("""
+        SELECT o.orderDate, o.session, o.animalType, SUM(o.quantity)
+        FROM Orders o
+        WHERE o.farm.id = :farmId
+          AND o.subscription IS NULL
+          AND o.orderDate >= :from AND o.orderDate < :to
+          AND o.session IS NOT NULL
+          AND o.status IN (com.example.backend.Entity.type.OrderStatus.PENDING,
+                           com.example.backend.Entity.type.OrderStatus.CONFIRMED,
+                           com.example.backend.Entity.type.OrderStatus.COMPLETED)
+        GROUP BY o.orderDate, o.session, o.animalType
+    """)
+    List<Object[]> sumOneOffDemandByDay(
+            @Param("farmId") Long farmId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
 }
@@ -0,0 +1,15 @@
+package com.example.backend.Repository;
+
+import com.example.backend.Entity.SubscriptionGenerationRun;
+import com.example.backend.Entity.type.GenerationRunStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface SubscriptionGenerationRunRepository extends JpaRepository<SubscriptionGenerationRun, Long> {
+
+    Optional<SubscriptionGenerationRun> findTopByRunDateAndStatusOrderByIdDesc(LocalDate runDate, GenerationRunStatus status);
+}
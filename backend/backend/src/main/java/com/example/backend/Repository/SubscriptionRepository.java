@@ -1,25 +1,36 @@
 package com.example.backend.Repository;
 
+import com.example.backend.DTO.SubscriptionListRow;
 import com.example.backend.Entity.Subscription;
 import com.example.backend.Entity.User;
 import com.example.backend.Entity.type.SubscriptionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
     List<Subscription> findByBuyer(User buyer);
     List<Subscription> findByBuyerOrderByStartDateDescCreatedAtDescIdDesc(User buyer);
+
     List<Subscription> findAllByStatus(SubscriptionStatus status);
     long countByFarm_Id(Long farmId);
     Subscription findTopByFarm_IdAndDisplayCodeIsNotNullOrderByDisplayCodeDesc(Long farmId);
     boolean existsByFarm_IdAndDisplayCode(Long farmId, String displayCode);
-    
+
+    @Query("SELECT s.displayCode FROM Subscription s WHERE s.farm.id = :farmId AND s.displayCode IN :codes")
+    List<String> findExistingDisplayCodes(@Param("farmId") Long farmId, @Param("codes") Collection<String> codes);
+
     // Farm-based queries for owner access
     List<Subscription> findByFarm_Id(Long farmId);
     List<Subscription> findByFarm_IdOrderByStartDateDescCreatedAtDescIdDesc(Long farmId);
@@ -28,4 +39,162 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
     List<Subscription> findByFarm_IdAndStatusOrderByStartDateDescCreatedAtDescIdDesc(Long farmId, SubscriptionStatus status);
 
     List<Subscription> findByStatusAndCreatedAtBefore(SubscriptionStatus status, LocalDateTime cutoff);
+
+    // ---------- expiry wheel ----------
+
+    @Query("""
+        SELECT s.id, s.createdAt FROM Subscription s
+        WHERE s.status = com.example.backend.Entity.type.SubscriptionStatus.PENDING
+    """)
+    List<Object[]> findPendingCreatedAt();
+
+    @Query("""
+        SELECT s.id, s.createdAt FROM Subscription s
+        WHERE s.id IN :ids
+          AND s.status = com.example.backend.Entity.type.SubscriptionStatus.PENDING
+    """)
+    List<Object[]> findPendingCreatedAtByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("""
+        UPDATE Subscription s SET s.status = com.example.backend.Entity.type.SubscriptionStatus.TIMEOUT_REJECTED
+        WHERE s.id IN :ids
+          AND s.status = com.example.backend.Entity.type.SubscriptionStatus.PENDING
+          AND s.createdAt <= :cutoff
+    """)
+    int timeoutPending(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDateTime cutoff);
+
+    // Timeout sweep: locks up to :limit stale pending subscriptions, skipping rows locked elsewhere
+    @Query(value = """
+        SELECT id FROM subscriptions
+        WHERE status = 'PENDING'
+          AND created_at < :cutoff
+        ORDER BY id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<Long> claimTimedOutPending(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    // ---------- farm listings (projection + keyset) ----------
+
+    String LIST_ROW_SELECT = """
+        SELECT new com.example.backend.DTO.SubscriptionListRow(
+            s.id, s.displayCode, b.id, b.name, b.address, b.location, b.city, f.id, f.name,
+            s.quantity, s.session, s.startDate, s.endDate, s.skipDate, s.status, s.animalType,
+            s.billingDayCounter, s.lastCyclePaidAt, s.createdAt,
+            CASE
+                WHEN UPPER(s.animalType) = 'COW' AND f.cowPrice IS NOT NULL THEN f.cowPrice
+                WHEN UPPER(s.animalType) = 'BUFFALO' AND f.buffaloPrice IS NOT NULL THEN f.buffaloPrice
+                WHEN UPPER(s.animalType) = 'SHEEP' AND f.sheepPrice IS NOT NULL THEN f.sheepPrice
+                WHEN UPPER(s.animalType) = 'GOAT' AND f.goatPrice IS NOT NULL THEN f.goatPrice
+                ELSE COALESCE(f.pricePerLiter, 0.0)
+            END)
+        FROM Subscription s
+        JOIN s.buyer b
+        JOIN s.farm f
+        """;
+
+    // createdAt DESC puts legacy rows without it last within a start date; a cursor taken
+    // from one of them carries a null createdAt, which the IS NULL branches handle
+    String KEYSET_AFTER = """
+          AND s.startDate <= :startDate
+          AND (s.startDate < :startDate
+               OR s.createdAt < :createdAt
+               OR (s.createdAt IS NULL AND :createdAt IS NOT NULL)
+               OR ((s.createdAt = :createdAt OR (s.createdAt IS NULL AND :createdAt IS NULL))
+                   AND s.id < :id))
+        """;
+
+    String KEYSET_ORDER = " ORDER BY s.startDate DESC, s.createdAt DESC, s.id DESC";
+
+    // Legacy list order: start date, pending first, newest first
+    @Query(LIST_ROW_SELECT + """
+        WHERE f.id = :farmId
+        ORDER BY s.startDate DESC,
+                 CASE WHEN s.status = com.example.backend.Entity.type.SubscriptionStatus.PENDING THEN 0 ELSE 1 END,
+                 s.createdAt DESC, s.id DESC
+    """)
+    List<SubscriptionListRow> findFarmListRows(@Param("farmId") Long farmId, Pageable pageable);
+
+    @Query(LIST_ROW_SELECT + " WHERE f.id = :farmId" + KEYSET_ORDER)
+    List<SubscriptionListRow> findFarmFeedFirst(@Param("farmId") Long farmId, Pageable pageable);
+
+    @Query(LIST_ROW_SELECT + " WHERE f.id = :farmId" + KEYSET_AFTER + KEYSET_ORDER)
+    List<SubscriptionListRow> findFarmFeedAfter(
+            @Param("farmId") Long farmId,
+            @Param("startDate") LocalDate startDate,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    @Query(LIST_ROW_SELECT + " WHERE f.id = :farmId AND s.status = :status" + KEYSET_ORDER)
+    List<SubscriptionListRow> findFarmFeedByStatusFirst(
+            @Param("farmId") Long farmId,
+            @Param("status") SubscriptionStatus status,
+            Pageable pageable);
+
+    @Query(LIST_ROW_SELECT + " WHERE f.id = :farmId AND s.status = :status" + KEYSET_AFTER + KEYSET_ORDER)
+    List<SubscriptionListRow> findFarmFeedByStatusAfter(
+            @Param("farmId") Long farmId,
+            @Param("status") SubscriptionStatus status,
+            @Param("startDate") LocalDate startDate,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    // ---------- daily order generation (set-based) ----------
+
+    // Keyset page for the generation run, resumable from the last processed id
+    @EntityGraph(attributePaths = {"farm", "farm.owner", "buyer"})
+    List<Subscription> findByStatusAndIdGreaterThanOrderByIdAsc(SubscriptionStatus status, Long id, Pageable pageable);
+
+    @Modifying
+    @Query("""
+        UPDATE Subscription s SET s.skipDate = NULL
+        WHERE s.status = com.example.backend.Entity.type.SubscriptionStatus.ACTIVE
+          AND s.skipDate < :today
+    """)
+    int clearSkipDatesBefore(@Param("today") LocalDate today);
+
+    @Modifying
+    @Query("""
+        UPDATE Subscription s SET s.skipDate = NULL
+        WHERE s.status = com.example.backend.Entity.type.SubscriptionStatus.ACTIVE
+          AND s.skipDate <= :today
+    """)
+    int clearSkipDatesUpTo(@Param("today") LocalDate today);
+
+    @Modifying
+    @Query("""
+        UPDATE Subscription s SET s.status = com.example.backend.Entity.type.SubscriptionStatus.COMPLETED
+        WHERE s.status = com.example.backend.Entity.type.SubscriptionStatus.ACTIVE
+          AND s.endDate < :today
+    """)
+    int completeEnded(@Param("today") LocalDate today);
+
+    @Modifying
+    @Query("""
+        UPDATE Subscription s SET s.billingDayCounter = :max
+        WHERE s.status = com.example.backend.Entity.type.SubscriptionStatus.ACTIVE
+          AND s.billingDayCounter > :max
+    """)
+    int capBillingCounters(@Param("max") int max);
+
+    // One billing day per subscription per date, capped at max
+    @Modifying
+    @Query("""
+        UPDATE Subscription s
+        SET s.billingDayCounter = CASE
+                WHEN s.billingDayCounter IS NULL OR s.billingDayCounter < 0 THEN 1
+                WHEN s.billingDayCounter >= :max THEN :max
+                ELSE s.billingDayCounter + 1
+            END,
+            s.billingCounterUpdatedDate = :today
+        WHERE s.id IN :ids
+          AND (s.billingCounterUpdatedDate IS NULL OR s.billingCounterUpdatedDate <> :today)
+    """)
+    int incrementBillingCounters(
+            @Param("ids") Collection<Long> ids,
+            @Param("today") LocalDate today,
+            @Param("max") int max);
 }
@@ -0,0 +1,25 @@
+package com.example.backend.Repository;
+
+import com.example.backend.Entity.SubscriptionRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SubscriptionRunRepository extends JpaRepository<SubscriptionRun, Long> {
+
+    @Query("""
+        SELECT r.subscription.id
+        FROM SubscriptionRun r
+        WHERE r.runDate = :runDate
+          AND r.subscription.id IN :subscriptionIds
+    """)
+    List<Long> findProcessedSubscriptionIds(
+            @Param("runDate") LocalDate runDate,
+            @Param("subscriptionIds") Collection<Long> subscriptionIds);
+}
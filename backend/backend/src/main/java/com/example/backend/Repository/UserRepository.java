@@ -1,6 +1,7 @@
 package com.example.backend.Repository;
 
 import com.example.backend.Entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -13,6 +14,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     java.util.Optional<User> findByEmail(String email);
 
+    // Principal snapshot: owned farms fetched with the user
+    @EntityGraph(attributePaths = "farms")
+    java.util.Optional<User> findWithFarmsByEmail(String email);
+
     java.util.Optional<User> findByOauthProviderAndOauthProviderId(String oauthProvider, String oauthProviderId);
 
     boolean existsByEmail(String email);
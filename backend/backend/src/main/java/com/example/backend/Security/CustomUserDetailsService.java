@@ -3,15 +3,18 @@ package com.example.backend.Security;
 import com.example.backend.Entity.User;
 import com.example.backend.Repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -31,6 +34,20 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .build();
     }
 
+    /**
+     * Loads the user with everything request handling reads from the principal, so the
+     * detached snapshot can be cached and used without a session.
+     */
+    @Transactional(readOnly = true)
+    public PrincipalSnapshot loadPrincipalSnapshot(String email) {
+        return userRepository.findWithFarmsByEmail(email)
+                .map(user -> {
+                    Hibernate.initialize(user.getFarmWorkerAssignments());
+                    return new PrincipalSnapshot(user, List.copyOf(getAuthorities(user)));
+                })
+                .orElse(null);
+    }
+
     private Collection<? extends GrantedAuthority> getAuthorities(User user) {
         return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
     }
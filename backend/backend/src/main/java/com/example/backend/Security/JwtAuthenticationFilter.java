@@ -1,7 +1,5 @@
 package com.example.backend.Security;
 
-import com.example.backend.Entity.User;
-import com.example.backend.Repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,23 +7,25 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserDetailsService userDetailsService;
-    private final UserRepository userRepository; // ✅ ADD THIS
-    
+    private final CustomUserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList tokenRevocationList;
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -41,23 +41,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         final String jwt = authHeader.substring(7);
-        final String userEmail = jwtTokenProvider.extractUsername(jwt);
 
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        // Signature and expiry are verified once per token, then served from memory
+        final VerifiedToken token = jwtTokenProvider.verify(jwt);
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && !tokenRevocationList.isRevoked(token.hash())) {
 
-            if (jwtTokenProvider.validateToken(jwt, userDetails)) {
+            // Cached per email + token version; only a miss touches the database
+            PrincipalSnapshot principal = principalCache.get(
+                    token.subject(),
+                    token.version(),
+                    () -> userDetailsService.loadPrincipalSnapshot(token.subject()));
 
-                // 🔑 LOAD ENTITY
-                User user = userRepository.findByEmail(userEmail)
-                        .orElseThrow();
+            if (principal != null) {
+                List<GrantedAuthority> authorities = token.role() != null
+                        ? List.of(new SimpleGrantedAuthority("ROLE_" + token.role()))
+                        : principal.authorities();
 
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
-                                user,                    // ✅ User entity
+                                principal.user(),        // ✅ User entity
                                 null,
-                                userDetails.getAuthorities()
+                                authorities
                         );
 
                 authToken.setDetails(
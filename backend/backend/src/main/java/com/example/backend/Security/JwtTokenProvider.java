@@ -1,30 +1,123 @@
 package com.example.backend.Security;
 
+import com.example.backend.Entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
 public class JwtTokenProvider {
 
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+    public static final String ROLE_CLAIM = "role";
+
     @Value("${jwt.secret:your-256-bit-secret-key-must-be-at-least-32-characters-long}")
     private String secret;
 
     @Value("${jwt.expiration:86400000}") // 24 hours default
     private Long expiration;
 
+    @Value("${jwt.claims-cache.max-entries:50000}")
+    private long claimsCacheMaxEntries;
+
+    private SecretKey signingKey;
+
+    // Verified claims by token hash; each entry lives until its token expires
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxEntries)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long millis = value.expiresAt().toEpochMilli() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        return signingKey;
+    }
+
+    /**
+     * Verifies the token once and serves repeated requests with the same token from
+     * memory. Returns null for malformed, tampered or expired tokens.
+     */
+    public VerifiedToken verify(String token) {
+        String hash = hash(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(hash);
+        if (cached != null) {
+            // expiry is enforced lazily by the cache, re-check the deadline
+            return cached.expiresAt().isAfter(Instant.now()) ? cached : null;
+        }
+
+        Claims claims;
+        try {
+            claims = extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
+        if (claims.getExpiration() == null || claims.getSubject() == null) {
+            return null;
+        }
+
+        // Tokens issued before versioning carry no claim and count as version 0
+        Number version = claims.get(TOKEN_VERSION_CLAIM, Number.class);
+
+        VerifiedToken verified = new VerifiedToken(
+                hash,
+                claims.getSubject(),
+                version != null ? version.intValue() : 0,
+                claims.get(ROLE_CLAIM, String.class),
+                claims.getExpiration().toInstant());
+        verifiedTokens.put(hash, verified);
+        return verified;
+    }
+
+    public static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
     }
 
     public String extractUsername(String token) {
@@ -57,6 +150,13 @@ public class JwtTokenProvider {
         return createToken(claims, userDetails.getUsername());
     }
 
+    public String generateToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(TOKEN_VERSION_CLAIM, PrincipalCache.currentVersion(user));
+        claims.put(ROLE_CLAIM, user.getRole().name());
+        return createToken(claims, user.getEmail());
+    }
+
     public String generateToken(UserDetails userDetails, Map<String, Object> extraClaims) {
         return createToken(extraClaims, userDetails.getUsername());
     }
@@ -0,0 +1,77 @@
+package com.example.backend.Security;
+
+import com.example.backend.Entity.User;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Authenticated principals keyed by email and token version, held in the
+ * local-only "principals" cache so a valid token needs no database access.
+ * Evictions are broadcast to the other replicas by the cache manager.
+ */
+@Component
+public class PrincipalCache {
+
+    public static final String CACHE_NAME = "principals";
+
+    private final Cache cache;
+
+    public PrincipalCache(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+    }
+
+    /**
+     * Cached snapshot for this email/version, loading it on a miss. Returns null when
+     * the user does not exist or the token version is no longer current.
+     */
+    public PrincipalSnapshot get(String email, int tokenVersion, Supplier<PrincipalSnapshot> loader) {
+        String key = key(email, tokenVersion);
+        PrincipalSnapshot cached = cache.get(key, PrincipalSnapshot.class);
+        if (cached != null) {
+            return cached;
+        }
+
+        PrincipalSnapshot loaded = loader.get();
+        if (loaded == null || currentVersion(loaded.user()) != tokenVersion) {
+            return null;
+        }
+        // Fills through the loader form, which unlike put() does not broadcast an
+        // invalidation; only evict() tells the other replicas to drop their copy
+        return cache.get(key, () -> loaded);
+    }
+
+    /**
+     * Drops the cached principal of this user. Inside a transaction the eviction runs
+     * after commit so a concurrent request cannot re-cache the old state.
+     */
+    public void evict(User user) {
+        evict(user.getEmail(), currentVersion(user));
+    }
+
+    public void evict(String email, int tokenVersion) {
+        String key = key(email, tokenVersion);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(key);
+                }
+            });
+        } else {
+            cache.evict(key);
+        }
+    }
+
+    public static int currentVersion(User user) {
+        return user.getTokenVersion() != null ? user.getTokenVersion() : 0;
+    }
+
+    private static String key(String email, int tokenVersion) {
+        return email + "|" + tokenVersion;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.backend.Security;
+
+import com.example.backend.Entity.User;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Detached {@link User} with its farms and farm assignments already loaded, plus the
+ * authorities derived from its role. Shared between requests, so treat as read-only.
+ */
+public record PrincipalSnapshot(User user, List<GrantedAuthority> authorities) {
+}
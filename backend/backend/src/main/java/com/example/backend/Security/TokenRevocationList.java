@@ -0,0 +1,96 @@
+package com.example.backend.Security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked tokens by hash, checked on every request from an in-memory map.
+ * Revocations are stored in Redis with a TTL matching the token expiry (so replicas
+ * that start later can load them) and published so running replicas add them at once.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationList {
+
+    private static final String KEY_PREFIX = "revoked-token:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${jwt.revocation-channel:token-revocations}")
+    private String channel;
+
+    // token hash -> token expiry (epoch millis)
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> remember(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(channel));
+
+        try (Cursor<String> keys = redisTemplate.scan(
+                ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build())) {
+            while (keys.hasNext()) {
+                String key = keys.next();
+                String expiresAt = redisTemplate.opsForValue().get(key);
+                if (expiresAt != null) {
+                    revoked.put(key.substring(KEY_PREFIX.length()), Long.valueOf(expiresAt));
+                }
+            }
+        } catch (Exception ex) {
+            log.warn("Could not load revoked tokens from Redis: {}", ex.getMessage());
+        }
+    }
+
+    public boolean isRevoked(String tokenHash) {
+        return revoked.containsKey(tokenHash);
+    }
+
+    public void revoke(VerifiedToken token) {
+        long expiresAt = token.expiresAt().toEpochMilli();
+        Duration ttl = Duration.between(Instant.now(), token.expiresAt());
+        if (ttl.isNegative() || ttl.isZero()) {
+            return;
+        }
+
+        revoked.put(token.hash(), expiresAt);
+        redisTemplate.opsForValue().set(KEY_PREFIX + token.hash(), String.valueOf(expiresAt), ttl);
+        redisTemplate.convertAndSend(channel, token.hash() + ":" + expiresAt);
+    }
+
+    private void remember(String payload) {
+        int separator = payload.lastIndexOf(':');
+        if (separator <= 0) {
+            return;
+        }
+        try {
+            revoked.put(payload.substring(0, separator), Long.valueOf(payload.substring(separator + 1)));
+        } catch (NumberFormatException ex) {
+            log.warn("Ignoring malformed token revocation message");
+        }
+    }
+
+    // Expired tokens fail verification anyway, so their entries can go
+    @Scheduled(fixedDelay = 600000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.backend.Security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a token whose signature and expiry have been checked. {@code hash} is the
+ * SHA-256 of the raw token and identifies it for caching and revocation.
+ */
+public record VerifiedToken(
+        String hash,
+        String subject,
+        int version,
+        String role,
+        Instant expiresAt) {
+}
@@ -0,0 +1,19 @@
+package com.example.backend.Service;
+
+import com.example.backend.DTO.CattleYieldDto;
+import com.example.backend.Entity.User;
+
+import java.util.List;
+
+public interface CattleYieldAnalyticsService {
+
+    /**
+     * Rolling-window figures for one animal, with its daily curve for the last 90 days.
+     */
+    CattleYieldDto getCattleYield(Long cattleId, User user);
+
+    /**
+     * Rolling-window figures for every animal of the farm, without curves.
+     */
+    List<CattleYieldDto> getFarmYield(Long farmId, User user);
+}
@@ -0,0 +1,24 @@
+package com.example.backend.Service;
+
+import com.example.backend.Entity.CattleMilkEntry;
+
+import java.util.Collection;
+
+public interface CattleYieldStatsService {
+
+    /**
+     * Add saved milk entries to the per-cattle running figures and daily buckets.
+     * Runs in the caller's transaction.
+     */
+    void recordEntries(Collection<CattleMilkEntry> entries);
+
+    /**
+     * Recompute the 7/30-day sums; days that left the windows drop out.
+     */
+    void refreshWindows();
+
+    /**
+     * Recompute every stats row and daily bucket from the full entry history.
+     */
+    void rebuildAll();
+}
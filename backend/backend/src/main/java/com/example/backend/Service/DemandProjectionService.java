@@ -0,0 +1,30 @@
+package com.example.backend.Service;
+
+import com.example.backend.DTO.DemandProjectionDto;
+import com.example.backend.Entity.User;
+
+import java.util.List;
+
+public interface DemandProjectionService {
+
+    /**
+     * Queue the farm for recomputation once the current transaction commits (or at once
+     * outside a transaction). Cheap enough to call on every order or subscription change.
+     */
+    void markDirty(Long farmId);
+
+    /**
+     * Recompute the queued farms.
+     */
+    void refreshDirty();
+
+    /**
+     * Recompute every farm, e.g. after the day rolls over or forecasts are retrained.
+     */
+    void refreshAll();
+
+    /**
+     * The farm's stored projection from today on.
+     */
+    List<DemandProjectionDto> getProjection(Long farmId, User user);
+}
@@ -0,0 +1,22 @@
+package com.example.backend.Service;
+
+import java.util.List;
+
+public interface DisplayCodeAllocator {
+
+    /**
+     * Next 6-digit order code for the farm. Served from an in-memory block; a query is
+     * only made when the block runs out.
+     */
+    String nextOrderCode(Long farmId);
+
+    /**
+     * {@code count} order codes for the farm, for batch inserts.
+     */
+    List<String> nextOrderCodes(Long farmId, int count);
+
+    /**
+     * Next 6-digit subscription code for the farm.
+     */
+    String nextSubscriptionCode(Long farmId);
+}
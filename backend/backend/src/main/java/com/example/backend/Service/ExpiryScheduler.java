@@ -0,0 +1,29 @@
+package com.example.backend.Service;
+
+import java.util.Collection;
+
+/**
+ * Times out pending orders, unpaid confirmed orders and pending subscriptions at their
+ * deadline rather than on a periodic scan. Registrations take effect once the current
+ * transaction commits.
+ */
+public interface ExpiryScheduler {
+
+    /**
+     * Orders just created; they are re-checked at their deadline and, if approved but
+     * still unpaid by then, again at the confirmation deadline.
+     */
+    void scheduleOrders(Collection<Long> orderIds);
+
+    /**
+     * Pending orders of the farm created up to now, for batch inserts that do not return ids.
+     */
+    void scheduleFarmOrders(Long farmId);
+
+    void scheduleSubscriptions(Collection<Long> subscriptionIds);
+
+    /**
+     * Whether this replica currently runs the expiry wheel.
+     */
+    boolean isLeader();
+}
@@ -0,0 +1,55 @@
+package com.example.backend.Service;
+
+import com.example.backend.Entity.Orders;
+import com.example.backend.Entity.type.MilkSession;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface FarmAvailabilityService {
+
+    /**
+     * Add produced liters to the farm/date/session/animal-type snapshot row and offer them
+     * to waitlisted reservations. Runs in the caller's transaction.
+     */
+    void recordProduction(Long farmId, LocalDate date, MilkSession session, String animalType, double liters);
+
+    /**
+     * Count a newly placed (PENDING) order against the snapshot.
+     */
+    void allocate(Orders order);
+
+    /**
+     * Count a batch of newly placed orders, one upsert per snapshot row.
+     */
+    void allocateAll(Collection<Orders> orders);
+
+    /**
+     * Give back the liters of orders that leave PENDING/CONFIRMED (rejected, skipped,
+     * timed out) and their milk reservations. Call before or after changing their status,
+     * but only once per order.
+     */
+    void release(Collection<Orders> orders);
+
+    /**
+     * {@link #release} for orders known only by id, grouped in the database instead of
+     * loading the entities.
+     */
+    void releaseOrderIds(Collection<Long> orderIds);
+
+    /**
+     * Recompute every snapshot row from {@code fromDate} onward from raw entries and orders,
+     * one farm per transaction. Callers hold the rebuild lease.
+     */
+    void rebuildSince(LocalDate fromDate);
+
+    /**
+     * Snapshot key for an animal type: trimmed upper-case, UNKNOWN when blank.
+     */
+    static String normalizeAnimalType(String animalType) {
+        if (animalType == null || animalType.isBlank()) {
+            return "UNKNOWN";
+        }
+        return animalType.trim().toUpperCase();
+    }
+}
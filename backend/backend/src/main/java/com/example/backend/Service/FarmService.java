@@ -37,7 +37,12 @@ public interface FarmService {
     com.example.backend.DTO.UserResponseDto createWorkerForFarm(Long farmId,
             com.example.backend.DTO.CreateUserRequestDto dto, com.example.backend.Entity.User loggedInUser);
 
-    List<com.example.backend.DTO.ShedStatusDto> getShedStatus(Long farmId, com.example.backend.Entity.User loggedInUser);
+    List<com.example.backend.DTO.ShedStatusDto> getShedStatus(Long farmId, com.example.backend.Entity.type.MilkSession session,
+            com.example.backend.Entity.User loggedInUser);
+
+    // Cattle not yet milked in the session: the worker's own sheds, or the whole farm for the owner
+    List<com.example.backend.DTO.RemainingCattleDto> getRemainingCattle(Long farmId, com.example.backend.Entity.type.MilkSession session,
+            com.example.backend.Entity.User loggedInUser);
 
     void updateWorkerSheds(Long farmId, Long workerId, com.example.backend.DTO.UpdateWorkerShedDto dto, com.example.backend.Entity.User loggedInUser);
 
@@ -0,0 +1,22 @@
+package com.example.backend.Service;
+
+import java.time.Duration;
+
+public interface JobLeaseService {
+
+    /**
+     * Take or extend the named lease for this replica. Returns false when another
+     * replica holds an unexpired lease.
+     */
+    boolean tryAcquire(String name, Duration ttl);
+
+    /**
+     * Give the lease up early so another replica can take it at once.
+     */
+    void release(String name);
+
+    /**
+     * Identity of this replica as written to {@code job_lease.owner}.
+     */
+    String ownerId();
+}
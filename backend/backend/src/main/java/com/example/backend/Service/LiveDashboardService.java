@@ -0,0 +1,13 @@
+package com.example.backend.Service;
+
+import com.example.backend.Entity.User;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface LiveDashboardService {
+
+    /**
+     * Open an event stream for the farm. The first event is a snapshot of today's milk;
+     * every committed change on the farm follows as a delta.
+     */
+    SseEmitter subscribe(Long farmId, User user);
+}
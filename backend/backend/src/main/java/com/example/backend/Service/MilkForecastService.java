@@ -0,0 +1,26 @@
+package com.example.backend.Service;
+
+import com.example.backend.DTO.ForecastAccuracyDto;
+import com.example.backend.DTO.MilkForecastDto;
+import com.example.backend.Entity.User;
+
+import java.util.List;
+
+public interface MilkForecastService {
+
+    /**
+     * Retrains every forecast method for every farm and replaces their stored predictions.
+     */
+    void trainAll();
+
+    /**
+     * Stored predictions from today on. {@code method} selects one method, {@code ALL}
+     * returns every method, and null returns the farm's best backtested method.
+     */
+    List<MilkForecastDto> getForecast(Long farmId, String method, User user);
+
+    /**
+     * Latest backtest of each method on the farm, most accurate first.
+     */
+    List<ForecastAccuracyDto> getAccuracy(Long farmId, User user);
+}
@@ -1,12 +1,15 @@
 package com.example.backend.Service;
 
+import com.example.backend.DTO.AddMilkBatchRequestDto;
 import com.example.backend.DTO.AddMilkInventoryRequestDto;
+import com.example.backend.DTO.MilkBatchResultDto;
 import com.example.backend.DTO.MilkAvailabilityDto;
 import com.example.backend.DTO.MilkHistoryDto;
 import com.example.backend.DTO.MilkTypeHistoryDto;
 import com.example.backend.DTO.TodayMilkBreakdownDto;
 import com.example.backend.DTO.TodayMilkEntryDto;
 import com.example.backend.Entity.User;
+import com.example.backend.Entity.type.HistoryGranularity;
 import com.example.backend.Entity.type.MilkSession;
 
 import java.time.LocalDate;
@@ -14,14 +17,16 @@ import java.time.LocalDate;
 public interface MilkInventoryService {
 
     void addTodayMilk(AddMilkInventoryRequestDto dto, User loggedInUser);
+    MilkBatchResultDto addTodayMilkBatch(AddMilkBatchRequestDto dto, User loggedInUser);
     Double getTodayTotal(Long farmId);
     TodayMilkBreakdownDto getTodayBreakdown(Long farmId);
 
 
 
 
-    java.util.List<MilkHistoryDto> getLastNDaysMilk(Long farmId, int days);
-    java.util.List<MilkTypeHistoryDto> getLastNDaysMilkByType(Long farmId, int days);
+    // History buckets start on the bucket's first day; partial first/last buckets only sum the days in range
+    java.util.List<MilkHistoryDto> getLastNDaysMilk(Long farmId, int days, HistoryGranularity granularity);
+    java.util.List<MilkTypeHistoryDto> getLastNDaysMilkByType(Long farmId, int days, HistoryGranularity granularity);
     java.util.List<TodayMilkEntryDto> getTodayEntries(Long farmId, User user, boolean includeAllEntries);
     
     // New methods for availability tracking
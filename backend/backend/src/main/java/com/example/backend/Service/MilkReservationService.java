@@ -0,0 +1,31 @@
+package com.example.backend.Service;
+
+import com.example.backend.Entity.Orders;
+import com.example.backend.Entity.type.MilkSession;
+import com.example.backend.Entity.type.ReservationStatus;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface MilkReservationService {
+
+    /**
+     * Accept or waitlist a freshly saved order against its farm/date/session/animal-type
+     * ledger and set {@link Orders#getReservationStatus()}. Runs in the caller's transaction;
+     * a rollback gives the milk back. Returns null for orders the ledger does not cover
+     * (no id yet, or a session other than MORNING/EVENING).
+     */
+    ReservationStatus reserve(Orders order);
+
+    /**
+     * Give back the milk of orders leaving PENDING/CONFIRMED and promote waitlisted ones.
+     * Applied once the caller's transaction commits.
+     */
+    void release(Collection<Long> orderIds);
+
+    /**
+     * Production of a farm session changed; once the caller's transaction commits the ledger
+     * re-reads it from the availability snapshot and promotes waitlisted orders.
+     */
+    void addProduction(Long farmId, LocalDate date, MilkSession session, String animalType, double liters);
+}
@@ -1,5 +1,7 @@
 package com.example.backend.Service;
 
+import com.example.backend.DTO.OrderDecisionBatchRequestDto;
+import com.example.backend.DTO.OrderDecisionResultDto;
 import com.example.backend.DTO.OrderPaymentRequestDto;
 import com.example.backend.DTO.OrderResponseDto;
 import com.example.backend.DTO.RazorpayOrderResponseDto;
@@ -18,6 +20,13 @@ public interface OrderService {
      */
     OrderResponseDto rejectOrder(Long orderId, User user);
 
+    /**
+     * Approve or reject many pending orders of one farm at once. Access is checked once,
+     * states are read in one query and each transition is a single bulk update; the
+     * result reports the outcome per submitted row.
+     */
+    OrderDecisionResultDto decideOrders(Long farmId, OrderDecisionBatchRequestDto request, User user);
+
     /**
      * Get all pending orders for a farm
      */
@@ -0,0 +1,13 @@
+package com.example.backend.Service.forecast;
+
+/**
+ * Walk-forward accuracy of one method on one farm's history.
+ *
+ * @param method name of the evaluated {@link ForecastMethod}
+ * @param mae    mean absolute error in liters
+ * @param mape   mean absolute percentage error over days with milk, null when there were none
+ * @param folds  forecast origins evaluated
+ * @param points predicted days compared with actuals
+ */
+public record BacktestResult(String method, double mae, Double mape, int folds, int points) {
+}
@@ -0,0 +1,26 @@
+package com.example.backend.Service.forecast;
+
+/**
+ * A forecasting model trained from one farm's daily history. Implementations are Spring
+ * beans; the forecast service runs every registered method and stores each one's
+ * predictions under {@link #name()}.
+ * <p>
+ * Implementations keep no state between calls and may be used from several threads.
+ */
+public interface ForecastMethod {
+
+    /**
+     * Value written to {@code milk_forecast.method}.
+     */
+    String name();
+
+    /**
+     * Fewest days of history the method needs; farms with less are skipped for it.
+     */
+    int minHistoryDays();
+
+    /**
+     * Liters for each of the {@code horizon} days following the series, never negative.
+     */
+    double[] forecast(TrainingSeries series, int horizon);
+}
@@ -0,0 +1,85 @@
+package com.example.backend.Service.forecast;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Additive Holt-Winters with a weekly season. Smoothing parameters are picked from a
+ * small grid by one-step-ahead squared error over the training window.
+ */
+@Component
+public class HoltWintersForecast implements ForecastMethod {
+
+    private static final int SEASON = 7;
+    private static final double[] ALPHAS = {0.1, 0.3, 0.5, 0.7};
+    private static final double[] BETAS = {0.0, 0.05, 0.2};
+    private static final double[] GAMMAS = {0.05, 0.2, 0.4};
+
+    @Override
+    public String name() {
+        return "HOLT_WINTERS";
+    }
+
+    @Override
+    public int minHistoryDays() {
+        return 2 * SEASON;
+    }
+
+    @Override
+    public double[] forecast(TrainingSeries series, int horizon) {
+        double[] y = series.liters();
+        State best = null;
+        for (double alpha : ALPHAS) {
+            for (double beta : BETAS) {
+                for (double gamma : GAMMAS) {
+                    State s = fit(y, alpha, beta, gamma);
+                    if (best == null || s.sse < best.sse) {
+                        best = s;
+                    }
+                }
+            }
+        }
+
+        double[] out = new double[horizon];
+        for (int h = 1; h <= horizon; h++) {
+            double seasonal = best.season[(y.length + h - 1) % SEASON];
+            out[h - 1] = Math.max(0.0, best.level + h * best.trend + seasonal);
+        }
+        return out;
+    }
+
+    private static State fit(double[] y, double alpha, double beta, double gamma) {
+        double first = mean(y, 0, SEASON);
+        double second = mean(y, SEASON, 2 * SEASON);
+        double level = first;
+        double trend = (second - first) / SEASON;
+        double[] season = new double[SEASON];
+        for (int i = 0; i < SEASON; i++) {
+            season[i] = y[i] - first;
+        }
+
+        double sse = 0;
+        for (int t = SEASON; t < y.length; t++) {
+            int k = t % SEASON;
+            double predicted = level + trend + season[k];
+            double error = y[t] - predicted;
+            sse += error * error;
+
+            double previousLevel = level;
+            level = alpha * (y[t] - season[k]) + (1 - alpha) * (level + trend);
+            trend = beta * (level - previousLevel) + (1 - beta) * trend;
+            season[k] = gamma * (y[t] - level) + (1 - gamma) * season[k];
+        }
+        return new State(level, trend, season, sse);
+    }
+
+    private static double mean(double[] y, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += y[i];
+        }
+        return sum / (to - from);
+    }
+
+    private record State(double level, double trend, double[] season, double sse) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.backend.Service.forecast;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Flat forecast at the mean of the last week.
+ */
+@Component
+public class MovingAverageForecast implements ForecastMethod {
+
+    private static final int WINDOW = 7;
+
+    @Override
+    public String name() {
+        return "MOVING_AVERAGE";
+    }
+
+    @Override
+    public int minHistoryDays() {
+        return 1;
+    }
+
+    @Override
+    public double[] forecast(TrainingSeries series, int horizon) {
+        double[] y = series.liters();
+        int window = Math.min(WINDOW, y.length);
+        double sum = 0;
+        for (int i = y.length - window; i < y.length; i++) {
+            sum += y[i];
+        }
+        double[] out = new double[horizon];
+        java.util.Arrays.fill(out, Math.max(0.0, sum / window));
+        return out;
+    }
+}
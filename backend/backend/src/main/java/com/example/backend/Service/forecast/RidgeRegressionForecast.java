@@ -0,0 +1,145 @@
+package com.example.backend.Service.forecast;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Ridge regression of a day's liters on the previous day, the same weekday a week
+ * earlier and the previous day's farm conditions. Forecasts are produced recursively,
+ * holding conditions at their last recorded values since future ones are not known.
+ */
+@Component
+public class RidgeRegressionForecast implements ForecastMethod {
+
+    private static final int LAG = 7;
+    private static final int FEATURES = 2 + TrainingSeries.CONDITION_FEATURES;
+    private static final double LAMBDA = 1.0;
+
+    @Override
+    public String name() {
+        return "RIDGE_REGRESSION";
+    }
+
+    @Override
+    public int minHistoryDays() {
+        return 3 * LAG;
+    }
+
+    @Override
+    public double[] forecast(TrainingSeries series, int horizon) {
+        double[] y = series.liters();
+        double[][] c = series.conditions();
+        int rows = y.length - LAG;
+
+        double[][] x = new double[rows][];
+        double[] target = new double[rows];
+        for (int t = LAG; t < y.length; t++) {
+            x[t - LAG] = features(y[t - 1], y[t - LAG], c[t - 1]);
+            target[t - LAG] = y[t];
+        }
+
+        // Standardise so one penalty fits features measured in liters, degrees and visits
+        double[] mean = new double[FEATURES];
+        double[] scale = new double[FEATURES];
+        for (int j = 0; j < FEATURES; j++) {
+            double sum = 0;
+            for (double[] row : x) {
+                sum += row[j];
+            }
+            mean[j] = sum / rows;
+            double var = 0;
+            for (double[] row : x) {
+                var += (row[j] - mean[j]) * (row[j] - mean[j]);
+            }
+            double sd = Math.sqrt(var / rows);
+            scale[j] = sd > 1e-9 ? sd : 0.0;
+        }
+        double yMean = 0;
+        for (double v : target) {
+            yMean += v;
+        }
+        yMean /= rows;
+
+        double[][] a = new double[FEATURES][FEATURES];
+        double[] b = new double[FEATURES];
+        for (int r = 0; r < rows; r++) {
+            double[] z = standardise(x[r], mean, scale);
+            for (int i = 0; i < FEATURES; i++) {
+                b[i] += z[i] * (target[r] - yMean);
+                for (int j = 0; j < FEATURES; j++) {
+                    a[i][j] += z[i] * z[j];
+                }
+            }
+        }
+        for (int i = 0; i < FEATURES; i++) {
+            a[i][i] += LAMBDA;
+        }
+        double[] beta = solve(a, b);
+
+        double[] history = java.util.Arrays.copyOf(y, y.length + horizon);
+        double[] lastConditions = c[c.length - 1];
+        double[] out = new double[horizon];
+        for (int h = 0; h < horizon; h++) {
+            int t = y.length + h;
+            double[] z = standardise(features(history[t - 1], history[t - LAG], lastConditions), mean, scale);
+            double predicted = yMean;
+            for (int j = 0; j < FEATURES; j++) {
+                predicted += beta[j] * z[j];
+            }
+            history[t] = Math.max(0.0, predicted);
+            out[h] = history[t];
+        }
+        return out;
+    }
+
+    private static double[] features(double previousDay, double weekAgo, double[] conditions) {
+        double[] f = new double[FEATURES];
+        f[0] = previousDay;
+        f[1] = weekAgo;
+        System.arraycopy(conditions, 0, f, 2, TrainingSeries.CONDITION_FEATURES);
+        return f;
+    }
+
+    private static double[] standardise(double[] f, double[] mean, double[] scale) {
+        double[] z = new double[FEATURES];
+        for (int j = 0; j < FEATURES; j++) {
+            z[j] = scale[j] == 0.0 ? 0.0 : (f[j] - mean[j]) / scale[j];
+        }
+        return z;
+    }
+
+    // Gaussian elimination with partial pivoting; the ridge term keeps the system regular
+    private static double[] solve(double[][] a, double[] b) {
+        int n = b.length;
+        for (int col = 0; col < n; col++) {
+            int pivot = col;
+            for (int r = col + 1; r < n; r++) {
+                if (Math.abs(a[r][col]) > Math.abs(a[pivot][col])) {
+                    pivot = r;
+                }
+            }
+            double[] rowSwap = a[col];
+            a[col] = a[pivot];
+            a[pivot] = rowSwap;
+            double bSwap = b[col];
+            b[col] = b[pivot];
+            b[pivot] = bSwap;
+
+            for (int r = col + 1; r < n; r++) {
+                double factor = a[r][col] / a[col][col];
+                b[r] -= factor * b[col];
+                for (int k = col; k < n; k++) {
+                    a[r][k] -= factor * a[col][k];
+                }
+            }
+        }
+        double[] x = new double[n];
+        for (int r = n - 1; r >= 0; r--) {
+            double sum = b[r];
+            for (int k = r + 1; k < n; k++) {
+                sum -= a[r][k] * x[k];
+            }
+            x[r] = sum / a[r][r];
+        }
+        return x;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.backend.Service.forecast;
+
+import java.time.LocalDate;
+
+/**
+ * One farm's training window: daily liters from {@code start}, one value per day with
+ * missing days as zero, and the recorded conditions for the same days.
+ * <p>
+ * {@code conditions[t]} holds {@link #CONDITION_FEATURES} values (cow count, feed,
+ * water, temperature, humidity, vet visits), carried forward over days without a record.
+ *
+ * @param start      date of {@code liters[0]}
+ * @param liters     daily farm totals, oldest first
+ * @param conditions per-day condition features aligned with {@code liters}
+ */
+public record TrainingSeries(LocalDate start, double[] liters, double[][] conditions) {
+
+    public static final int CONDITION_FEATURES = 6;
+
+    public int length() {
+        return liters.length;
+    }
+
+    /**
+     * A copy of the first {@code n} days, used to train on a prefix of the history.
+     */
+    public TrainingSeries prefix(int n) {
+        double[] l = java.util.Arrays.copyOf(liters, n);
+        double[][] c = java.util.Arrays.copyOf(conditions, n);
+        return new TrainingSeries(start, l, c);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.backend.Service.forecast;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Walk-forward validation over a farm's daily series.
+ * <p>
+ * The last {@code folds} origins, {@code step} days apart, each train the method on the
+ * history before the origin only and forecast the following {@code horizon} days, which
+ * are then scored against what was actually recorded. Methods that are compared with each
+ * other are scored on the same origins ({@link #evaluateAll}). Everything works on the
+ * primitive arrays of {@link TrainingSeries}; nothing touches the database.
+ */
+public final class WalkForwardBacktester {
+
+    private WalkForwardBacktester() {
+    }
+
+    /**
+     * Scores one method, or returns null when the series is too short for a single fold.
+     */
+    public static BacktestResult evaluate(ForecastMethod method, TrainingSeries series,
+                                          int horizon, int folds, int step) {
+        return evaluate(method, series, horizon, folds, step, method.minHistoryDays());
+    }
+
+    /**
+     * Scores every method that fits at least one fold on the origins all of them can
+     * handle, i.e. those leaving the longest minimum history among them, so their errors
+     * are comparable for {@link #best}. Methods with too little history are left out.
+     */
+    public static List<BacktestResult> evaluateAll(List<ForecastMethod> methods, TrainingSeries series,
+                                                   int horizon, int folds, int step) {
+        int lastOrigin = series.liters().length - horizon;
+        List<ForecastMethod> candidates = new ArrayList<>();
+        int minOrigin = 0;
+        for (ForecastMethod method : methods) {
+            if (folds > 0 && lastOrigin >= method.minHistoryDays()) {
+                candidates.add(method);
+                minOrigin = Math.max(minOrigin, method.minHistoryDays());
+            }
+        }
+        List<BacktestResult> results = new ArrayList<>(candidates.size());
+        for (ForecastMethod method : candidates) {
+            BacktestResult result = evaluate(method, series, horizon, folds, step, minOrigin);
+            if (result != null) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    private static BacktestResult evaluate(ForecastMethod method, TrainingSeries series,
+                                           int horizon, int folds, int step, int minOrigin) {
+        double[] y = series.liters();
+        int n = y.length;
+
+        double absSum = 0;
+        double apeSum = 0;
+        int points = 0;
+        int apePoints = 0;
+        int used = 0;
+        for (int k = folds - 1; k >= 0; k--) {
+            int origin = n - horizon - k * step;
+            if (origin < minOrigin) {
+                continue;
+            }
+            double[] predicted = method.forecast(series.prefix(origin), horizon);
+            for (int h = 0; h < horizon; h++) {
+                double actual = y[origin + h];
+                double error = Math.abs(actual - predicted[h]);
+                absSum += error;
+                points++;
+                if (actual > 0) {
+                    apeSum += error / actual;
+                    apePoints++;
+                }
+            }
+            used++;
+        }
+        if (used == 0) {
+            return null;
+        }
+        Double mape = apePoints == 0 ? null : apeSum / apePoints * 100.0;
+        return new BacktestResult(method.name(), absSum / points, mape, used, points);
+    }
+
+    /**
+     * Lowest MAE wins; MAPE breaks ties since it is undefined on days without milk.
+     */
+    public static Optional<BacktestResult> best(List<BacktestResult> results) {
+        return results.stream()
+                .min(Comparator.comparingDouble(BacktestResult::mae)
+                        .thenComparing(r -> r.mape() == null ? Double.MAX_VALUE : r.mape()));
+    }
+}
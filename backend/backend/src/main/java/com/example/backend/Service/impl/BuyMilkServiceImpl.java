@@ -1,35 +1,45 @@
 package com.example.backend.Service.impl;
 
+import com.example.backend.DTO.FarmLiveEvent;
 import com.example.backend.DTO.MilkBuyDto;
 import com.example.backend.DTO.OrderResponseDto;
 import com.example.backend.Entity.Farm;
 import com.example.backend.Entity.MilkInventory;
 import com.example.backend.Entity.Orders;
 import com.example.backend.Entity.User;
+import com.example.backend.Entity.type.LiveEventType;
 import com.example.backend.Entity.type.OrderStatus;
 import com.example.backend.Repository.FarmRepository;
 import com.example.backend.Repository.MilkAllocationRepository;
 import com.example.backend.Repository.MilkInventoryRepository;
 import com.example.backend.Repository.OrdersRepository;
 import com.example.backend.Service.BuyMilkService;
+import com.example.backend.Service.DisplayCodeAllocator;
+import com.example.backend.Service.ExpiryScheduler;
+import com.example.backend.Service.FarmAvailabilityService;
+import com.example.backend.Service.MilkReservationService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import java.security.SecureRandom;
 import java.time.LocalDate;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class BuyMilkServiceImpl implements BuyMilkService {
 
-    private static final SecureRandom DISPLAY_CODE_RANDOM = new SecureRandom();
-
     private final OrdersRepository ordersRepository;
     private final MilkInventoryRepository milkInventoryRepository;
     private final MilkAllocationRepository milkAllocationRepository;
     private final FarmRepository farmRepository;
+    private final FarmAvailabilityService farmAvailabilityService;
+    private final DisplayCodeAllocator displayCodeAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExpiryScheduler expiryScheduler;
+    private final MilkReservationService milkReservationService;
 
     @Transactional
     @org.springframework.cache.annotation.Caching(evict = {
@@ -51,15 +61,12 @@ public class BuyMilkServiceImpl implements BuyMilkService {
         if (requestedQty <= 0) {
             throw new IllegalArgumentException("Quantity must be greater than zero");
         }
-        // Only allow 0.5L increments: 0.5, 1.0, 1.5, 2.0, ... — user rule: 0.5 or >=1 whole litres
-        boolean isHalf = Math.abs(requestedQty - 0.5) < 0.0001;
-        boolean isWholeAboveOne = requestedQty >= 1.0 && Math.abs(requestedQty - Math.round(requestedQty)) < 0.0001;
-        if (!isHalf && !isWholeAboveOne) {
+        if (!isAllowedQuantity(requestedQty)) {
             throw new IllegalArgumentException("Quantity must be 0.5L or a whole number of liters (1L, 2L, 3L...)");
         }
 
-        // 4. Create order with PENDING status (awaiting owner approval)
-        // NOTE: Stock availability check has been removed. Request will be sent to owner regardless of available stock.
+        // 4. Create order with PENDING status (awaiting owner approval); the reservation ledger
+        // tells the buyer at once whether the session's milk covers it or it is waitlisted
         Orders order = new Orders();
         order.setOrderDate(LocalDate.now());
         order.setQuantity(requestedQty);
@@ -69,31 +76,28 @@ public class BuyMilkServiceImpl implements BuyMilkService {
         order.setBuyer(buyer);
         order.setFarm(farm);
         order.setAnimalType(dto.getAnimalType());
-        order.setDisplayCode(nextDisplayCode(farm.getId()));
+        order.setDisplayCode(displayCodeAllocator.nextOrderCode(farm.getId()));
         order.setPaid(false);
 
         // Compute total price based on animal type and farm prices
-        double pricePerLiter;
-        String animalType = dto.getAnimalType();
-        if ("COW".equalsIgnoreCase(animalType) && farm.getCowPrice() != null) {
-            pricePerLiter = farm.getCowPrice();
-        } else if ("BUFFALO".equalsIgnoreCase(animalType) && farm.getBuffaloPrice() != null) {
-            pricePerLiter = farm.getBuffaloPrice();
-        } else if ("SHEEP".equalsIgnoreCase(animalType) && farm.getSheepPrice() != null) {
-            pricePerLiter = farm.getSheepPrice();
-        } else if ("GOAT".equalsIgnoreCase(animalType) && farm.getGoatPrice() != null) {
-            pricePerLiter = farm.getGoatPrice();
-        } else {
-            pricePerLiter = farm.getPricePerLiter() != null ? farm.getPricePerLiter() : 0.0;
-        }
-        order.setTotalPrice(requestedQty * pricePerLiter);
+        order.setTotalPrice(requestedQty * pricePerLiter(farm, dto.getAnimalType()));
         order.setBuyerName(buyer.getName());
         order.setFarmName(farm.getName());
 
         ordersRepository.save(order);
-
-        // NOTE: Allocation will be created when owner approves the order
-        // This prevents allocating milk for orders that may be rejected
+        milkReservationService.reserve(order);
+        farmAvailabilityService.allocate(order);
+        expiryScheduler.scheduleOrders(List.of(order.getId()));
+        eventPublisher.publishEvent(FarmLiveEvent.of(farm.getId(), LiveEventType.ORDER_PLACED,
+                "orderId", order.getId(),
+                "displayCode", order.getDisplayCode(),
+                "quantity", order.getQuantity(),
+                "session", order.getSession(),
+                "animalType", order.getAnimalType(),
+                "status", order.getStatus(),
+                "reservationStatus", order.getReservationStatus()));
+
+        // NOTE: The milk allocation of an accepted order is written behind after commit
 
         // 9. Map to DTO and return
         OrderResponseDto dto1 = new OrderResponseDto();
@@ -104,6 +108,7 @@ public class BuyMilkServiceImpl implements BuyMilkService {
         dto1.setSession(order.getSession());
         dto1.setTimeSlot(order.getTimeSlot());
         dto1.setStatus(order.getStatus());
+        dto1.setReservationStatus(order.getReservationStatus());
         dto1.setBuyerId(buyer != null ? buyer.getId() : null);
         dto1.setFarmId(farm != null ? farm.getId() : null);
         dto1.setAnimalType(order.getAnimalType());
@@ -114,14 +119,24 @@ public class BuyMilkServiceImpl implements BuyMilkService {
         return dto1;
     }
 
-    private String nextDisplayCode(Long farmId) {
-        for (int attempt = 0; attempt < 50; attempt++) {
-            String candidate = String.valueOf(100000 + DISPLAY_CODE_RANDOM.nextInt(900000));
-            if (!ordersRepository.existsByFarm_IdAndDisplayCode(farmId, candidate)) {
-                return candidate;
-            }
+    // Only allow 0.5L increments: 0.5, 1.0, 1.5, 2.0, ... — user rule: 0.5 or >=1 whole litres
+    static boolean isAllowedQuantity(double quantity) {
+        boolean isHalf = Math.abs(quantity - 0.5) < 0.0001;
+        boolean isWholeAboveOne = quantity >= 1.0 && Math.abs(quantity - Math.round(quantity)) < 0.0001;
+        return isHalf || isWholeAboveOne;
+    }
+
+    static double pricePerLiter(Farm farm, String animalType) {
+        if ("COW".equalsIgnoreCase(animalType) && farm.getCowPrice() != null) {
+            return farm.getCowPrice();
+        } else if ("BUFFALO".equalsIgnoreCase(animalType) && farm.getBuffaloPrice() != null) {
+            return farm.getBuffaloPrice();
+        } else if ("SHEEP".equalsIgnoreCase(animalType) && farm.getSheepPrice() != null) {
+            return farm.getSheepPrice();
+        } else if ("GOAT".equalsIgnoreCase(animalType) && farm.getGoatPrice() != null) {
+            return farm.getGoatPrice();
         }
-        throw new IllegalStateException("Unable to generate a unique order display code for this farm");
+        return farm.getPricePerLiter() != null ? farm.getPricePerLiter() : 0.0;
     }
 
     private String resolveDisplayCode(Orders order) {
@@ -3,18 +3,24 @@ package com.example.backend.Service.impl;
 import com.example.backend.DTO.CattlePatchDto;
 import com.example.backend.DTO.CattleResponseDto;
 import com.example.backend.DTO.CreateCattleDto;
+import com.example.backend.DTO.FarmLiveEvent;
 import com.example.backend.DTO.ShedResponseDto;
 import com.example.backend.Entity.Cattle;
 import com.example.backend.Entity.CattleMilkEntry;
+import com.example.backend.Entity.CattleYieldStats;
 import com.example.backend.Entity.Farm;
 import com.example.backend.Entity.Shed;
+import com.example.backend.Entity.type.LiveEventType;
 import com.example.backend.Repository.CattleRepository;
 import com.example.backend.Repository.FarmRepository;
 import com.example.backend.Repository.CattleMilkEntryRepository;
+import com.example.backend.Repository.CattleDailyYieldRepository;
+import com.example.backend.Repository.CattleYieldStatsRepository;
 import com.example.backend.Repository.ShedRepository;
 import com.example.backend.Service.CattleService;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,7 +35,10 @@ public class CattleServiceImpl implements CattleService {
     private final FarmRepository farmRepository;
     private final CattleMilkEntryRepository cattleMilkEntryRepository;
     private final ShedRepository shedRepository;
+    private final CattleYieldStatsRepository cattleYieldStatsRepository;
+    private final CattleDailyYieldRepository cattleDailyYieldRepository;
     private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public CattleResponseDto createCattle(CreateCattleDto dto) {
@@ -60,6 +69,7 @@ public class CattleServiceImpl implements CattleService {
         }
 
         Cattle saved = cattleRepository.save(cattle);
+        eventPublisher.publishEvent(FarmLiveEvent.of(saved.getFarm().getId(), LiveEventType.HERD_CHANGED));
         return toResponseDto(saved);
     }
 
@@ -76,9 +86,9 @@ public class CattleServiceImpl implements CattleService {
     @Override
     @Transactional(readOnly = true)
     public List<CattleResponseDto> getCattleByFarm(Long farmId) {
-        return cattleRepository.findByFarmId(farmId)
+        return cattleRepository.findWithYieldStatsByFarmId(farmId)
                 .stream()
-                .map(this::toResponseDto)
+                .map(row -> toResponseDto((Cattle) row[0], (CattleYieldStats) row[1]))
                 .toList();
 
     }
@@ -132,14 +142,15 @@ public class CattleServiceImpl implements CattleService {
         }
 
         Cattle saved = cattleRepository.save(cattle);
+        eventPublisher.publishEvent(FarmLiveEvent.of(saved.getFarm().getId(), LiveEventType.HERD_CHANGED));
         return toResponseDto(saved);
     }
 
     @Override
     public void deleteCattle(Long id) {
-        if (!cattleRepository.existsById(id)) {
-            throw new IllegalArgumentException("Cattle not found");
-        }
+        Long farmId = cattleRepository.findById(id)
+                .map(c -> c.getFarm().getId())
+                .orElseThrow(() -> new IllegalArgumentException("Cattle not found"));
 
         // Delete related milk entries first to avoid constraint violation
         List<CattleMilkEntry> entries = cattleMilkEntryRepository.findByCattle_Id(id);
@@ -147,7 +158,10 @@ public class CattleServiceImpl implements CattleService {
             cattleMilkEntryRepository.deleteAll(entries);
         }
 
+        cattleYieldStatsRepository.deleteById(id);
+        cattleDailyYieldRepository.deleteByCattleId(id);
         cattleRepository.deleteById(id);
+        eventPublisher.publishEvent(FarmLiveEvent.of(farmId, LiveEventType.HERD_CHANGED));
     }
 
     @Override
@@ -157,8 +171,10 @@ public class CattleServiceImpl implements CattleService {
 
     // -------- helper --------
     private CattleResponseDto toResponseDto(Cattle cattle) {
-        Double avgMilkPerDay = calculateAverageMilkPerDay(cattle.getId());
+        return toResponseDto(cattle, cattleYieldStatsRepository.findById(cattle.getId()).orElse(null));
+    }
 
+    private CattleResponseDto toResponseDto(Cattle cattle, CattleYieldStats stats) {
         ShedResponseDto shedDto = null;
         if (cattle.getShed() != null) {
             shedDto = new ShedResponseDto(cattle.getShed().getId(), cattle.getShed().getName());
@@ -170,30 +186,11 @@ public class CattleServiceImpl implements CattleService {
                 cattle.getBreed(),
                 cattle.getType(),
                 cattle.getStatus(),
-                avgMilkPerDay,
+                stats != null ? stats.averagePerDay() : 0.0,
                 cattle.getFarm().getId(),
-                shedDto);
-    }
-
-    private Double calculateAverageMilkPerDay(Long cattleId) {
-        try {
-            java.util.List<CattleMilkEntry> entries = cattleMilkEntryRepository.findByCattle_Id(cattleId);
-            if (entries.isEmpty()) {
-                return 0.0;
-            }
-
-            double totalMilk = entries.stream()
-                    .mapToDouble(CattleMilkEntry::getMilkLiters)
-                    .sum();
-
-            long uniqueDays = entries.stream()
-                    .map(entry -> entry.getRecordDate())
-                    .distinct()
-                    .count();
-
-            return uniqueDays > 0 ? totalMilk / uniqueDays : 0.0;
-        } catch (Exception e) {
-            return 0.0;
-        }
+                shedDto,
+                stats != null ? stats.getLast7Liters() : 0.0,
+                stats != null ? stats.getLast30Liters() : 0.0,
+                stats != null ? stats.getLastEntryDate() : null);
     }
 }
@@ -0,0 +1,127 @@
+package com.example.backend.Service.impl;
+
+import com.example.backend.DTO.CattleDailyYieldDto;
+import com.example.backend.DTO.CattleYieldDto;
+import com.example.backend.Entity.Cattle;
+import com.example.backend.Entity.CattleDailyYield;
+import com.example.backend.Entity.User;
+import com.example.backend.Repository.CattleDailyYieldRepository;
+import com.example.backend.Repository.CattleRepository;
+import com.example.backend.Service.CattleYieldAnalyticsService;
+import com.example.backend.Service.FarmAccessService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the {@code cattle_daily_yield} buckets: one grouped query per request, at most
+ * 90 rows per animal, never the raw milk entries.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CattleYieldAnalyticsServiceImpl implements CattleYieldAnalyticsService {
+
+    private static final int CURVE_DAYS = 90;
+
+    private final CattleRepository cattleRepository;
+    private final CattleDailyYieldRepository cattleDailyYieldRepository;
+    private final FarmAccessService farmAccessService;
+
+    @Value("${app.cattle.yield.drop-alert-percent:20}")
+    private double dropAlertPercent;
+
+    @Override
+    public CattleYieldDto getCattleYield(Long cattleId, User user) {
+        Cattle cattle = cattleRepository.findById(cattleId)
+                .orElseThrow(() -> new IllegalArgumentException("Cattle not found"));
+        farmAccessService.verifyFarmAccess(user, cattle.getFarm().getId());
+
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = cattleDailyYieldRepository.windowsByCattle(
+                cattleId, today, today.minusDays(1), today.minusDays(2),
+                today.minusDays(7), today.minusDays(30), today.minusDays(CURVE_DAYS));
+
+        CattleYieldDto dto = toDto(cattle, rows.isEmpty() ? null : rows.get(0));
+        dto.setCurve(cattleDailyYieldRepository
+                .findByCattleIdAndRecordDateGreaterThanEqualOrderByRecordDateAsc(cattleId, today.minusDays(CURVE_DAYS))
+                .stream()
+                .map(CattleYieldAnalyticsServiceImpl::toCurvePoint)
+                .toList());
+        return dto;
+    }
+
+    @Override
+    public List<CattleYieldDto> getFarmYield(Long farmId, User user) {
+        farmAccessService.verifyFarmAccess(user, farmId);
+
+        LocalDate today = LocalDate.now();
+        Map<Long, Object[]> windows = new HashMap<>();
+        for (Object[] row : cattleDailyYieldRepository.windowsByFarm(
+                farmId, today, today.minusDays(1), today.minusDays(2),
+                today.minusDays(7), today.minusDays(30), today.minusDays(CURVE_DAYS))) {
+            windows.put(((Number) row[0]).longValue(), row);
+        }
+
+        return cattleRepository.findByFarmId(farmId)
+                .stream()
+                .map(cattle -> toDto(cattle, windows.get(cattle.getId())))
+                .toList();
+    }
+
+    private CattleYieldDto toDto(Cattle cattle, Object[] w) {
+        double sum7 = number(w, 1);
+        double days7 = number(w, 2);
+        double sum30 = number(w, 3);
+        double days30 = number(w, 4);
+        double mean7 = mean(sum7, days7);
+        double mean30 = mean(sum30, days30);
+        double yesterday = number(w, 10);
+        double dayBefore = number(w, 11);
+
+        // Baseline is the rest of the 30-day window, so the last week doesn't dilute it
+        double baseline = mean(sum30 - sum7, days30 - days7);
+        Double dropPercent = baseline > 0 && days7 > 0 ? (baseline - mean7) / baseline * 100.0 : null;
+
+        return CattleYieldDto.builder()
+                .cattleId(cattle.getId())
+                .tagId(cattle.getTagId())
+                .type(cattle.getType())
+                .status(cattle.getStatus())
+                .mean7Days(mean7)
+                .mean30Days(mean30)
+                .mean90Days(mean(number(w, 7), number(w, 8)))
+                .morningMean30Days(mean(number(w, 5), days30))
+                .eveningMean30Days(mean(number(w, 6), days30))
+                .todayLiters(number(w, 9))
+                .yesterdayLiters(yesterday)
+                .dayBeforeLiters(dayBefore)
+                .dayOverDayDelta(yesterday - dayBefore)
+                .dropPercent(dropPercent)
+                .dropAlert(dropPercent != null && dropPercent >= dropAlertPercent)
+                .build();
+    }
+
+    private static CattleDailyYieldDto toCurvePoint(CattleDailyYield bucket) {
+        return CattleDailyYieldDto.builder()
+                .date(bucket.getRecordDate())
+                .morningLiters(bucket.getMorningLiters())
+                .eveningLiters(bucket.getEveningLiters())
+                .totalLiters(bucket.getMorningLiters() + bucket.getEveningLiters())
+                .build();
+    }
+
+    private static double number(Object[] row, int index) {
+        return row == null || row[index] == null ? 0.0 : ((Number) row[index]).doubleValue();
+    }
+
+    private static double mean(double sum, double days) {
+        return days > 0 ? sum / days : 0.0;
+    }
+}
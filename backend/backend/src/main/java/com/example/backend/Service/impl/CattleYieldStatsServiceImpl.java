@@ -0,0 +1,80 @@
+package com.example.backend.Service.impl;
+
+import com.example.backend.Entity.CattleMilkEntry;
+import com.example.backend.Entity.type.MilkSession;
+import com.example.backend.Repository.CattleDailyYieldRepository;
+import com.example.backend.Repository.CattleMilkEntryBatchRepository;
+import com.example.backend.Repository.CattleMilkEntryRepository;
+import com.example.backend.Repository.CattleYieldStatsRepository;
+import com.example.backend.Service.CattleYieldStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class CattleYieldStatsServiceImpl implements CattleYieldStatsService {
+
+    private final CattleYieldStatsRepository cattleYieldStatsRepository;
+    private final CattleMilkEntryBatchRepository cattleMilkEntryBatchRepository;
+    private final CattleMilkEntryRepository cattleMilkEntryRepository;
+    private final CattleDailyYieldRepository cattleDailyYieldRepository;
+
+    @Override
+    public void recordEntries(Collection<CattleMilkEntry> entries) {
+        if (entries.size() == 1) {
+            CattleMilkEntry entry = entries.iterator().next();
+            cattleYieldStatsRepository.addEntry(
+                    entry.getCattle().getId(),
+                    entry.getFarm().getId(),
+                    entry.getRecordDate(),
+                    entry.getMilkLiters());
+            boolean morning = entry.getSession() == MilkSession.MORNING;
+            cattleDailyYieldRepository.addEntry(
+                    entry.getCattle().getId(),
+                    entry.getFarm().getId(),
+                    entry.getRecordDate(),
+                    morning ? entry.getMilkLiters() : 0.0,
+                    morning ? 0.0 : entry.getMilkLiters());
+            return;
+        }
+        cattleMilkEntryBatchRepository.addToYieldStats(entries);
+        cattleMilkEntryBatchRepository.addToDailyYield(entries);
+    }
+
+    @Override
+    @Scheduled(cron = "${app.cattle.yield-stats.refresh-cron:0 5 0 * * *}")
+    public void refreshWindows() {
+        LocalDate today = LocalDate.now();
+        int rows = cattleYieldStatsRepository.refreshWindows(today.minusDays(6), today.minusDays(29));
+        log.info("Refreshed 7/30-day yield windows for {} cattle", rows);
+    }
+
+    @Override
+    public void rebuildAll() {
+        LocalDate today = LocalDate.now();
+        int rows = cattleYieldStatsRepository.rebuildAll(today.minusDays(6), today.minusDays(29));
+        int buckets = cattleDailyYieldRepository.rebuildAll();
+        log.info("Rebuilt yield stats for {} cattle ({} daily buckets)", rows, buckets);
+    }
+
+    /**
+     * Backfills the tables on first start after they were introduced.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        boolean empty = cattleYieldStatsRepository.count() == 0 || cattleDailyYieldRepository.count() == 0;
+        if (empty && cattleMilkEntryRepository.count() > 0) {
+            rebuildAll();
+        }
+    }
+}
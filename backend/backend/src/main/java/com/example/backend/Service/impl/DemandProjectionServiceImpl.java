@@ -0,0 +1,318 @@
+package com.example.backend.Service.impl;
+
+import com.example.backend.DTO.DemandProjectionDto;
+import com.example.backend.Entity.Farm;
+import com.example.backend.Entity.FarmDailyAvailability;
+import com.example.backend.Entity.FarmDemandProjection;
+import com.example.backend.Entity.ForecastAccuracy;
+import com.example.backend.Entity.MilkForecast;
+import com.example.backend.Entity.Subscription;
+import com.example.backend.Entity.User;
+import com.example.backend.Entity.type.MilkSession;
+import com.example.backend.Entity.type.SubscriptionStatus;
+import com.example.backend.Repository.FarmDailyAvailabilityRepository;
+import com.example.backend.Repository.FarmDemandProjectionRepository;
+import com.example.backend.Repository.FarmRepository;
+import com.example.backend.Repository.ForecastAccuracyRepository;
+import com.example.backend.Repository.MilkForecastRepository;
+import com.example.backend.Repository.OrdersRepository;
+import com.example.backend.Repository.SubscriptionRepository;
+import com.example.backend.Service.DemandProjectionService;
+import com.example.backend.Service.FarmAccessService;
+import com.example.backend.Service.FarmAvailabilityService;
+import com.example.backend.Service.JobLeaseService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains {@code farm_demand_projection}.
+ * <p>
+ * Order and subscription writes only mark their farm dirty; a short fixed-delay job
+ * recomputes the dirty farms, and a nightly job recomputes all of them after the date
+ * has rolled over and forecasts were retrained. A farm's recomputation reads only that
+ * farm's active subscriptions, its availability snapshot, a few weeks of its one-off
+ * orders by date and its stored production forecast, then replaces its rows. Requests
+ * read the table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DemandProjectionServiceImpl implements DemandProjectionService {
+
+    private static final String LEASE_NAME = "demand-projection-refresh";
+    private static final String FALLBACK_METHOD = "MOVING_AVERAGE";
+
+    // Slots of the per-cell accumulator
+    private static final int SUBSCRIPTION = 0;
+    private static final int ONE_OFF = 1;
+    private static final int BOOKED = 2;
+    private static final int PRODUCTION = 3;
+
+    private final FarmDemandProjectionRepository projectionRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final OrdersRepository ordersRepository;
+    private final FarmDailyAvailabilityRepository farmDailyAvailabilityRepository;
+    private final MilkForecastRepository milkForecastRepository;
+    private final ForecastAccuracyRepository forecastAccuracyRepository;
+    private final FarmRepository farmRepository;
+    private final FarmAccessService farmAccessService;
+    private final JobLeaseService jobLeaseService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<Long> dirtyFarms = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.demand.horizon-days:7}")
+    private int horizonDays;
+
+    @Value("${app.demand.history-weeks:4}")
+    private int historyWeeks;
+
+    @Value("${app.demand.lease-ttl:30m}")
+    private Duration leaseTtl;
+
+    @Override
+    public void markDirty(Long farmId) {
+        if (farmId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dirtyFarms.add(farmId);
+                }
+            });
+        } else {
+            dirtyFarms.add(farmId);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.demand.refresh-interval:60s}")
+    public void refreshDirty() {
+        if (dirtyFarms.isEmpty()) {
+            return;
+        }
+        List<Long> farmIds = new ArrayList<>(dirtyFarms);
+        dirtyFarms.removeAll(farmIds);
+        LocalDate today = LocalDate.now();
+        for (Long farmId : farmIds) {
+            try {
+                refreshFarm(farmId, today);
+            } catch (RuntimeException ex) {
+                // Retried on the next tick
+                dirtyFarms.add(farmId);
+                log.warn("Demand projection failed for farm {}: {}", farmId, ex.getMessage());
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "${app.demand.refresh-cron:0 0 2 * * *}")
+    public void refreshAll() {
+        if (!jobLeaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+            log.info("Demand projection refresh skipped: lease held by another replica");
+            return;
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            int failed = 0;
+            List<Long> farmIds = farmRepository.findAllIds();
+            for (Long farmId : farmIds) {
+                try {
+                    refreshFarm(farmId, today);
+                } catch (RuntimeException ex) {
+                    failed++;
+                    log.warn("Demand projection failed for farm {}: {}", farmId, ex.getMessage());
+                }
+            }
+            log.info("Refreshed demand projections for {} farms ({} failed)", farmIds.size(), failed);
+        } finally {
+            jobLeaseService.release(LEASE_NAME);
+        }
+    }
+
+    @Override
+    public List<DemandProjectionDto> getProjection(Long farmId, User user) {
+        farmAccessService.verifyFarmAccess(user, farmId);
+        LocalDate today = LocalDate.now();
+
+        List<FarmDemandProjection> rows = findFrom(farmId, today);
+        if (rows.isEmpty()) {
+            // First request for a farm the jobs have not reached yet
+            refreshFarm(farmId, today);
+            rows = findFrom(farmId, today);
+        }
+        return rows.stream()
+                .map(p -> DemandProjectionDto.builder()
+                        .date(p.getProjectionDate())
+                        .session(p.getSession())
+                        .animalType(p.getAnimalType())
+                        .subscriptionLiters(p.getSubscriptionLiters())
+                        .oneOffLiters(p.getOneOffLiters())
+                        .bookedLiters(p.getBookedLiters())
+                        .demandLiters(p.getDemandLiters())
+                        .productionLiters(p.getProductionLiters())
+                        .balanceLiters(p.getBalanceLiters())
+                        .computedAt(p.getComputedAt())
+                        .build())
+                .toList();
+    }
+
+    private List<FarmDemandProjection> findFrom(Long farmId, LocalDate today) {
+        return projectionRepository
+                .findByFarmIdAndProjectionDateGreaterThanEqualOrderByProjectionDateAscSessionAscAnimalTypeAsc(farmId, today);
+    }
+
+    private void refreshFarm(Long farmId, LocalDate today) {
+        LocalDate last = today.plusDays(horizonDays - 1);
+        Map<Key, double[]> cells = new HashMap<>();
+
+        addSubscriptionDemand(farmId, today, last, cells);
+        addOneOffDemand(farmId, today, last, cells);
+        addBooked(farmId, today, last, cells);
+        addProduction(farmId, today, last, cells);
+
+        LocalDateTime computedAt = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            projectionRepository.deleteByFarm(farmId);
+            Farm farm = farmRepository.getReferenceById(farmId);
+            List<FarmDemandProjection> rows = new ArrayList<>(cells.size());
+            cells.forEach((key, v) -> {
+                // Orders already placed are demand for sure; the estimate can only add to them
+                double demand = Math.max(v[BOOKED], v[SUBSCRIPTION] + v[ONE_OFF]);
+                rows.add(FarmDemandProjection.builder()
+                        .farm(farm)
+                        .projectionDate(key.date())
+                        .session(key.session())
+                        .animalType(key.animalType())
+                        .subscriptionLiters(v[SUBSCRIPTION])
+                        .oneOffLiters(v[ONE_OFF])
+                        .bookedLiters(v[BOOKED])
+                        .demandLiters(demand)
+                        .productionLiters(v[PRODUCTION])
+                        .balanceLiters(v[PRODUCTION] - demand)
+                        .computedAt(computedAt)
+                        .build());
+            });
+            projectionRepository.saveAll(rows);
+        });
+    }
+
+    // Mirrors SubscriptionOrderGenerator.plan, projected forward day by day
+    private void addSubscriptionDemand(Long farmId, LocalDate today, LocalDate last, Map<Key, double[]> cells) {
+        for (Subscription sub : subscriptionRepository.findByFarm_IdAndStatus(farmId, SubscriptionStatus.ACTIVE)) {
+            if (sub.getStartDate() == null || sub.getQuantity() == null
+                    || !BuyMilkServiceImpl.isAllowedQuantity(sub.getQuantity())) {
+                continue;
+            }
+            int counter = sub.getBillingDayCounter() == null ? 0 : Math.max(0, sub.getBillingDayCounter());
+            String type = FarmAvailabilityService.normalizeAnimalType(sub.getAnimalType());
+            for (LocalDate d = today; !d.isAfter(last); d = d.plusDays(1)) {
+                if (d.isBefore(sub.getStartDate())
+                        || (sub.getEndDate() != null && d.isAfter(sub.getEndDate()))
+                        || d.equals(sub.getSkipDate())) {
+                    continue;
+                }
+                // Generation pauses once the unpaid cycle is full
+                if (counter + ChronoUnit.DAYS.between(today, d) >= SubscriptionServiceImpl.MAX_BILLING_DAYS) {
+                    break;
+                }
+                cell(cells, d, sub.getSession(), type)[SUBSCRIPTION] += sub.getQuantity();
+            }
+        }
+    }
+
+    // Mean of the same weekday over the last few weeks of one-off orders
+    private void addOneOffDemand(Long farmId, LocalDate today, LocalDate last, Map<Key, double[]> cells) {
+        Map<DayOfWeek, Map<SessionType, Double>> byWeekday = new EnumMap<>(DayOfWeek.class);
+        for (Object[] row : ordersRepository.sumOneOffDemandByDay(farmId, today.minusWeeks(historyWeeks), today)) {
+            LocalDate date = (LocalDate) row[0];
+            SessionType key = new SessionType(
+                    (MilkSession) row[1], FarmAvailabilityService.normalizeAnimalType((String) row[2]));
+            double liters = row[3] == null ? 0.0 : ((Number) row[3]).doubleValue();
+            byWeekday.computeIfAbsent(date.getDayOfWeek(), k -> new HashMap<>()).merge(key, liters, Double::sum);
+        }
+        for (LocalDate d = today; !d.isAfter(last); d = d.plusDays(1)) {
+            LocalDate date = d;
+            byWeekday.getOrDefault(d.getDayOfWeek(), Map.of()).forEach((key, liters) ->
+                    cell(cells, date, key.session(), key.animalType())[ONE_OFF] += liters / historyWeeks);
+        }
+    }
+
+    private void addBooked(Long farmId, LocalDate today, LocalDate last, Map<Key, double[]> cells) {
+        for (FarmDailyAvailability row : farmDailyAvailabilityRepository.findByFarmIdAndRecordDateBetween(farmId, today, last)) {
+            if (row.getAllocatedLiters() != null && row.getAllocatedLiters() > 0) {
+                cell(cells, row.getRecordDate(), row.getSession(), row.getAnimalType())[BOOKED] += row.getAllocatedLiters();
+            }
+        }
+    }
+
+    /**
+     * Splits the farm-level production forecast (best backtested method) over sessions and
+     * animal types by their share of recent production. Days without a stored forecast
+     * fall back to the recent daily mean of each share.
+     */
+    private void addProduction(Long farmId, LocalDate today, LocalDate last, Map<Key, double[]> cells) {
+        LocalDate from = today.minusWeeks(historyWeeks);
+        int historyDays = historyWeeks * 7;
+        Map<SessionType, Double> produced = new HashMap<>();
+        double producedTotal = 0;
+        for (Object[] row : farmDailyAvailabilityRepository.sumProducedBySessionAndType(farmId, from, today)) {
+            double liters = ((Number) row[2]).doubleValue();
+            produced.put(new SessionType((MilkSession) row[0], (String) row[1]), liters);
+            producedTotal += liters;
+        }
+        if (producedTotal <= 0) {
+            return;
+        }
+
+        String method = forecastAccuracyRepository.findFirstByFarm_IdAndBestTrue(farmId)
+                .map(ForecastAccuracy::getMethod)
+                .orElse(FALLBACK_METHOD);
+        Map<LocalDate, Double> forecast = new HashMap<>();
+        for (MilkForecast f : milkForecastRepository
+                .findByFarm_IdAndMethodAndForecastDateGreaterThanEqualOrderByForecastDateAsc(farmId, method, today)) {
+            forecast.put(f.getForecastDate(), f.getPredictedLiters());
+        }
+
+        for (LocalDate d = today; !d.isAfter(last); d = d.plusDays(1)) {
+            Double total = forecast.get(d);
+            for (Map.Entry<SessionType, Double> share : produced.entrySet()) {
+                double liters = total != null
+                        ? total * share.getValue() / producedTotal
+                        : share.getValue() / historyDays;
+                cell(cells, d, share.getKey().session(), share.getKey().animalType())[PRODUCTION] += liters;
+            }
+        }
+    }
+
+    private static double[] cell(Map<Key, double[]> cells, LocalDate date, MilkSession session, String animalType) {
+        return cells.computeIfAbsent(new Key(date, session, animalType), k -> new double[4]);
+    }
+
+    private record Key(LocalDate date, MilkSession session, String animalType) {
+    }
+
+    private record SessionType(MilkSession session, String animalType) {
+    }
+}
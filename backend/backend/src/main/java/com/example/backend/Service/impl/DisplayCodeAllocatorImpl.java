@@ -0,0 +1,237 @@
+package com.example.backend.Service.impl;
+
+import com.example.backend.Entity.DisplayCodeSequence;
+import com.example.backend.Entity.type.DisplayCodeKind;
+import com.example.backend.Repository.DisplayCodeSequenceRepository;
+import com.example.backend.Repository.OrdersRepository;
+import com.example.backend.Repository.SubscriptionRepository;
+import com.example.backend.Service.DisplayCodeAllocator;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Hi/lo display code allocator. Each replica reserves a block of sequence values per farm
+ * from {@code display_code_sequence} in its own short transaction, then hands codes out
+ * from memory. Sequence values are mapped onto 100000-999999 with a keyed Feistel
+ * permutation, so consecutive orders don't get consecutive codes. Codes issued by the old
+ * random scheme are filtered out with one query per block.
+ * <p>
+ * Blocks are reserved on a small dedicated pool, and the next one is fetched in the
+ * background once a quarter of the current block is left, so a caller's order transaction
+ * rarely waits for a refill and never takes a second pooled connection of its own.
+ */
+@Service
+@RequiredArgsConstructor
+public class DisplayCodeAllocatorImpl implements DisplayCodeAllocator {
+
+    static final int CODE_SPACE = 900_000;
+    private static final int CODE_OFFSET = 100_000;
+    private static final int HALF = 949; // 949 * 949 = 900601 >= CODE_SPACE
+    private static final int ROUNDS = 4;
+    // Bounds the connections refills can take, however many farms run out at once
+    private static final int REFILL_THREADS = 2;
+
+    private final DisplayCodeSequenceRepository sequenceRepository;
+    private final OrdersRepository ordersRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.display-code.block-size:50}")
+    private int blockSize;
+
+    @Value("${app.display-code.secret:milk-display-codes}")
+    private String secret;
+
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+    private final ExecutorService refills = Executors.newFixedThreadPool(REFILL_THREADS,
+            Thread.ofPlatform().name("display-code-refill-", 0).daemon().factory());
+
+    @PreDestroy
+    void shutdown() {
+        refills.shutdownNow();
+    }
+
+    @Override
+    public String nextOrderCode(Long farmId) {
+        return nextCodes(DisplayCodeKind.ORDER, farmId, 1).get(0);
+    }
+
+    @Override
+    public List<String> nextOrderCodes(Long farmId, int count) {
+        return nextCodes(DisplayCodeKind.ORDER, farmId, count);
+    }
+
+    @Override
+    public String nextSubscriptionCode(Long farmId) {
+        return nextCodes(DisplayCodeKind.SUBSCRIPTION, farmId, 1).get(0);
+    }
+
+    private List<String> nextCodes(DisplayCodeKind kind, Long farmId, int count) {
+        Block block = blocks.computeIfAbsent(kind + ":" + farmId, key -> new Block());
+        synchronized (block) {
+            List<String> codes = new ArrayList<>(count);
+            while (codes.size() < count) {
+                if (block.codes.isEmpty()) {
+                    if (block.next == null) {
+                        block.next = prefetch(kind, farmId, Math.max(blockSize, count - codes.size()));
+                    }
+                    block.codes.addAll(await(block));
+                }
+                codes.add(block.codes.poll());
+            }
+            if (block.next == null && block.codes.size() <= blockSize / 4) {
+                block.next = prefetch(kind, farmId, blockSize);
+            }
+            return codes;
+        }
+    }
+
+    private CompletableFuture<Deque<String>> prefetch(DisplayCodeKind kind, Long farmId, int size) {
+        return CompletableFuture.supplyAsync(() -> load(kind, farmId, size), refills);
+    }
+
+    private static Deque<String> await(Block block) {
+        try {
+            return block.next.join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        } finally {
+            block.next = null;
+        }
+    }
+
+    // Runs on the refill pool, outside any caller's transaction
+    private Deque<String> load(DisplayCodeKind kind, Long farmId, int size) {
+        long key = farmKey(kind, farmId);
+        Deque<String> block = new ArrayDeque<>();
+        while (block.isEmpty()) {
+            long[] range = reserve(kind, farmId, size);
+
+            List<String> candidates = new ArrayList<>((int) (range[1] - range[0]));
+            for (long value = range[0]; value < range[1]; value++) {
+                candidates.add(String.valueOf(CODE_OFFSET + permute((int) value, key)));
+            }
+
+            Set<String> taken = new HashSet<>(kind == DisplayCodeKind.ORDER
+                    ? ordersRepository.findExistingDisplayCodes(farmId, candidates)
+                    : subscriptionRepository.findExistingDisplayCodes(farmId, candidates));
+            for (String code : candidates) {
+                if (!taken.contains(code)) {
+                    block.add(code);
+                }
+            }
+        }
+        return block;
+    }
+
+    // Moves the farm's counter forward by one block in its own transaction, so the row lock
+    // is held only for this update and not for the caller's whole order transaction.
+    private long[] reserve(DisplayCodeKind kind, Long farmId, int size) {
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return requiresNew.execute(status -> {
+            sequenceRepository.ensureExists(farmId, kind.name());
+            DisplayCodeSequence sequence = sequenceRepository.findByFarmIdAndKind(farmId, kind)
+                    .orElseThrow(() -> new IllegalStateException("Display code sequence not found"));
+
+            long from = sequence.getNextValue();
+            if (from >= CODE_SPACE) {
+                throw new IllegalStateException("No display codes left for this farm");
+            }
+            long to = Math.min(from + size, CODE_SPACE);
+            sequence.setNextValue(to);
+            sequenceRepository.save(sequence);
+            return new long[]{from, to};
+        });
+    }
+
+    private long farmKey(DisplayCodeKind kind, Long farmId) {
+        long h = 1125899906842597L;
+        for (byte b : secret.getBytes(StandardCharsets.UTF_8)) {
+            h = 31 * h + b;
+        }
+        return mix(h ^ (farmId * 0x9E3779B97F4A7C15L) ^ kind.ordinal());
+    }
+
+    /**
+     * Bijection on [0, CODE_SPACE): a Feistel network on 949 x 949 pairs, cycle-walked
+     * until the result falls back inside the code space.
+     */
+    static int permute(int value, long key) {
+        int x = value;
+        do {
+            x = feistel(x, key);
+        } while (x >= CODE_SPACE);
+        return x;
+    }
+
+    /**
+     * Inverse of {@link #permute}: recovers the sequence value behind a code.
+     */
+    static int unpermute(int value, long key) {
+        int x = value;
+        do {
+            x = inverseFeistel(x, key);
+        } while (x >= CODE_SPACE);
+        return x;
+    }
+
+    private static int feistel(int x, long key) {
+        int left = x / HALF;
+        int right = x % HALF;
+        for (int round = 0; round < ROUNDS; round++) {
+            int next = (left + roundFunction(right, key, round)) % HALF;
+            left = right;
+            right = next;
+        }
+        return left * HALF + right;
+    }
+
+    private static int inverseFeistel(int x, long key) {
+        int left = x / HALF;
+        int right = x % HALF;
+        for (int round = ROUNDS - 1; round >= 0; round--) {
+            int previous = Math.floorMod(right - roundFunction(left, key, round), HALF);
+            right = left;
+            left = previous;
+        }
+        return left * HALF + right;
+    }
+
+    private static int roundFunction(int value, long key, int round) {
+        return (int) Math.floorMod(mix(key + round * 0xC2B2AE3D27D4EB4FL + value), (long) HALF);
+    }
+
+    private static final class Block {
+        final Deque<String> codes = new ArrayDeque<>();
+        CompletableFuture<Deque<String>> next; // guarded by this
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
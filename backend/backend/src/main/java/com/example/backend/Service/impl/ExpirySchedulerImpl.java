@@ -0,0 +1,367 @@
+package com.example.backend.Service.impl;
+
+import com.example.backend.DTO.FarmLiveEvent;
+import com.example.backend.DTO.OrdersTimedOutEvent;
+import com.example.backend.Entity.Orders;
+import com.example.backend.Entity.type.LiveEventType;
+import com.example.backend.Entity.type.OrderStatus;
+import com.example.backend.Repository.OrdersRepository;
+import com.example.backend.Repository.SubscriptionRepository;
+import com.example.backend.Service.ExpiryScheduler;
+import com.example.backend.Service.FarmAvailabilityService;
+import com.example.backend.Service.JobLeaseService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Expiry deadlines kept in a {@link HierarchicalTimingWheel} on a single leader replica.
+ * <p>
+ * The replica holding the {@value #LEASE} lease loads every open order and pending
+ * subscription into the wheel, then keeps it current from registrations that all replicas
+ * publish on a Redis channel after commit. Each tick hands due ids to a guarded bulk
+ * transition: rows are re-read under lock, those past their deadline are timed out in one
+ * UPDATE, and the rest (an order approved in the meantime) go back on the wheel at their
+ * new deadline. Losing the lease drops the wheel; the next holder rebuilds it from the DB.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExpirySchedulerImpl implements ExpiryScheduler {
+
+    static final String LEASE = "order-expiry-wheel";
+
+    // 64 one-tick slots per level, four levels: ~194 days at a 1s tick
+    private static final int WHEEL_SLOT_BITS = 6;
+    private static final int WHEEL_LEVELS = 4;
+
+    private final OrdersRepository ordersRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final FarmAvailabilityService farmAvailabilityService;
+    private final JobLeaseService jobLeaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.expiry.timeout:1d}")
+    private Duration timeout;
+
+    @Value("${app.expiry.tick:1s}")
+    private Duration tick;
+
+    @Value("${app.expiry.lease-ttl:30s}")
+    private Duration leaseTtl;
+
+    @Value("${app.expiry.channel:expiry-registrations}")
+    private String channel;
+
+    @Value("${app.expiry.batch-size:500}")
+    private int batchSize;
+
+    // Non-null only while this replica is the leader; guarded by this
+    private HierarchicalTimingWheel<Expiry> wheel;
+    private volatile boolean leader;
+    private long leaseCheckedAt;
+
+    enum Kind { ORDER, SUBSCRIPTION, FARM_ORDERS }
+
+    record Expiry(Kind kind, long id) {
+    }
+
+    /**
+     * Message on the registration channel.
+     *
+     * @param deadline epoch millis
+     */
+    public record Registration(Kind kind, List<Long> ids, long deadline) {
+    }
+
+    @PostConstruct
+    void init() {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            try {
+                accept(objectMapper.readValue(
+                        new String(message.getBody(), StandardCharsets.UTF_8), Registration.class));
+            } catch (Exception ex) {
+                log.warn("Ignoring malformed expiry registration");
+            }
+        }, new ChannelTopic(channel));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (leader) {
+            jobLeaseService.release(LEASE);
+        }
+    }
+
+    @Override
+    public void scheduleOrders(Collection<Long> orderIds) {
+        register(Kind.ORDER, orderIds);
+    }
+
+    @Override
+    public void scheduleFarmOrders(Long farmId) {
+        register(Kind.FARM_ORDERS, List.of(farmId));
+    }
+
+    @Override
+    public void scheduleSubscriptions(Collection<Long> subscriptionIds) {
+        register(Kind.SUBSCRIPTION, subscriptionIds);
+    }
+
+    @Override
+    public boolean isLeader() {
+        return leader;
+    }
+
+    @Scheduled(fixedDelayString = "${app.expiry.tick:1s}")
+    public void tick() {
+        long now = System.currentTimeMillis();
+        if (now - leaseCheckedAt >= leaseTtl.toMillis() / 3) {
+            leaseCheckedAt = now;
+            boolean held = tryLease();
+            if (held && !leader) {
+                becomeLeader(now);
+            } else if (!held && leader) {
+                log.warn("Lost the expiry lease, dropping the wheel");
+                stepDown();
+            }
+        }
+
+        List<Expiry> due;
+        synchronized (this) {
+            if (wheel == null) {
+                return;
+            }
+            due = wheel.advance(now);
+        }
+        if (!due.isEmpty()) {
+            fire(due);
+        }
+    }
+
+    private void register(Kind kind, Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        Registration registration = new Registration(kind, List.copyOf(ids),
+                System.currentTimeMillis() + timeout.toMillis());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(registration);
+                }
+            });
+        } else {
+            publish(registration);
+        }
+    }
+
+    private void publish(Registration registration) {
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(registration));
+        } catch (Exception ex) {
+            // Fine if we lead; otherwise the hourly sweep picks these up
+            log.debug("Expiry registration not published to Redis: {}", ex.getMessage());
+            accept(registration);
+        }
+    }
+
+    private synchronized void accept(Registration registration) {
+        if (wheel == null) {
+            return;
+        }
+        for (Long id : registration.ids()) {
+            wheel.add(new Expiry(registration.kind(), id), registration.deadline());
+        }
+    }
+
+    private synchronized void reschedule(Expiry expiry, long deadlineMillis) {
+        if (wheel != null) {
+            wheel.add(expiry, deadlineMillis);
+        }
+    }
+
+    private boolean tryLease() {
+        try {
+            return jobLeaseService.tryAcquire(LEASE, leaseTtl);
+        } catch (RuntimeException ex) {
+            log.warn("Could not renew the expiry lease: {}", ex.getMessage());
+            return false;
+        }
+    }
+
+    private void becomeLeader(long now) {
+        synchronized (this) {
+            // Registrations arriving while we read the DB go straight into the new wheel
+            wheel = new HierarchicalTimingWheel<>(tick.toMillis(), WHEEL_SLOT_BITS, WHEEL_LEVELS, now);
+            leader = true;
+        }
+        try {
+            List<Object[]> orders = ordersRepository.findExpiryCandidates();
+            List<Object[]> subscriptions = subscriptionRepository.findPendingCreatedAt();
+            synchronized (this) {
+                for (Object[] row : orders) {
+                    LocalDateTime deadline = orderDeadline((OrderStatus) row[1], (LocalDateTime) row[2], (LocalDateTime) row[3]);
+                    if (deadline != null) {
+                        wheel.add(new Expiry(Kind.ORDER, (Long) row[0]), toMillis(deadline));
+                    }
+                }
+                for (Object[] row : subscriptions) {
+                    if (row[1] != null) {
+                        wheel.add(new Expiry(Kind.SUBSCRIPTION, (Long) row[0]), toMillis(((LocalDateTime) row[1]).plus(timeout)));
+                    }
+                }
+            }
+            log.info("Expiry wheel rebuilt with {} orders and {} subscriptions", orders.size(), subscriptions.size());
+        } catch (RuntimeException ex) {
+            log.error("Could not rebuild the expiry wheel, releasing the lease: {}", ex.getMessage());
+            stepDown();
+            jobLeaseService.release(LEASE);
+        }
+    }
+
+    private synchronized void stepDown() {
+        wheel = null;
+        leader = false;
+    }
+
+    private void fire(List<Expiry> due) {
+        Map<Kind, List<Long>> byKind = due.stream().collect(Collectors.groupingBy(Expiry::kind,
+                Collectors.mapping(Expiry::id, Collectors.toList())));
+
+        List<Long> orderIds = new ArrayList<>(byKind.getOrDefault(Kind.ORDER, List.of()));
+        LocalDateTime cutoff = LocalDateTime.now().minus(timeout);
+        for (Long farmId : byKind.getOrDefault(Kind.FARM_ORDERS, List.of())) {
+            try {
+                orderIds.addAll(ordersRepository.findPendingIdsCreatedBefore(farmId, cutoff));
+            } catch (RuntimeException ex) {
+                log.warn("Could not load timed-out orders of farm {}: {}", farmId, ex.getMessage());
+                retryLater(Kind.FARM_ORDERS, List.of(farmId));
+            }
+        }
+        List<Long> distinctOrderIds = orderIds.stream().distinct().toList();
+        for (int from = 0; from < distinctOrderIds.size(); from += batchSize) {
+            List<Long> chunk = distinctOrderIds.subList(from, Math.min(from + batchSize, distinctOrderIds.size()));
+            try {
+                expireOrders(chunk);
+            } catch (RuntimeException ex) {
+                log.warn("Could not time out {} orders: {}", chunk.size(), ex.getMessage());
+                retryLater(Kind.ORDER, chunk);
+            }
+        }
+
+        List<Long> subscriptionIds = byKind.getOrDefault(Kind.SUBSCRIPTION, List.of());
+        for (int from = 0; from < subscriptionIds.size(); from += batchSize) {
+            List<Long> chunk = subscriptionIds.subList(from, Math.min(from + batchSize, subscriptionIds.size()));
+            try {
+                expireSubscriptions(chunk);
+            } catch (RuntimeException ex) {
+                log.warn("Could not time out {} subscriptions: {}", chunk.size(), ex.getMessage());
+                retryLater(Kind.SUBSCRIPTION, chunk);
+            }
+        }
+    }
+
+    private void expireOrders(List<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        int expiredCount = transactionTemplate.execute(status -> {
+            List<Orders> expired = new ArrayList<>();
+            for (Orders order : ordersRepository.lockExpiryCandidates(ids)) {
+                LocalDateTime deadline = orderDeadline(order.getStatus(), order.getCreatedAt(), order.getConfirmedAt());
+                if (deadline == null) {
+                    continue;
+                }
+                if (deadline.isAfter(now)) {
+                    reschedule(new Expiry(Kind.ORDER, order.getId()), toMillis(deadline));
+                } else {
+                    expired.add(order);
+                }
+            }
+            if (expired.isEmpty()) {
+                return 0;
+            }
+            ordersRepository.markTimedOut(expired.stream().map(Orders::getId).toList());
+            farmAvailabilityService.release(expired);
+            for (Orders order : expired) {
+                eventPublisher.publishEvent(FarmLiveEvent.of(order.getFarm().getId(), LiveEventType.ORDER_STATUS_CHANGED,
+                        "orderId", order.getId(),
+                        "displayCode", order.getDisplayCode(),
+                        "status", OrderStatus.TIMEOUT_REJECTED,
+                        "paid", order.getPaid()));
+            }
+            eventPublisher.publishEvent(new OrdersTimedOutEvent(expired.stream().collect(Collectors.groupingBy(
+                    order -> order.getFarm().getId(),
+                    Collectors.mapping(Orders::getId, Collectors.toList())))));
+            return expired.size();
+        });
+        if (expiredCount > 0) {
+            log.info("Timed out {} orders", expiredCount);
+        }
+    }
+
+    private void expireSubscriptions(List<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        int expiredCount = transactionTemplate.execute(status -> {
+            List<Long> due = new ArrayList<>();
+            for (Object[] row : subscriptionRepository.findPendingCreatedAtByIds(ids)) {
+                if (row[1] == null) {
+                    continue;
+                }
+                LocalDateTime deadline = ((LocalDateTime) row[1]).plus(timeout);
+                if (deadline.isAfter(now)) {
+                    reschedule(new Expiry(Kind.SUBSCRIPTION, (Long) row[0]), toMillis(deadline));
+                } else {
+                    due.add((Long) row[0]);
+                }
+            }
+            return due.isEmpty() ? 0 : subscriptionRepository.timeoutPending(due, now.minus(timeout));
+        });
+        if (expiredCount > 0) {
+            log.info("Timed out {} pending subscriptions", expiredCount);
+        }
+    }
+
+    private void retryLater(Kind kind, List<Long> ids) {
+        long retryAt = System.currentTimeMillis() + leaseTtl.toMillis();
+        for (Long id : ids) {
+            reschedule(new Expiry(kind, id), retryAt);
+        }
+    }
+
+    // Pending orders time out from creation, unpaid confirmed ones from confirmation
+    private LocalDateTime orderDeadline(OrderStatus status, LocalDateTime createdAt, LocalDateTime confirmedAt) {
+        LocalDateTime from = status == OrderStatus.CONFIRMED && confirmedAt != null ? confirmedAt : createdAt;
+        return from != null ? from.plus(timeout) : null;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.backend.Service.impl;
+
+import com.example.backend.Entity.Orders;
+import com.example.backend.Entity.type.MilkSession;
+import com.example.backend.Entity.type.OrderStatus;
+import com.example.backend.Repository.CattleMilkEntryRepository;
+import com.example.backend.Repository.FarmDailyAvailabilityRepository;
+import com.example.backend.Repository.FarmRepository;
+import com.example.backend.Repository.OrdersRepository;
+import com.example.backend.Service.DemandProjectionService;
+import com.example.backend.Service.FarmAvailabilityService;
+import com.example.backend.Service.JobLeaseService;
+import com.example.backend.Service.MilkReservationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class FarmAvailabilityServiceImpl implements FarmAvailabilityService {
+
+    private static final String REBUILD_LEASE = "farm-availability-rebuild";
+
+    // MySQL's largest DATE: rebuilds that run to the end of the data
+    private static final LocalDate OPEN_END = LocalDate.of(9999, 12, 31);
+
+    private static final List<Integer> OPEN_ORDER_STATUSES = List.of(
+            OrderStatus.PENDING.ordinal(),
+            OrderStatus.CONFIRMED.ordinal());
+
+    private final FarmDailyAvailabilityRepository farmDailyAvailabilityRepository;
+    private final DemandProjectionService demandProjectionService;
+    private final CattleMilkEntryRepository cattleMilkEntryRepository;
+    private final OrdersRepository ordersRepository;
+    private final MilkReservationService milkReservationService;
+    private final FarmRepository farmRepository;
+    private final JobLeaseService jobLeaseService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.milk.availability.rebuild-days:2}")
+    private int rebuildDays;
+
+    @Value("${app.milk.availability.lease-ttl:30m}")
+    private Duration leaseTtl;
+
+    @Value("${app.milk.availability.backfill-chunk-days:31}")
+    private int backfillChunkDays;
+
+    @Override
+    public void recordProduction(Long farmId, LocalDate date, MilkSession session, String animalType, double liters) {
+        if (liters == 0.0) {
+            return;
+        }
+        farmDailyAvailabilityRepository.addDelta(
+                farmId,
+                date,
+                session.name(),
+                FarmAvailabilityService.normalizeAnimalType(animalType),
+                liters,
+                0.0);
+        milkReservationService.addProduction(farmId, date, session, animalType, liters);
+    }
+
+    @Override
+    public void allocate(Orders order) {
+        applyAllocationDelta(List.of(order), 1.0);
+    }
+
+    @Override
+    public void allocateAll(Collection<Orders> orders) {
+        applyAllocationDelta(orders, 1.0);
+    }
+
+    @Override
+    public void release(Collection<Orders> orders) {
+        applyAllocationDelta(orders, -1.0);
+        milkReservationService.release(orders.stream()
+                .map(Orders::getId)
+                .filter(Objects::nonNull)
+                .toList());
+    }
+
+    @Override
+    public void releaseOrderIds(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        milkReservationService.release(orderIds);
+        // Animal types are normalised here, so several rows can land on one key
+        Map<List<Object>, Double> liters = new HashMap<>();
+        for (Object[] row : ordersRepository.sumQuantityByAvailabilityKey(orderIds)) {
+            if (row[0] == null || row[1] == null || row[2] == null || row[4] == null) {
+                continue;
+            }
+            List<Object> key = List.of(row[0], row[1], ((MilkSession) row[2]).name(),
+                    FarmAvailabilityService.normalizeAnimalType((String) row[3]));
+            liters.merge(key, ((Number) row[4]).doubleValue(), Double::sum);
+        }
+        liters.keySet().stream()
+                .map(key -> (Long) key.get(0))
+                .distinct()
+                .forEach(demandProjectionService::markDirty);
+
+        liters.forEach((key, total) -> farmDailyAvailabilityRepository.addDelta(
+                (Long) key.get(0),
+                (LocalDate) key.get(1),
+                (String) key.get(2),
+                (String) key.get(3),
+                0.0,
+                -total));
+    }
+
+    // One upsert per snapshot row rather than per order
+    private void applyAllocationDelta(Collection<Orders> orders, double sign) {
+        Map<String, Double> liters = new HashMap<>();
+        Map<String, Orders> sample = new HashMap<>();
+        for (Orders order : orders) {
+            if (order.getSession() == null || order.getQuantity() == null || order.getFarm() == null) {
+                continue;
+            }
+            String key = order.getFarm().getId() + "|" + order.getOrderDate() + "|" + order.getSession().name()
+                    + "|" + FarmAvailabilityService.normalizeAnimalType(order.getAnimalType());
+            liters.merge(key, order.getQuantity(), Double::sum);
+            sample.putIfAbsent(key, order);
+        }
+        sample.values().stream()
+                .map(order -> order.getFarm().getId())
+                .distinct()
+                .forEach(demandProjectionService::markDirty);
+
+        liters.forEach((key, total) -> {
+            Orders order = sample.get(key);
+            farmDailyAvailabilityRepository.addDelta(
+                    order.getFarm().getId(),
+                    order.getOrderDate(),
+                    order.getSession().name(),
+                    FarmAvailabilityService.normalizeAnimalType(order.getAnimalType()),
+                    0.0,
+                    sign * total);
+        });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rebuildSince(LocalDate fromDate) {
+        rebuildBetween(fromDate, OPEN_END, Integer.MAX_VALUE);
+    }
+
+    // One short transaction per farm and chunk of days, so deltas from buyers and milk
+    // entries only ever wait on the slice being rebuilt; read committed avoids gap locks
+    // on the raw tables
+    private void rebuildBetween(LocalDate fromDate, LocalDate toDate, int chunkDays) {
+        TransactionTemplate perChunk = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        perChunk.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        perChunk.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+
+        List<Long> farmIds = farmRepository.findAllIds();
+        int rows = 0;
+        int failed = 0;
+        for (Long farmId : farmIds) {
+            LocalDate chunkStart = fromDate;
+            while (!chunkStart.isAfter(toDate)) {
+                LocalDate start = chunkStart;
+                LocalDate end = toDate.minusDays(chunkDays - 1L).isAfter(start)
+                        ? start.plusDays(chunkDays - 1L)
+                        : toDate;
+                try {
+                    Integer changed = perChunk.execute(status ->
+                            farmDailyAvailabilityRepository.rebuildFarmBetween(farmId, start, end, OPEN_ORDER_STATUSES));
+                    rows += changed != null ? changed : 0;
+                } catch (RuntimeException ex) {
+                    failed++;
+                    log.warn("Availability rebuild failed for farm {} ({} to {}): {}",
+                            farmId, start, end, ex.getMessage());
+                }
+                chunkStart = end.plusDays(1);
+            }
+        }
+        log.info("Rebuilt farm availability from {} for {} farms ({} rows, {} failed chunks)",
+                fromDate, farmIds.size(), rows, failed);
+    }
+
+    /**
+     * The snapshot is maintained by deltas; recompute recent days so edits that bypass
+     * the delta paths (deleted cattle, changed animal types) do not drift forever.
+     * Raising {@code app.milk.availability.rebuild-days} once backfills older history.
+     * Runs on the replica holding the {@value #REBUILD_LEASE} lease.
+     */
+    @Scheduled(cron = "${app.milk.availability.rebuild-cron:0 45 * * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rebuildRecentAvailability() {
+        if (!jobLeaseService.tryAcquire(REBUILD_LEASE, leaseTtl)) {
+            log.info("Availability rebuild skipped: lease held by another replica");
+            return;
+        }
+        try {
+            rebuildSince(LocalDate.now().minusDays(Math.max(0, rebuildDays - 1)));
+        } finally {
+            jobLeaseService.release(REBUILD_LEASE);
+        }
+    }
+
+    /**
+     * Milk history is served from the snapshot, so it must reach back to the first raw
+     * entry. Rebuilds once from there when older entries predate the snapshot: on the
+     * replica that wins the rebuild lease, farm by farm in chunks of
+     * {@code app.milk.availability.backfill-chunk-days}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void backfillHistory() {
+        LocalDate firstEntry = cattleMilkEntryRepository.findFirstRecordDate();
+        if (firstEntry == null) {
+            return;
+        }
+        LocalDate firstSnapshot = farmDailyAvailabilityRepository.findFirstProducedDate();
+        if (firstSnapshot != null && !firstEntry.isBefore(firstSnapshot)) {
+            return;
+        }
+        if (!jobLeaseService.tryAcquire(REBUILD_LEASE, leaseTtl)) {
+            log.info("Availability backfill skipped: lease held by another replica");
+            return;
+        }
+        try {
+            rebuildBetween(firstEntry, LocalDate.now(), Math.max(1, backfillChunkDays));
+        } finally {
+            jobLeaseService.release(REBUILD_LEASE);
+        }
+    }
+}
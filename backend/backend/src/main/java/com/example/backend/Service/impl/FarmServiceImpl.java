@@ -8,6 +8,8 @@ import com.example.backend.Entity.Shed;
 import com.example.backend.Entity.User;
 import com.example.backend.Entity.WorkerFarmInvitation;
 import com.example.backend.Entity.type.InvitationStatus;
+import com.example.backend.Entity.type.LiveEventType;
+import com.example.backend.Entity.type.MilkSession;
 import com.example.backend.Entity.type.UserRole;
 import com.example.backend.Repository.FarmRepository;
 import com.example.backend.Repository.FarmWorkerRepository;
@@ -15,9 +17,12 @@ import com.example.backend.Repository.FarmWorkerShedRepository;
 import com.example.backend.Repository.ShedRepository;
 import com.example.backend.Repository.UserRepository;
 import com.example.backend.Repository.WorkerFarmInvitationRepository;
+import com.example.backend.Security.PrincipalCache;
+import com.example.backend.Service.FarmAccessService;
 import com.example.backend.Service.FarmService;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -37,9 +42,13 @@ public class FarmServiceImpl implements FarmService {
     private final ShedRepository shedRepository;
     private final ModelMapper modelMapper;
     private final com.example.backend.Repository.CattleRepository cattleRepository;
-    private final com.example.backend.Service.MilkInventoryService milkInventoryService;
+    private final FarmListingReadModel farmListingReadModel;
     private final com.example.backend.Repository.CattleMilkEntryRepository cattleMilkEntryRepository;
     private final WorkerFarmInvitationRepository invitationRepository;
+    private final PrincipalCache principalCache;
+    private final MilkingProgressBoard milkingProgressBoard;
+    private final FarmAccessService farmAccessService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -102,7 +111,7 @@ public class FarmServiceImpl implements FarmService {
     @Transactional(readOnly = true)
     public List<FarmResponseDto> getFarmsByOwner(Long ownerId) {
         List<Farm> farms = farmRepository.findByOwnerId(ownerId);
-        return farms.stream().map(this::toResponseDto).toList();
+        return farmListingReadModel.toResponseDtos(farms);
     }
 
     @Override
@@ -120,7 +129,7 @@ public class FarmServiceImpl implements FarmService {
             farms = farmRepository.findByIsSellingTrue();
         }
 
-        return farms.stream().map(this::toResponseDto).toList();
+        return farmListingReadModel.toResponseDtos(farms);
     }
 
     @Override
@@ -131,7 +140,7 @@ public class FarmServiceImpl implements FarmService {
             throw new IllegalArgumentException("User is not a WORKER");
         }
         java.util.List<Farm> farms = farmRepository.findByWorkers_Id(workerId);
-        return farms.stream().map(this::toResponseDto).toList();
+        return farmListingReadModel.toResponseDtos(farms);
     }
 
     @Override
@@ -152,6 +161,7 @@ public class FarmServiceImpl implements FarmService {
         farm.setGoatPrice(DEFAULT_MILK_PRICE);
 
         Farm saved = farmRepository.save(farm);
+        principalCache.evict(loggedInUser);
         return toResponseDto(saved);
     }
 
@@ -196,13 +206,12 @@ public class FarmServiceImpl implements FarmService {
     @Override
     public List<FarmResponseDto> getMyFarms(User loggedInUser) {
         if (loggedInUser.getRole() == UserRole.FARM_OWNER) {
-            return farmRepository.findByOwnerId(loggedInUser.getId())
-                    .stream().map(this::toResponseDto).toList();
+            return farmListingReadModel.toResponseDtos(farmRepository.findByOwnerId(loggedInUser.getId()));
         }
 
         if (loggedInUser.getRole() == UserRole.WORKER) {
             java.util.List<Farm> farms = farmRepository.findByWorkers_Id(loggedInUser.getId());
-            return farms.stream().map(this::toResponseDto).toList();
+            return farmListingReadModel.toResponseDtos(farms);
         }
 
         return List.of();
@@ -210,9 +219,13 @@ public class FarmServiceImpl implements FarmService {
 
     @Override
     public void deleteFarm(Long id) {
-        if (!farmRepository.existsById(id)) {
-            throw new IllegalArgumentException("Farm not found");
-        }
+        Farm farm = farmRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Farm not found"));
+
+        // Owner and workers lose this farm from their cached principals
+        principalCache.evict(farm.getOwner());
+        farmWorkerRepository.findByFarmId(id).forEach(fw -> principalCache.evict(fw.getWorker()));
+
         farmRepository.deleteById(id);
     }
 
@@ -226,52 +239,7 @@ public class FarmServiceImpl implements FarmService {
 
     // ---------- helper ----------
     private FarmResponseDto toResponseDto(Farm farm) {
-        FarmResponseDto dto = modelMapper.map(farm, FarmResponseDto.class);
-        dto.setOwnerId(farm.getOwner().getId());
-        dto.setPricePerLiter(farm.getPricePerLiter() != null ? farm.getPricePerLiter() : 0.0);
-
-        // Use MilkInventoryService for consistency
-        Double todayMilk = milkInventoryService.getTodayTotal(farm.getId());
-        dto.setTodayMilk(todayMilk != null ? todayMilk : 0.0);
-
-        // Calculate available (Today - All Allocations)
-        java.time.LocalDate today = java.time.LocalDate.now();
-        com.example.backend.DTO.MilkAvailabilityDto morningReq = milkInventoryService.getAvailability(farm.getId(), today,
-                com.example.backend.Entity.type.MilkSession.MORNING);
-        com.example.backend.DTO.MilkAvailabilityDto eveningReq = milkInventoryService.getAvailability(farm.getId(), today,
-                com.example.backend.Entity.type.MilkSession.EVENING);
-        
-        double availMilk = 0.0;
-        double cowAvail = 0.0;
-        double buffaloAvail = 0.0;
-        double sheepAvail = 0.0;
-        double goatAvail = 0.0;
-        
-        if (morningReq != null) {
-            availMilk += morningReq.getAvailableMilk() != null ? morningReq.getAvailableMilk() : 0.0;
-            cowAvail += morningReq.getCowAvailableMilk() != null ? morningReq.getCowAvailableMilk() : 0.0;
-            buffaloAvail += morningReq.getBuffaloAvailableMilk() != null ? morningReq.getBuffaloAvailableMilk() : 0.0;
-        }
-        if (eveningReq != null) {
-            availMilk += eveningReq.getAvailableMilk() != null ? eveningReq.getAvailableMilk() : 0.0;
-            cowAvail += eveningReq.getCowAvailableMilk() != null ? eveningReq.getCowAvailableMilk() : 0.0;
-            buffaloAvail += eveningReq.getBuffaloAvailableMilk() != null ? eveningReq.getBuffaloAvailableMilk() : 0.0;
-        }
-        
-        dto.setAvailableMilk(availMilk);
-        dto.setCowAvailableMilk(cowAvail);
-        dto.setBuffaloAvailableMilk(buffaloAvail);
-        dto.setSheepAvailableMilk(sheepAvail);
-        dto.setGoatAvailableMilk(goatAvail);
-
-        // Populate herd and worker counts
-        dto.setHerdCount(cattleRepository.countByFarmId(farm.getId()));
-        long workerCount = farmWorkerRepository.findByFarmId(farm.getId()).stream()
-                .filter(fw -> fw.getWorker().getRole() == UserRole.WORKER).count();
-        dto.setWorkerCount(workerCount);
-        dto.setSelling(farm.isSelling());
-
-        return dto;
+        return farmListingReadModel.toResponseDtos(List.of(farm)).get(0);
     }
 
     private final com.example.backend.Repository.MilkInventoryRepository milkInventoryRepository;
@@ -338,6 +306,7 @@ public class FarmServiceImpl implements FarmService {
                 fws.setShed(shed);
                 farmWorkerShedRepository.save(fws);
             }
+            eventPublisher.publishEvent(FarmLiveEvent.of(farmId, LiveEventType.HERD_CHANGED));
         }
 
         return modelMapper.map(saved, com.example.backend.DTO.UserResponseDto.class);
@@ -345,50 +314,25 @@ public class FarmServiceImpl implements FarmService {
 
     @Override
     @Transactional(readOnly = true)
-    public java.util.List<com.example.backend.DTO.ShedStatusDto> getShedStatus(Long farmId, User loggedInUser) {
+    public java.util.List<com.example.backend.DTO.ShedStatusDto> getShedStatus(Long farmId, MilkSession session, User loggedInUser) {
         Farm farm = farmRepository.findById(farmId)
                 .orElseThrow(() -> new IllegalArgumentException("Farm not found"));
         if (!farm.getOwner().getId().equals(loggedInUser.getId())) {
             throw new IllegalArgumentException("Only farm owner can view shed status");
         }
+        return milkingProgressBoard.shedStatus(farmId, session != null ? session : MilkSession.ALL);
+    }
 
-        java.util.List<com.example.backend.Entity.Cattle> allCattle = cattleRepository.findByFarmId(farmId);
-        
-        java.time.LocalDate today = java.time.LocalDate.now();
-        java.util.List<com.example.backend.Entity.CattleMilkEntry> todayEntriesRaw = cattleMilkEntryRepository.findByFarm_IdAndRecordDate(farmId, today);
-        java.util.Set<Long> milkedCattleIds = todayEntriesRaw.stream().map(e -> e.getCattle().getId()).collect(java.util.stream.Collectors.toSet());
-
-        java.util.List<FarmWorker> farmWorkers = farmWorkerRepository.findByFarmId(farmId);
-        java.util.Map<String, String> shedToWorkerMap = new java.util.HashMap<>();
-        for (FarmWorker fw : farmWorkers) {
-            if (fw.getWorker().getRole() == UserRole.WORKER) {
-                java.util.List<com.example.backend.Entity.Shed> workerSheds = farmWorkerShedRepository
-                        .findByFarmWorkerId(fw.getId())
-                        .stream()
-                        .map(com.example.backend.Entity.FarmWorkerShed::getShed)
-                        .toList();
-                for (com.example.backend.Entity.Shed shed : workerSheds) {
-                    shedToWorkerMap.merge(shed.getName(), fw.getWorker().getName(), (a, b) -> a + ", " + b);
-                }
-            }
-        }
-
-        java.util.Map<String, com.example.backend.DTO.ShedStatusDto> shedStats = new java.util.HashMap<>();
-        for (com.example.backend.Entity.Cattle c : allCattle) {
-            if (c.getStatus() == null || !"ACTIVE".equalsIgnoreCase(c.getStatus())) {
-                continue;
-            }
-            String shed = c.getShed() != null ? c.getShed().getName() : "Unassigned";
-            com.example.backend.DTO.ShedStatusDto stat = shedStats.computeIfAbsent(shed, s -> new com.example.backend.DTO.ShedStatusDto(s, 0, 0, 0, shedToWorkerMap.getOrDefault(s, "Unassigned")));
-            stat.setTotalCattle(stat.getTotalCattle() + 1);
-            if (milkedCattleIds.contains(c.getId())) {
-                stat.setMilkedCattle(stat.getMilkedCattle() + 1);
-            } else {
-                stat.setRemainingCattle(stat.getRemainingCattle() + 1);
-            }
-        }
-
-        return new java.util.ArrayList<>(shedStats.values());
+    @Override
+    @Transactional(readOnly = true)
+    public java.util.List<RemainingCattleDto> getRemainingCattle(Long farmId, MilkSession session, User loggedInUser) {
+        farmAccessService.verifyFarmAccess(loggedInUser, farmId);
+        if (session == null) {
+            session = java.time.LocalTime.now().getHour() < 12 ? MilkSession.MORNING : MilkSession.EVENING;
+        }
+        // Workers see their own sheds; the owner sees the whole farm
+        Long workerId = loggedInUser.getRole() == UserRole.WORKER ? loggedInUser.getId() : null;
+        return milkingProgressBoard.remainingCattle(farmId, session, workerId);
     }
 
     @Override
@@ -427,6 +371,7 @@ public class FarmServiceImpl implements FarmService {
                 farmWorkerShedRepository.save(fws);
             }
         }
+        eventPublisher.publishEvent(FarmLiveEvent.of(farmId, LiveEventType.HERD_CHANGED));
     }
 
     @Override
@@ -500,6 +445,7 @@ public class FarmServiceImpl implements FarmService {
                 assignment.setFarm(invitation.getFarm());
                 assignment.setWorker(loggedInUser);
                 farmWorkerRepository.save(assignment);
+                principalCache.evict(loggedInUser);
             }
         } else {
             invitation.setStatus(InvitationStatus.DECLINED);
@@ -545,6 +491,8 @@ public class FarmServiceImpl implements FarmService {
 
         // Delete the farm-worker link
         farmWorkerRepository.delete(farmWorker);
+        principalCache.evict(farmWorker.getWorker());
+        eventPublisher.publishEvent(FarmLiveEvent.of(farmId, LiveEventType.HERD_CHANGED));
     }
 
     private WorkerFarmInvitationDto toInvitationDto(WorkerFarmInvitation inv) {
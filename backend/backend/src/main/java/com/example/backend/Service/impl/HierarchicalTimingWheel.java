@@ -0,0 +1,118 @@
+package com.example.backend.Service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: O(1) insert, amortised O(1) expiry per item.
+ * <p>
+ * Level 0 has one slot per tick; each higher level covers {@code slots} times the span of
+ * the one below. An item goes to the lowest level whose span covers its distance and is
+ * cascaded down when the wheel reaches the start of its slot, so it expires in the tick
+ * its deadline falls into. Items beyond the top level are parked in its farthest slot and
+ * re-placed each revolution. Not thread-safe; callers synchronize.
+ */
+public final class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final List<List<Entry<T>>[]> levels = new ArrayList<>();
+    private final List<T> overdue = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis resolution; deadlines are rounded up to the next tick
+     * @param slotsBits  log2 of the slots per level
+     * @param levelCount number of levels
+     * @param nowMillis  wall-clock time the wheel starts at
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int slotsBits, int levelCount, long nowMillis) {
+        if (tickMillis <= 0 || slotsBits <= 0 || levelCount <= 0 || slotsBits * levelCount > 62) {
+            throw new IllegalArgumentException("Invalid timing wheel dimensions");
+        }
+        this.tickMillis = tickMillis;
+        this.bits = slotsBits;
+        this.mask = (1 << slotsBits) - 1;
+        for (int level = 0; level < levelCount; level++) {
+            List<Entry<T>>[] slots = new List[1 << slotsBits];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = new ArrayList<>();
+            }
+            levels.add(slots);
+        }
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+    }
+
+    /** Adds an item; one whose deadline has already passed is returned by the next {@link #advance}. */
+    public void add(T item, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        size++;
+        if (deadlineTick <= currentTick) {
+            overdue.add(item);
+        } else {
+            place(new Entry<>(item, deadlineTick));
+        }
+    }
+
+    /** Moves the wheel to {@code nowMillis} and returns every item due by then. */
+    public List<T> advance(long nowMillis) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        List<T> due = new ArrayList<>(overdue);
+        overdue.clear();
+        while (currentTick < target) {
+            currentTick++;
+            // Cascade from the top so items land in lower slots before those are read
+            for (int level = levels.size() - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (level * bits)) - 1)) == 0) {
+                    cascade(level);
+                }
+            }
+            List<Entry<T>>[] wheel = levels.get(0);
+            int slot = (int) (currentTick & mask);
+            for (Entry<T> entry : wheel[slot]) {
+                due.add(entry.item());
+            }
+            wheel[slot] = new ArrayList<>();
+        }
+        size -= due.size();
+        return due;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long tickMillis() {
+        return tickMillis;
+    }
+
+    // An entry reaches its slot no later than its deadline tick, so re-placing never lands in the past
+    private void cascade(int level) {
+        List<Entry<T>>[] wheel = levels.get(level);
+        int slot = (int) ((currentTick >>> (level * bits)) & mask);
+        List<Entry<T>> entries = wheel[slot];
+        wheel[slot] = new ArrayList<>();
+        entries.forEach(this::place);
+    }
+
+    private void place(Entry<T> entry) {
+        long distance = entry.deadlineTick() - currentTick;
+        int top = levels.size() - 1;
+        for (int level = 0; level <= top; level++) {
+            if (level == top || distance < (1L << ((level + 1) * bits))) {
+                long deadline = level == top && distance >= (1L << ((level + 1) * bits))
+                        ? currentTick + (1L << ((level + 1) * bits)) - 1
+                        : entry.deadlineTick();
+                int slot = (int) ((deadline >>> (level * bits)) & mask);
+                levels.get(level)[slot].add(entry);
+                return;
+            }
+        }
+    }
+
+    private record Entry<T>(T item, long deadlineTick) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.backend.Service.impl;
+
+import com.example.backend.Repository.JobLeaseRepository;
+import com.example.backend.Service.JobLeaseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class JobLeaseServiceImpl implements JobLeaseService {
+
+    private static final String OWNER_ID =
+            System.getenv().getOrDefault("HOSTNAME", "node") + "-" + UUID.randomUUID();
+
+    private final JobLeaseRepository jobLeaseRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryAcquire(String name, Duration ttl) {
+        jobLeaseRepository.ensureExists(name);
+        LocalDateTime now = LocalDateTime.now();
+        return jobLeaseRepository.tryAcquire(name, OWNER_ID, now, now.plus(ttl)) == 1;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(String name) {
+        jobLeaseRepository.release(name, OWNER_ID, LocalDateTime.now());
+    }
+
+    @Override
+    public String ownerId() {
+        return OWNER_ID;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.backend.Service.impl;
+
+import com.example.backend.DTO.FarmLiveEvent;
+import com.example.backend.Entity.User;
+import com.example.backend.Service.FarmAccessService;
+import com.example.backend.Service.LiveDashboardService;
+import com.example.backend.Service.MilkInventoryService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent events per farm.
+ * <p>
+ * Services publish {@link FarmLiveEvent}s inside their transactions; after commit they
+ * are published once on a Redis channel, and every replica (this one included) delivers
+ * what it receives to the emitters it holds for that farm. Open dashboards cost a map
+ * entry and a heartbeat between events; nothing polls the database. If Redis is
+ * unavailable, events still reach the dashboards connected to this replica.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LiveDashboardServiceImpl implements LiveDashboardService {
+
+    private final FarmAccessService farmAccessService;
+    private final MilkInventoryService milkInventoryService;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.live.channel:farm-live-events}")
+    private String channel;
+
+    @Value("${app.live.emitter-timeout:30m}")
+    private Duration emitterTimeout;
+
+    @Value("${app.live.max-connections:10000}")
+    private int maxConnections;
+
+    private final Map<Long, Set<SseEmitter>> emittersByFarm = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    @PostConstruct
+    void init() {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> receive(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(channel));
+    }
+
+    @Override
+    public SseEmitter subscribe(Long farmId, User user) {
+        farmAccessService.verifyFarmAccess(user, farmId);
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new IllegalStateException("Too many live connections, please retry later");
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        // Add and remove under the map's lock so an emptied set is never dropped while another
+        // subscriber is joining it
+        emittersByFarm.compute(farmId, (id, set) -> {
+            Set<SseEmitter> emitters = set != null ? set : ConcurrentHashMap.newKeySet();
+            emitters.add(emitter);
+            return emitters;
+        });
+
+        Runnable remove = () -> emittersByFarm.computeIfPresent(farmId, (id, set) -> {
+            if (set.remove(emitter)) {
+                connections.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(ex -> remove.run());
+
+        // Snapshot from the breakdown cache so the dashboard needs no initial poll
+        send(emitter, SseEmitter.event().name("SNAPSHOT").data(milkInventoryService.getTodayBreakdown(farmId)));
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommitted(FarmLiveEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            log.warn("Could not serialise live event {}: {}", event.type(), ex.getMessage());
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(channel, payload);
+        } catch (RuntimeException ex) {
+            log.debug("Live event not published to Redis, delivering locally: {}", ex.getMessage());
+            deliver(event);
+        }
+    }
+
+    private void receive(String payload) {
+        try {
+            deliver(objectMapper.readValue(payload, FarmLiveEvent.class));
+        } catch (IOException ex) {
+            log.warn("Ignoring malformed live event message");
+        }
+    }
+
+    private void deliver(FarmLiveEvent event) {
+        Set<SseEmitter> emitters = emittersByFarm.get(event.farmId());
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            send(emitter, SseEmitter.event().name(event.type().name()).data(event));
+        }
+    }
+
+    // Keeps idle connections open through proxies and finds clients that went away
+    @Scheduled(fixedDelayString = "${app.live.heartbeat-interval:25s}")
+    public void heartbeat() {
+        emittersByFarm.values().forEach(emitters -> emitters.forEach(emitter ->
+                send(emitter, SseEmitter.event().comment("ping"))));
+    }
+
+    private static void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException ex) {
+            // Client gone; completion callbacks drop the emitter
+            emitter.completeWithError(ex);
+        }
+    }
+}
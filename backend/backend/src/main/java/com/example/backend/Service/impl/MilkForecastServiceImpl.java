@@ -0,0 +1,338 @@
+package com.example.backend.Service.impl;
+
+import com.example.backend.DTO.ForecastAccuracyDto;
+import com.example.backend.DTO.MilkForecastDto;
+import com.example.backend.Entity.Farm;
+import com.example.backend.Entity.FarmDailyConditions;
+import com.example.backend.Entity.ForecastAccuracy;
+import com.example.backend.Entity.MilkForecast;
+import com.example.backend.Entity.User;
+import com.example.backend.Repository.FarmDailyConditionsRepository;
+import com.example.backend.Repository.FarmRepository;
+import com.example.backend.Repository.ForecastAccuracyRepository;
+import com.example.backend.Repository.MilkForecastRepository;
+import com.example.backend.Repository.MilkInventoryRepository;
+import com.example.backend.Service.FarmAccessService;
+import com.example.backend.Service.JobLeaseService;
+import com.example.backend.Service.MilkForecastService;
+import com.example.backend.Service.forecast.BacktestResult;
+import com.example.backend.Service.forecast.ForecastMethod;
+import com.example.backend.Service.forecast.TrainingSeries;
+import com.example.backend.Service.forecast.WalkForwardBacktester;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Nightly training of every {@link ForecastMethod} for every farm.
+ * <p>
+ * Before forecasting, each method is scored by a walk-forward backtest on the same
+ * series and origins ({@link WalkForwardBacktester}); the one with the lowest MAE is flagged best in
+ * {@code forecast_accuracy} and served when no method is requested.
+ * <p>
+ * Farms are split recursively over a dedicated fork-join pool. Each leaf loads one
+ * farm's lookback window (daily totals and conditions), runs the methods and replaces
+ * that farm's future predictions in its own transaction, so memory stays at
+ * {@code parallelism} farm windows however many farms there are, and one failing farm
+ * does not affect the others. Only the replica holding the {@code job_lease} trains.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MilkForecastServiceImpl implements MilkForecastService {
+
+    private static final String LEASE_NAME = "milk-forecast-training";
+    private static final String ALL_METHODS = "ALL";
+
+    private final FarmRepository farmRepository;
+    private final MilkInventoryRepository milkInventoryRepository;
+    private final FarmDailyConditionsRepository farmDailyConditionsRepository;
+    private final MilkForecastRepository milkForecastRepository;
+    private final ForecastAccuracyRepository forecastAccuracyRepository;
+    private final List<ForecastMethod> forecastMethods;
+    private final FarmAccessService farmAccessService;
+    private final JobLeaseService jobLeaseService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.forecast.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.forecast.horizon-days:7}")
+    private int horizonDays;
+
+    @Value("${app.forecast.lookback-days:180}")
+    private int lookbackDays;
+
+    @Value("${app.forecast.backtest.folds:8}")
+    private int backtestFolds;
+
+    @Value("${app.forecast.backtest.step-days:7}")
+    private int backtestStepDays;
+
+    @Value("${app.forecast.lease-ttl:30m}")
+    private Duration leaseTtl;
+
+    @Override
+    @Scheduled(cron = "${app.forecast.cron:0 30 1 * * *}")
+    public void trainAll() {
+        if (!jobLeaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+            log.info("Forecast training skipped: lease held by another replica");
+            return;
+        }
+        try {
+            List<Long> farmIds = farmRepository.findAllIds();
+            LocalDate today = LocalDate.now();
+            AtomicInteger trained = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+            long started = System.nanoTime();
+
+            ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+            try {
+                pool.invoke(new TrainFarms(farmIds, 0, farmIds.size(), today, trained, failed));
+            } finally {
+                pool.shutdown();
+            }
+
+            log.info("Trained forecasts for {} of {} farms ({} failed) in {} ms",
+                    trained.get(), farmIds.size(), failed.get(),
+                    Duration.ofNanos(System.nanoTime() - started).toMillis());
+        } finally {
+            jobLeaseService.release(LEASE_NAME);
+        }
+    }
+
+    /**
+     * Trains once on first start so forecasts exist before the first nightly run.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void trainIfEmpty() {
+        if (milkForecastRepository.count() == 0 && milkInventoryRepository.count() > 0) {
+            trainAll();
+        }
+    }
+
+    @Override
+    public List<MilkForecastDto> getForecast(Long farmId, String method, User user) {
+        farmAccessService.verifyFarmAccess(user, farmId);
+        LocalDate today = LocalDate.now();
+
+        String name = method == null || method.isBlank()
+                ? forecastAccuracyRepository.findFirstByFarm_IdAndBestTrue(farmId)
+                        .map(ForecastAccuracy::getMethod)
+                        .orElse(ALL_METHODS)
+                : method.trim().toUpperCase(Locale.ROOT);
+
+        List<MilkForecast> rows;
+        if (ALL_METHODS.equals(name)) {
+            rows = milkForecastRepository
+                    .findByFarm_IdAndForecastDateGreaterThanEqualOrderByForecastDateAscMethodAsc(farmId, today);
+        } else {
+            if (forecastMethods.stream().noneMatch(m -> m.name().equals(name))) {
+                throw new IllegalArgumentException("Unknown forecast method: " + method);
+            }
+            rows = milkForecastRepository
+                    .findByFarm_IdAndMethodAndForecastDateGreaterThanEqualOrderByForecastDateAsc(farmId, name, today);
+        }
+
+        return rows.stream()
+                .map(f -> MilkForecastDto.builder()
+                        .date(f.getForecastDate())
+                        .predictedLiters(f.getPredictedLiters())
+                        .method(f.getMethod())
+                        .generatedAt(f.getGeneratedAt())
+                        .build())
+                .toList();
+    }
+
+    @Override
+    public List<ForecastAccuracyDto> getAccuracy(Long farmId, User user) {
+        farmAccessService.verifyFarmAccess(user, farmId);
+        return forecastAccuracyRepository.findByFarm_IdOrderByMaeAsc(farmId)
+                .stream()
+                .map(a -> ForecastAccuracyDto.builder()
+                        .method(a.getMethod())
+                        .mae(a.getMae())
+                        .mape(a.getMape())
+                        .folds(a.getFolds())
+                        .evaluatedDays(a.getEvaluatedDays())
+                        .best(a.isBest())
+                        .evaluatedAt(a.getEvaluatedAt())
+                        .build())
+                .toList();
+    }
+
+    private boolean trainFarm(Long farmId, LocalDate today) {
+        TrainingSeries series = loadSeries(farmId, today);
+        if (series == null) {
+            return false;
+        }
+
+        // Models run outside the transaction; only the replace is transactional
+        Map<String, double[]> predictions = new LinkedHashMap<>();
+        List<ForecastMethod> trained = new ArrayList<>();
+        for (ForecastMethod method : forecastMethods) {
+            if (series.length() < method.minHistoryDays()) {
+                continue;
+            }
+            predictions.put(method.name(), method.forecast(series, horizonDays));
+            trained.add(method);
+        }
+        // Scored on the same origins so the MAEs are comparable
+        List<BacktestResult> backtests = WalkForwardBacktester.evaluateAll(
+                trained, series, horizonDays, backtestFolds, backtestStepDays);
+        String best = WalkForwardBacktester.best(backtests).map(BacktestResult::method).orElse(null);
+
+        LocalDateTime generatedAt = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            milkForecastRepository.deleteFromDate(farmId, today);
+            Farm farm = farmRepository.getReferenceById(farmId);
+            List<MilkForecast> rows = new ArrayList<>(predictions.size() * horizonDays);
+            predictions.forEach((name, values) -> {
+                for (int h = 0; h < values.length; h++) {
+                    rows.add(MilkForecast.builder()
+                            .farm(farm)
+                            .forecastDate(today.plusDays(h))
+                            .predictedLiters(values[h])
+                            .method(name)
+                            .generatedAt(generatedAt)
+                            .build());
+                }
+            });
+            milkForecastRepository.saveAll(rows);
+
+            forecastAccuracyRepository.deleteByFarm(farmId);
+            forecastAccuracyRepository.saveAll(backtests.stream()
+                    .map(r -> ForecastAccuracy.builder()
+                            .farm(farm)
+                            .method(r.method())
+                            .mae(r.mae())
+                            .mape(r.mape())
+                            .folds(r.folds())
+                            .evaluatedDays(r.points())
+                            .best(r.method().equals(best))
+                            .evaluatedAt(generatedAt)
+                            .build())
+                    .toList());
+        });
+        return true;
+    }
+
+    /**
+     * Daily totals up to yesterday (today is still being recorded), starting at the
+     * farm's first recorded day inside the lookback window. Null when there is none.
+     */
+    private TrainingSeries loadSeries(Long farmId, LocalDate today) {
+        LocalDate from = today.minusDays(lookbackDays);
+        LocalDate to = today.minusDays(1);
+
+        Map<LocalDate, Double> totals = new HashMap<>();
+        LocalDate first = null;
+        for (Object[] row : milkInventoryRepository.findDailyTotals(farmId, from)) {
+            LocalDate date = (LocalDate) row[0];
+            if (date.isAfter(to)) {
+                continue;
+            }
+            totals.put(date, row[1] == null ? 0.0 : ((Number) row[1]).doubleValue());
+            if (first == null || date.isBefore(first)) {
+                first = date;
+            }
+        }
+        if (first == null) {
+            return null;
+        }
+
+        Map<LocalDate, FarmDailyConditions> conditionsByDate = new HashMap<>();
+        for (FarmDailyConditions c : farmDailyConditionsRepository
+                .findByFarm_IdAndRecordDateBetweenOrderByRecordDateAsc(farmId, from, to)) {
+            conditionsByDate.put(c.getRecordDate(), c);
+        }
+
+        int days = (int) ChronoUnit.DAYS.between(first, to) + 1;
+        double[] liters = new double[days];
+        double[][] conditions = new double[days][];
+        double[] current = new double[TrainingSeries.CONDITION_FEATURES];
+        for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+            FarmDailyConditions c = conditionsByDate.get(d);
+            if (c != null) {
+                current = carryForward(current, c);
+            }
+            if (!d.isBefore(first)) {
+                int t = (int) ChronoUnit.DAYS.between(first, d);
+                liters[t] = totals.getOrDefault(d, 0.0);
+                conditions[t] = current;
+            }
+        }
+        return new TrainingSeries(first, liters, conditions);
+    }
+
+    private static double[] carryForward(double[] previous, FarmDailyConditions c) {
+        double[] next = previous.clone();
+        if (c.getCowCount() != null) next[0] = c.getCowCount();
+        if (c.getFeedIntake() != null) next[1] = c.getFeedIntake();
+        if (c.getWaterIntake() != null) next[2] = c.getWaterIntake();
+        if (c.getTemperature() != null) next[3] = c.getTemperature();
+        if (c.getHumidity() != null) next[4] = c.getHumidity();
+        if (c.getVetVisits() != null) next[5] = c.getVetVisits();
+        return next;
+    }
+
+    private final class TrainFarms extends RecursiveAction {
+
+        private final List<Long> farmIds;
+        private final int from;
+        private final int to;
+        private final LocalDate today;
+        private final AtomicInteger trained;
+        private final AtomicInteger failed;
+
+        private TrainFarms(List<Long> farmIds, int from, int to, LocalDate today,
+                           AtomicInteger trained, AtomicInteger failed) {
+            this.farmIds = farmIds;
+            this.from = from;
+            this.to = to;
+            this.today = today;
+            this.trained = trained;
+            this.failed = failed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (to > from) {
+                    Long farmId = farmIds.get(from);
+                    try {
+                        if (trainFarm(farmId, today)) {
+                            trained.incrementAndGet();
+                        }
+                    } catch (RuntimeException ex) {
+                        failed.incrementAndGet();
+                        log.warn("Forecast training failed for farm {}: {}", farmId, ex.getMessage());
+                    }
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new TrainFarms(farmIds, from, mid, today, trained, failed),
+                    new TrainFarms(farmIds, mid, to, today, trained, failed));
+        }
+    }
+}
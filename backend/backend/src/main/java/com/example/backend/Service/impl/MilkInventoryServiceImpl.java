@@ -1,22 +1,34 @@
 package com.example.backend.Service.impl;
 
+import com.example.backend.DTO.AddMilkBatchRequestDto;
 import com.example.backend.DTO.AddMilkInventoryRequestDto;
+import com.example.backend.DTO.FarmLiveEvent;
+import com.example.backend.DTO.MilkBatchEntryDto;
+import com.example.backend.DTO.MilkBatchResultDto;
+import com.example.backend.DTO.MilkBatchRowResultDto;
 import com.example.backend.DTO.MilkAvailabilityDto;
 import com.example.backend.DTO.MilkHistoryDto;
 import com.example.backend.DTO.MilkTypeHistoryDto;
 import com.example.backend.DTO.TodayMilkBreakdownDto;
 import com.example.backend.DTO.TodayMilkEntryDto;
 import com.example.backend.Entity.*;
+import com.example.backend.Entity.type.HistoryGranularity;
+import com.example.backend.Entity.type.LiveEventType;
 import com.example.backend.Entity.type.MilkSession;
 import com.example.backend.Entity.type.UserRole;
+import com.example.backend.Repository.CattleMilkEntryBatchRepository;
 import com.example.backend.Repository.CattleMilkEntryRepository;
 import com.example.backend.Repository.CattleRepository;
 import com.example.backend.Repository.FarmRepository;
 import com.example.backend.Repository.MilkAllocationRepository;
 import com.example.backend.Repository.MilkInventoryRepository;
+import com.example.backend.Service.FarmAvailabilityService;
 import com.example.backend.Service.MilkInventoryService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,16 +36,34 @@ import java.time.LocalDate;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 @Transactional
 public class MilkInventoryServiceImpl implements MilkInventoryService {
 
+    private static final double RECONCILE_TOLERANCE = 0.0001;
+    private static final int MAX_BATCH_ENTRIES = 1000;
+
+    private static final String BATCH_SAVED = "SAVED";
+    private static final String BATCH_DUPLICATE = "DUPLICATE";
+    private static final String BATCH_UNKNOWN_TAG = "UNKNOWN_TAG";
+    private static final String BATCH_INACTIVE = "INACTIVE";
+    private static final String BATCH_INVALID = "INVALID";
+
     private final CattleRepository cattleRepository;
     private final MilkInventoryRepository milkInventoryRepository;
     private final CattleMilkEntryRepository cattleMilkEntryRepository;
     private final FarmRepository farmRepository;
     private final MilkAllocationRepository milkAllocationRepository;
-    private final com.example.backend.Repository.OrdersRepository ordersRepository;
     private final com.example.backend.Repository.FarmWorkerRepository farmWorkerRepository;
+    private final CattleMilkEntryBatchRepository cattleMilkEntryBatchRepository;
+    private final com.example.backend.Repository.FarmDailyAvailabilityRepository farmDailyAvailabilityRepository;
+    private final FarmAvailabilityService farmAvailabilityService;
+    private final com.example.backend.Service.CattleYieldStatsService cattleYieldStatsService;
+
+    private final org.springframework.context.ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.milk.inventory.reconcile-days:2}")
+    private int reconcileDays;
 
         @Override
         @org.springframework.cache.annotation.Caching(evict = {
@@ -42,29 +72,7 @@ public class MilkInventoryServiceImpl implements MilkInventoryService {
         public void addTodayMilk(AddMilkInventoryRequestDto dto, User loggedInUser) {
 
                 // 1. Resolve farm from logged-in user (DO NOT trust request)
-                Farm farm;
-
-                if (loggedInUser.getRole() == UserRole.WORKER) {
-
-                        java.util.Optional<com.example.backend.Entity.FarmWorker> assignment = farmWorkerRepository
-                                        .findByFarmIdAndWorkerId(dto.getFarmId(), loggedInUser.getId());
-                        if (!assignment.isPresent()) {
-                                throw new RuntimeException("Worker not assigned to this farm");
-                        }
-
-                        farm = farmRepository
-                                        .findById(dto.getFarmId())
-                                        .orElseThrow(() -> new RuntimeException("Farm not found"));
-
-                } else if (loggedInUser.getRole() == UserRole.FARM_OWNER) {
-
-                        farm = farmRepository
-                                        .findByIdAndOwnerId(dto.getFarmId(), loggedInUser.getId())
-                                        .orElseThrow(() -> new RuntimeException("Farm does not belong to owner"));
-
-                } else {
-                        throw new RuntimeException("Unauthorized role");
-                }
+                Farm farm = resolveFarmForEntry(dto.getFarmId(), loggedInUser);
 
                 // 2. Find cattle using farm + tagId (correct way)
                 Cattle cattle = cattleRepository
@@ -100,27 +108,235 @@ public class MilkInventoryServiceImpl implements MilkInventoryService {
                                 .build();
 
                 cattleMilkEntryRepository.save(entry);
+                cattleYieldStatsService.recordEntries(java.util.List.of(entry));
+
+                // 5. Apply this entry to the farm-level inventory (AGGREGATED DATA)
+                applyMilkDelta(farm, today, dto.getSession(), dto.getMilkLiters(), loggedInUser);
+                farmAvailabilityService.recordProduction(farm.getId(), today, dto.getSession(), cattle.getType(),
+                                dto.getMilkLiters() != null ? dto.getMilkLiters() : 0.0);
+
+                eventPublisher.publishEvent(FarmLiveEvent.of(farm.getId(), LiveEventType.MILK_RECORDED,
+                                "entries", 1,
+                                "date", today.toString(),
+                                "tagId", cattle.getTagId(),
+                                "cattleIdsBySession", java.util.Map.of(dto.getSession().name(),
+                                                java.util.List.of(cattle.getId())),
+                                "animalType", FarmAvailabilityService.normalizeAnimalType(cattle.getType()),
+                                "shedId", cattle.getShed() != null ? cattle.getShed().getId() : null,
+                                "litersBySession", java.util.Map.of(dto.getSession().name(),
+                                                dto.getMilkLiters() != null ? dto.getMilkLiters() : 0.0)));
+        }
+
+        @Override
+        @org.springframework.cache.annotation.Caching(evict = {
+                        @org.springframework.cache.annotation.CacheEvict(value = "todayMilkBreakdown", key = "#dto.farmId")
+        })
+        public MilkBatchResultDto addTodayMilkBatch(AddMilkBatchRequestDto dto, User loggedInUser) {
+                java.util.List<MilkBatchEntryDto> rows = dto.getEntries() != null ? dto.getEntries() : java.util.List.of();
+                if (rows.isEmpty()) {
+                        throw new IllegalArgumentException("Batch contains no milk entries");
+                }
+                if (rows.size() > MAX_BATCH_ENTRIES) {
+                        throw new IllegalArgumentException("A batch may contain at most " + MAX_BATCH_ENTRIES + " milk entries");
+                }
+
+                // Farm and worker assignment are resolved once for the whole batch
+                Farm farm = resolveFarmForEntry(dto.getFarmId(), loggedInUser);
+                LocalDate today = LocalDate.now();
+
+                // One query for every scanned tag
+                java.util.Set<String> tagIds = new java.util.HashSet<>();
+                for (MilkBatchEntryDto row : rows) {
+                        if (row != null && row.getTagId() != null && !row.getTagId().isBlank()) {
+                                tagIds.add(row.getTagId().trim());
+                        }
+                }
+                java.util.Map<String, Cattle> cattleByTag = new java.util.HashMap<>();
+                if (!tagIds.isEmpty()) {
+                        for (Cattle cattle : cattleRepository.findByFarmIdAndTagIdIn(farm.getId(), tagIds)) {
+                                cattleByTag.put(cattle.getTagId(), cattle);
+                        }
+                }
+
+                // One query for everything already recorded today for these cattle
+                java.util.Set<String> recorded = new java.util.HashSet<>();
+                if (!cattleByTag.isEmpty()) {
+                        java.util.List<Long> cattleIds = cattleByTag.values().stream().map(Cattle::getId).toList();
+                        for (Object[] r : cattleMilkEntryRepository.findRecordedSessions(farm.getId(), today, cattleIds)) {
+                                recorded.add(r[0] + "|" + r[1]);
+                        }
+                }
+
+                java.util.List<CattleMilkEntry> toInsert = new java.util.ArrayList<>();
+                java.util.Map<MilkSession, Double> litersBySession = new java.util.EnumMap<>(MilkSession.class);
+                java.util.Map<MilkSession, java.util.Map<String, Double>> litersByType = new java.util.EnumMap<>(MilkSession.class);
+                java.util.List<MilkBatchRowResultDto> results = new java.util.ArrayList<>(rows.size());
+
+                for (int i = 0; i < rows.size(); i++) {
+                        MilkBatchEntryDto row = rows.get(i);
+                        String tagId = row != null && row.getTagId() != null ? row.getTagId().trim() : null;
+                        MilkSession session = row != null ? row.getSession() : null;
+
+                        String rejection = null;
+                        String status = BATCH_SAVED;
+                        Cattle cattle = tagId != null ? cattleByTag.get(tagId) : null;
+
+                        if (tagId == null || tagId.isEmpty() || session == null || session == MilkSession.ALL
+                                        || row.getMilkLiters() == null || row.getMilkLiters() < 0) {
+                                status = BATCH_INVALID;
+                                rejection = "tagId, session (MORNING/EVENING) and non-negative milkLiters are required";
+                        } else if (cattle == null) {
+                                status = BATCH_UNKNOWN_TAG;
+                                rejection = "Invalid tagId for this farm";
+                        } else if (cattle.getStatus() == null || !"ACTIVE".equalsIgnoreCase(cattle.getStatus())) {
+                                status = BATCH_INACTIVE;
+                                rejection = "Cannot add milk for cattle that is not ACTIVE";
+                        } else if (!recorded.add(cattle.getId() + "|" + session)) {
+                                // covers both earlier uploads and repeats inside this batch
+                                status = BATCH_DUPLICATE;
+                                rejection = "Milk already entered for this cattle and session";
+                        }
+
+                        if (rejection == null) {
+                                toInsert.add(CattleMilkEntry.builder()
+                                                .cattle(cattle)
+                                                .farm(farm)
+                                                .recordDate(today)
+                                                .session(session)
+                                                .milkLiters(row.getMilkLiters())
+                                                .enteredBy(loggedInUser)
+                                                .build());
+                                litersBySession.merge(session, row.getMilkLiters(), Double::sum);
+                                litersByType.computeIfAbsent(session, s -> new java.util.HashMap<>())
+                                                .merge(FarmAvailabilityService.normalizeAnimalType(cattle.getType()),
+                                                                row.getMilkLiters(), Double::sum);
+                        }
+
+                        results.add(MilkBatchRowResultDto.builder()
+                                        .index(i)
+                                        .tagId(tagId)
+                                        .session(session)
+                                        .status(status)
+                                        .message(rejection)
+                                        .build());
+                }
+
+                try {
+                        cattleMilkEntryBatchRepository.insertAll(toInsert);
+                } catch (org.springframework.dao.DuplicateKeyException ex) {
+                        // Another device recorded one of these cattle between our duplicate check and the insert
+                        throw new IllegalStateException("Some entries were recorded concurrently, please retry the batch");
+                }
+                cattleYieldStatsService.recordEntries(toInsert);
+
+                // One counter update per session instead of one per entry
+                litersBySession.forEach((session, liters) -> applyMilkDelta(farm, today, session, liters, loggedInUser));
+                litersByType.forEach((session, byType) -> byType.forEach((type, liters) ->
+                                farmAvailabilityService.recordProduction(farm.getId(), today, session, type, liters)));
+
+                if (!toInsert.isEmpty()) {
+                        eventPublisher.publishEvent(FarmLiveEvent.of(farm.getId(), LiveEventType.MILK_RECORDED,
+                                        "entries", toInsert.size(),
+                                        "date", today.toString(),
+                                        "cattleIdsBySession", toInsert.stream().collect(java.util.stream.Collectors.groupingBy(
+                                                        e -> e.getSession().name(),
+                                                        java.util.stream.Collectors.mapping(e -> e.getCattle().getId(),
+                                                                        java.util.stream.Collectors.toList()))),
+                                        "litersBySession", litersBySession));
+                }
+
+                return MilkBatchResultDto.builder()
+                                .saved(toInsert.size())
+                                .rejected(rows.size() - toInsert.size())
+                                .rows(results)
+                                .build();
+        }
+
+        private Farm resolveFarmForEntry(Long farmId, User loggedInUser) {
+                if (loggedInUser.getRole() == UserRole.WORKER) {
+
+                        java.util.Optional<com.example.backend.Entity.FarmWorker> assignment = farmWorkerRepository
+                                        .findByFarmIdAndWorkerId(farmId, loggedInUser.getId());
+                        if (!assignment.isPresent()) {
+                                throw new RuntimeException("Worker not assigned to this farm");
+                        }
+
+                        return farmRepository
+                                        .findById(farmId)
+                                        .orElseThrow(() -> new RuntimeException("Farm not found"));
+
+                } else if (loggedInUser.getRole() == UserRole.FARM_OWNER) {
+
+                        return farmRepository
+                                        .findByIdAndOwnerId(farmId, loggedInUser.getId())
+                                        .orElseThrow(() -> new RuntimeException("Farm does not belong to owner"));
+
+                } else {
+                        throw new RuntimeException("Unauthorized role");
+                }
+        }
 
-                // 5. Update / upsert farm-level inventory (AGGREGATED DATA)
-                updateMilkInventory(farm, today, dto.getSession());
+        /**
+         * Applies the liters of the entry just saved to the session counter with a single
+         * upsert instead of re-summing every entry of the session.
+         */
+        private void applyMilkDelta(Farm farm, LocalDate date, MilkSession session, Double liters, User enteredBy) {
+                milkInventoryRepository.addMilkLiters(
+                                farm.getId(),
+                                date,
+                                session.name(),
+                                liters != null ? liters : 0.0,
+                                enteredBy != null ? enteredBy.getId() : null);
         }
 
-        private void updateMilkInventory(Farm farm, LocalDate date, MilkSession session) {
+        /**
+         * Counters are maintained by deltas, so compare them against the raw per-cattle
+         * entries of the last few days and repair any drift.
+         */
+        @Scheduled(cron = "${app.milk.inventory.reconcile-cron:0 15 * * * *}")
+        public void reconcileMilkInventory() {
+                LocalDate fromDate = LocalDate.now().minusDays(Math.max(0, reconcileDays - 1));
+
+                // Read counters first: the compare-and-set below then never overwrites a delta
+                // that was applied after the raw sums were taken.
+                java.util.List<Object[]> counters = milkInventoryRepository.findCountersSince(fromDate);
+                java.util.Map<String, Double> rawTotals = new java.util.HashMap<>();
+                for (Object[] r : cattleMilkEntryRepository.sumBySessionSince(fromDate)) {
+                        rawTotals.put(counterKey((Long) r[0], (LocalDate) r[1], (MilkSession) r[2]),
+                                        r[3] == null ? 0.0 : ((Number) r[3]).doubleValue());
+                }
+
+                int repaired = 0;
+                for (Object[] c : counters) {
+                        Long inventoryId = (Long) c[0];
+                        String key = counterKey((Long) c[1], (LocalDate) c[2], (MilkSession) c[3]);
+                        Double observed = (Double) c[4];
+                        Double expected = rawTotals.remove(key);
+                        if (expected == null) {
+                                expected = 0.0;
+                        }
+                        if (Math.abs(observed - expected) > RECONCILE_TOLERANCE) {
+                                repaired += milkInventoryRepository.repairMilkLiters(inventoryId, observed, expected);
+                        }
+                }
 
-                Double totalMilk = cattleMilkEntryRepository
-                                .sumMilkByFarmAndDateAndSession(farm.getId(), date, session);
+                // Entries without any counter row (e.g. a lost insert)
+                for (java.util.Map.Entry<String, Double> missing : rawTotals.entrySet()) {
+                        String[] parts = missing.getKey().split("\\|");
+                        repaired += milkInventoryRepository.insertMissingCounter(
+                                        Long.valueOf(parts[0]),
+                                        LocalDate.parse(parts[1]),
+                                        parts[2],
+                                        missing.getValue());
+                }
 
-                MilkInventory inventory = milkInventoryRepository
-                                .findByFarmIdAndRecordDateAndSession(farm.getId(), date, session)
-                                .orElse(
-                                                MilkInventory.builder()
-                                                                .farm(farm)
-                                                                .recordDate(date)
-                                                                .session(session)
-                                                                .build());
+                if (repaired > 0) {
+                        log.warn("Milk inventory reconciliation repaired {} counters since {}", repaired, fromDate);
+                }
+        }
 
-                inventory.setMilkLiters(totalMilk);
-                milkInventoryRepository.save(inventory);
+        private static String counterKey(Long farmId, LocalDate date, MilkSession session) {
+                return farmId + "|" + date + "|" + session.name();
         }
 
         @Override
@@ -159,7 +375,7 @@ public class MilkInventoryServiceImpl implements MilkInventoryService {
         }
 
         @Override
-        public java.util.List<MilkHistoryDto> getLastNDaysMilk(Long farmId, int days) {
+        public java.util.List<MilkHistoryDto> getLastNDaysMilk(Long farmId, int days, HistoryGranularity granularity) {
                 LocalDate today = LocalDate.now();
                 LocalDate fromDate = today.minusDays(days - 1);
 
@@ -167,51 +383,63 @@ public class MilkInventoryServiceImpl implements MilkInventoryService {
                 java.util.Map<LocalDate, Double> map = new java.util.HashMap<>();
                 for (Object[] r : rows) {
                         LocalDate d = (LocalDate) r[0];
-                        Double tot = (Double) r[1];
-                        map.put(d, tot == null ? 0.0 : tot);
+                        map.merge(granularity.bucketStart(d), r[1] == null ? 0.0 : ((Number) r[1]).doubleValue(), Double::sum);
                 }
 
+                // Every bucket in range, empty ones as zero
                 java.util.List<MilkHistoryDto> result = new java.util.ArrayList<>();
-                for (int i = 0; i < days; i++) {
-                        LocalDate d = fromDate.plusDays(i);
-                        Double t = map.getOrDefault(d, 0.0);
-                        result.add(new MilkHistoryDto(d, t));
+                LocalDate bucket = granularity.bucketStart(fromDate);
+                while (!bucket.isAfter(today)) {
+                        result.add(new MilkHistoryDto(bucket, map.getOrDefault(bucket, 0.0)));
+                        bucket = nextBucket(bucket, granularity);
                 }
                 return result;
         }
 
+        private static LocalDate nextBucket(LocalDate bucket, HistoryGranularity granularity) {
+                return switch (granularity) {
+                        case DAY -> bucket.plusDays(1);
+                        case WEEK -> bucket.plusWeeks(1);
+                        case MONTH -> bucket.plusMonths(1);
+                };
+        }
+
         @Override
-        public java.util.List<MilkTypeHistoryDto> getLastNDaysMilkByType(Long farmId, int days) {
+        public java.util.List<MilkTypeHistoryDto> getLastNDaysMilkByType(Long farmId, int days, HistoryGranularity granularity) {
                 LocalDate today = LocalDate.now();
                 LocalDate fromDate = today.minusDays(days - 1);
 
-                java.util.List<CattleMilkEntry> entries = cattleMilkEntryRepository
-                                .findByFarm_IdAndRecordDateBetween(farmId, fromDate, today);
-
-                java.util.Map<String, MilkTypeHistoryDto> grouped = new java.util.LinkedHashMap<>();
-
-                for (CattleMilkEntry entry : entries) {
-                        LocalDate date = entry.getRecordDate();
-                        String animalType = entry.getCattle() != null && entry.getCattle().getType() != null
-                                        ? entry.getCattle().getType().trim().toUpperCase()
-                                        : "UNKNOWN";
-                        String key = date + "::" + animalType;
-
-                        MilkTypeHistoryDto dto = grouped.computeIfAbsent(
-                                        key,
-                                        unused -> new MilkTypeHistoryDto(date, animalType, 0.0, 0.0, 0.0)
-                        );
-
-                        double liters = entry.getMilkLiters() != null ? entry.getMilkLiters() : 0.0;
-                        if (entry.getSession() == MilkSession.MORNING) {
-                                dto.setMorning(dto.getMorning() + liters);
-                        } else if (entry.getSession() == MilkSession.EVENING) {
-                                dto.setEvening(dto.getEvening() + liters);
+                // Rows come pre-aggregated per date and type from the availability snapshot
+                java.util.List<MilkTypeHistoryDto> result = new java.util.ArrayList<>();
+                java.util.Map<String, MilkTypeHistoryDto> bucketByType = new java.util.HashMap<>();
+                LocalDate currentBucket = null;
+                for (Object[] r : farmDailyAvailabilityRepository.sumProducedByDateAndType(farmId, fromDate, today)) {
+                        LocalDate bucket = granularity.bucketStart((LocalDate) r[0]);
+                        if (!bucket.equals(currentBucket)) {
+                                flushTypeBuckets(bucketByType, result);
+                                currentBucket = bucket;
                         }
-                        dto.setTotal(dto.getTotal() + liters);
+                        String animalType = (String) r[1];
+                        double morning = ((Number) r[2]).doubleValue();
+                        double evening = ((Number) r[3]).doubleValue();
+                        MilkTypeHistoryDto dto = bucketByType.computeIfAbsent(
+                                        animalType,
+                                        unused -> new MilkTypeHistoryDto(bucket, animalType, 0.0, 0.0, 0.0)
+                        );
+                        dto.setMorning(dto.getMorning() + morning);
+                        dto.setEvening(dto.getEvening() + evening);
+                        dto.setTotal(dto.getTotal() + morning + evening);
                 }
+                flushTypeBuckets(bucketByType, result);
+                return result;
+        }
 
-                return new java.util.ArrayList<>(grouped.values());
+        private static void flushTypeBuckets(java.util.Map<String, MilkTypeHistoryDto> bucketByType,
+                                             java.util.List<MilkTypeHistoryDto> result) {
+                bucketByType.values().stream()
+                                .sorted(java.util.Comparator.comparing(MilkTypeHistoryDto::getAnimalType))
+                                .forEach(result::add);
+                bucketByType.clear();
         }
 
         @Override
@@ -247,44 +475,30 @@ public class MilkInventoryServiceImpl implements MilkInventoryService {
 
         @Override
         public MilkAvailabilityDto getAvailability(Long farmId, LocalDate date, MilkSession session) {
-                if (session == MilkSession.ALL) {
-                        java.util.List<MilkInventory> inventories = milkInventoryRepository
-                                        .findByFarmIdAndRecordDate(farmId, date);
-                        double totalProd = 0;
-                        double totalAlloc = 0;
-                        for (MilkInventory inv : inventories) {
-                                totalProd += inv.getMilkLiters();
-                                totalAlloc += milkAllocationRepository.sumAllocationsByInventoryId(inv.getId());
+                // Served from the farm_daily_availability snapshot; ALL covers every session of the day
+                double totalProd = 0;
+                double totalAlloc = 0;
+                double cowTotal = 0;
+                double cowAlloc = 0;
+                double buffaloTotal = 0;
+                double buffaloAlloc = 0;
+                for (FarmDailyAvailability row : farmDailyAvailabilityRepository.findByFarmIdAndRecordDate(farmId, date)) {
+                        if (session != MilkSession.ALL && row.getSession() != session) {
+                                continue;
+                        }
+                        totalProd += row.getProducedLiters();
+                        totalAlloc += row.getAllocatedLiters();
+                        if ("COW".equals(row.getAnimalType())) {
+                                cowTotal += row.getProducedLiters();
+                                cowAlloc += row.getAllocatedLiters();
+                        } else if ("BUFFALO".equals(row.getAnimalType())) {
+                                buffaloTotal += row.getProducedLiters();
+                                buffaloAlloc += row.getAllocatedLiters();
                         }
-                        MilkAvailabilityDto dto = new MilkAvailabilityDto();
-                        dto.setTotalProduction(totalProd);
-                        dto.setAllocatedMilk(totalAlloc);
-                        dto.setAvailableMilk(totalProd - totalAlloc);
-                        return dto;
                 }
 
-                MilkInventory inventory = milkInventoryRepository
-                        .findByFarmIdAndRecordDateAndSession(farmId, date, session)
-                        .orElse(null);
-
-                Double totalProduction = inventory != null ? inventory.getMilkLiters() : 0.0;
-                Double allocatedMilk = inventory != null ? milkAllocationRepository.sumAllocationsByInventoryId(inventory.getId()) : 0.0;
-                Double availableMilk = totalProduction - allocatedMilk;
-
-                // Dynamically fetch cow/buffalo production
-                Double cowTotal = cattleMilkEntryRepository.sumMilkByType(farmId, date, session, "Cow");
-                if (cowTotal == null) cowTotal = 0.0;
-                Double buffaloTotal = cattleMilkEntryRepository.sumMilkByType(farmId, date, session, "Buffalo");
-                if (buffaloTotal == null) buffaloTotal = 0.0;
-
-                // Fetch allocations via Orders (Pending + Confirmed)
-                Double cowAlloc = ordersRepository.sumAllocatedByType(farmId, date, session, "Cow");
-                if (cowAlloc == null) cowAlloc = 0.0;
-                Double buffaloAlloc = ordersRepository.sumAllocatedByType(farmId, date, session, "Buffalo");
-                if (buffaloAlloc == null) buffaloAlloc = 0.0;
-
                 return new MilkAvailabilityDto(
-                        totalProduction, allocatedMilk, availableMilk,
+                        totalProd, totalAlloc, totalProd - totalAlloc,
                         cowTotal, cowAlloc, cowTotal - cowAlloc,
                         buffaloTotal, buffaloAlloc, buffaloTotal - buffaloAlloc
                 );
@@ -0,0 +1,440 @@
+package com.example.backend.Service.impl;
+
+import com.example.backend.DTO.FarmLiveEvent;
+import com.example.backend.Entity.Orders;
+import com.example.backend.Entity.type.LiveEventType;
+import com.example.backend.Entity.type.MilkSession;
+import com.example.backend.Entity.type.OrderStatus;
+import com.example.backend.Entity.type.ReservationStatus;
+import com.example.backend.Repository.FarmDailyAvailabilityRepository;
+import com.example.backend.Repository.MilkAllocationBatchRepository;
+import com.example.backend.Repository.OrdersRepository;
+import com.example.backend.Service.FarmAvailabilityService;
+import com.example.backend.Service.JobLeaseService;
+import com.example.backend.Service.MilkReservationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Accepts or waitlists buyers against in-memory {@link ReservationLedger}s, one per farm, day,
+ * session and animal type, so concurrent orders for a hot farm never wait on a row lock.
+ * <p>
+ * The orders table is the source of truth: an order's {@code reservation_status} commits with
+ * the order, and a ledger is loaded from it (plus produced liters from the availability
+ * snapshot) on first use and reloaded every {@code app.reservations.refresh-interval}, which
+ * also picks up what other replicas accepted. Milk allocations and promotions of waitlisted
+ * orders are written behind in batches; a failed batch is dropped, since reloads re-promote
+ * and the repair job re-derives allocations from the orders table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MilkReservationServiceImpl implements MilkReservationService {
+
+    static final String REPAIR_LEASE = "milk-allocation-repair";
+
+    // Orders that hold milk once accepted; CANCELLED and TIMEOUT_REJECTED give it back
+    private static final List<OrderStatus> HOLDING_STATUSES = List.of(
+            OrderStatus.PENDING,
+            OrderStatus.CONFIRMED,
+            OrderStatus.COMPLETED);
+
+    private final OrdersRepository ordersRepository;
+    private final FarmDailyAvailabilityRepository farmDailyAvailabilityRepository;
+    private final MilkAllocationBatchRepository milkAllocationBatchRepository;
+    private final JobLeaseService jobLeaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // A pending future while the first load of a key runs outside the map, so concurrent
+    // buyers of that key wait for it without holding a ConcurrentHashMap bin lock during I/O
+    private final Map<Key, CompletableFuture<ReservationLedger>> ledgers = new ConcurrentHashMap<>();
+    private final Map<Long, Key> orderKeys = new ConcurrentHashMap<>();
+    private final Queue<WriteBehind> writeBehind = new ConcurrentLinkedQueue<>();
+    private final Set<Key> productionChanged = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.reservations.refresh-interval:5s}")
+    private Duration refreshInterval;
+
+    @Value("${app.reservations.flush-batch-size:1000}")
+    private int flushBatchSize;
+
+    @Value("${app.reservations.lease-ttl:5m}")
+    private Duration leaseTtl;
+
+    record Key(Long farmId, LocalDate date, MilkSession session, String animalType) {
+    }
+
+    enum Op { ALLOCATE, PROMOTE, RELEASE }
+
+    record WriteBehind(Op op, Long farmId, List<Long> orderIds) {
+    }
+
+    @Override
+    public ReservationStatus reserve(Orders order) {
+        if (order.getId() == null || order.getFarm() == null || order.getOrderDate() == null
+                || order.getQuantity() == null
+                || (order.getSession() != MilkSession.MORNING && order.getSession() != MilkSession.EVENING)) {
+            return null;
+        }
+        Key key = new Key(order.getFarm().getId(), order.getOrderDate(), order.getSession(),
+                FarmAvailabilityService.normalizeAnimalType(order.getAnimalType()));
+        long orderId = order.getId();
+        long ml = toMillilitres(order.getQuantity());
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+
+        ReservationStatus status;
+        while (true) {
+            ReservationLedger ledger = current(key, orderId);
+            status = ledger.reserve(orderId, ml, inTransaction);
+            if (status != null) {
+                break;
+            }
+            awaitReplacement(ledger);
+        }
+        orderKeys.put(orderId, key);
+        order.setReservationStatus(status);
+
+        ReservationStatus reserved = status;
+        if (inTransaction) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int completion) {
+                    if (completion == STATUS_COMMITTED) {
+                        committed(key, orderId, reserved);
+                    } else {
+                        rolledBack(key, orderId);
+                    }
+                }
+            });
+        } else {
+            committed(key, orderId, reserved);
+        }
+        return status;
+    }
+
+    @Override
+    public void release(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(orderIds);
+        afterCommit(() -> {
+            writeBehind.add(new WriteBehind(Op.RELEASE, null, ids));
+            Set<Key> touched = new HashSet<>();
+            for (Long orderId : ids) {
+                Key key = orderKeys.remove(orderId);
+                if (key != null) {
+                    onLedgerChain(key, ledger -> ledger.release(orderId));
+                    touched.add(key);
+                }
+            }
+            touched.forEach(this::promote);
+        });
+    }
+
+    @Override
+    public void addProduction(Long farmId, LocalDate date, MilkSession session, String animalType, double liters) {
+        if (liters == 0.0) {
+            return;
+        }
+        Key key = new Key(farmId, date, session, FarmAvailabilityService.normalizeAnimalType(animalType));
+        afterCommit(() -> productionChanged.add(key));
+    }
+
+    /**
+     * Re-reads produced liters of ledgers whose production changed and promotes waitlisted
+     * orders. Reading the total rather than adding deltas cannot double count a change that
+     * a concurrent reload already saw.
+     */
+    @Scheduled(fixedDelayString = "${app.reservations.flush-interval:250ms}")
+    public void applyProductionChanges() {
+        for (Iterator<Key> it = productionChanged.iterator(); it.hasNext(); ) {
+            Key key = it.next();
+            it.remove();
+            ReservationLedger ledger = loaded(key);
+            if (ledger == null) {
+                continue;
+            }
+            try {
+                ledger.setProducedMl(producedMl(key));
+                promote(key);
+            } catch (RuntimeException ex) {
+                log.warn("Could not refresh production of reservation ledger {}: {}", key, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reloads ledgers from the database so they pick up other replicas' orders and any
+     * drift, and drops those of past days.
+     */
+    @Scheduled(fixedDelayString = "${app.reservations.refresh-interval:5s}")
+    public void refreshLedgers() {
+        LocalDate today = LocalDate.now();
+        long staleBefore = System.nanoTime() - refreshInterval.toNanos();
+        for (Map.Entry<Key, CompletableFuture<ReservationLedger>> entry : ledgers.entrySet()) {
+            Key key = entry.getKey();
+            ReservationLedger ledger = loaded(key);
+            if (ledger == null) {
+                continue;
+            }
+            if (key.date().isBefore(today)) {
+                ledger.retire();
+                ledgers.remove(key, entry.getValue());
+                ledger.markReplaced();
+                orderKeys.values().removeIf(key::equals);
+            } else if (ledger.builtAtNanos() - staleBefore < 0) {
+                try {
+                    reload(key, ledger);
+                } catch (RuntimeException ex) {
+                    log.warn("Could not reload reservation ledger {}: {}", key, ex.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes queued allocations, promotions and releases in one transaction per batch.
+     */
+    @Scheduled(fixedDelayString = "${app.reservations.flush-interval:250ms}")
+    public void flushWriteBehind() {
+        while (!writeBehind.isEmpty()) {
+            Set<Long> allocate = new LinkedHashSet<>();
+            Set<Long> promote = new LinkedHashSet<>();
+            Set<Long> release = new LinkedHashSet<>();
+            Map<Long, List<Long>> promotedByFarm = new HashMap<>();
+            int taken = 0;
+            WriteBehind item;
+            while (taken < Math.max(1, flushBatchSize) && (item = writeBehind.poll()) != null) {
+                taken += item.orderIds().size();
+                switch (item.op()) {
+                    case ALLOCATE -> allocate.addAll(item.orderIds());
+                    case PROMOTE -> {
+                        promote.addAll(item.orderIds());
+                        promotedByFarm.computeIfAbsent(item.farmId(), id -> new ArrayList<>()).addAll(item.orderIds());
+                    }
+                    case RELEASE -> release.addAll(item.orderIds());
+                }
+            }
+            allocate.addAll(promote);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    milkAllocationBatchRepository.deleteOrderAllocations(release);
+                    milkAllocationBatchRepository.markAccepted(promote);
+                    milkAllocationBatchRepository.insertOrderAllocations(allocate);
+                    promotedByFarm.forEach((farmId, ids) -> eventPublisher.publishEvent(FarmLiveEvent.of(
+                            farmId, LiveEventType.ORDER_STATUS_CHANGED,
+                            "orderIds", ids,
+                            "reservationStatus", ReservationStatus.ACCEPTED)));
+                });
+            } catch (RuntimeException ex) {
+                // Reloads re-promote and the repair job re-derives allocations
+                log.warn("Dropped {} reservation write-behind rows: {}", taken, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Catches up allocations the write-behind lost (crash, failed batch) from the orders table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.reservations.repair-cron:0 */15 * * * *}")
+    public void repairAllocations() {
+        if (!jobLeaseService.tryAcquire(REPAIR_LEASE, leaseTtl)) {
+            log.info("Milk allocation repair skipped: lease held by another replica");
+            return;
+        }
+        try {
+            Integer changed = transactionTemplate.execute(status ->
+                    milkAllocationBatchRepository.repairSince(LocalDate.now().minusDays(1)));
+            if (changed != null && changed > 0) {
+                log.info("Repaired {} milk allocation rows", changed);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Milk allocation repair failed: {}", ex.getMessage());
+        } finally {
+            jobLeaseService.release(REPAIR_LEASE);
+        }
+    }
+
+    /**
+     * The key's ledger, loading it on first use. The first load runs in the buyer's
+     * transaction, which already sees the buyer's own uncommitted order; that order is left
+     * out so it is claimed against production like any other.
+     */
+    private ReservationLedger current(Key key, long reservingOrderId) {
+        while (true) {
+            CompletableFuture<ReservationLedger> future = ledgers.get(key);
+            if (future == null) {
+                CompletableFuture<ReservationLedger> mine = new CompletableFuture<>();
+                future = ledgers.putIfAbsent(key, mine);
+                if (future == null) {
+                    try {
+                        mine.complete(load(key, reservingOrderId));
+                    } catch (RuntimeException ex) {
+                        ledgers.remove(key, mine);
+                        mine.completeExceptionally(ex);
+                        throw ex;
+                    }
+                    promote(key);
+                    return mine.join();
+                }
+            }
+            try {
+                return future.join();
+            } catch (CompletionException ex) {
+                // Another buyer's load failed; it removed the future, so try loading again
+                ledgers.remove(key, future);
+            }
+        }
+    }
+
+    // Null while the key has no ledger or its first load is still running
+    private ReservationLedger loaded(Key key) {
+        CompletableFuture<ReservationLedger> future = ledgers.get(key);
+        return future != null && future.state() == Future.State.SUCCESS ? future.resultNow() : null;
+    }
+
+    private ReservationLedger load(Key key, Long excludedOrderId) {
+        long startedAt = System.nanoTime();
+        ReservationLedger ledger = new ReservationLedger(producedMl(key), startedAt);
+        for (Object[] row : ordersRepository.findReservationRows(
+                key.farmId(), key.date(), key.session(), HOLDING_STATUSES)) {
+            if (row[1] == null || !key.animalType().equals(FarmAvailabilityService.normalizeAnimalType((String) row[2]))) {
+                continue;
+            }
+            Long orderId = (Long) row[0];
+            if (orderId.equals(excludedOrderId)) {
+                continue;
+            }
+            // Subscription and pre-ledger orders have no status but still hold their milk
+            ReservationStatus status = row[3] == ReservationStatus.WAITLISTED
+                    ? ReservationStatus.WAITLISTED
+                    : ReservationStatus.ACCEPTED;
+            ledger.restore(orderId, toMillilitres(((Number) row[1]).doubleValue()), status);
+            orderKeys.put(orderId, key);
+        }
+        return ledger;
+    }
+
+    // Retire first so late reservations on the old ledger retry on the new one, carry over
+    // what the load could not see, publish, then wake whoever waits on the old one
+    private void reload(Key key, ReservationLedger old) {
+        Set<Long> inflightAtStart = old.inflightIds();
+        ReservationLedger fresh = load(key, null);
+        old.retire();
+        try {
+            fresh.carryOver(old, inflightAtStart);
+            ledgers.put(key, CompletableFuture.completedFuture(fresh));
+        } catch (RuntimeException ex) {
+            ledgers.remove(key);
+            throw ex;
+        } finally {
+            old.markReplaced();
+        }
+        promote(key);
+    }
+
+    private long producedMl(Key key) {
+        Double produced = farmDailyAvailabilityRepository.findProducedLiters(
+                key.farmId(), key.date(), key.session(), key.animalType());
+        return toMillilitres(produced != null ? produced : 0.0);
+    }
+
+    private static void awaitReplacement(ReservationLedger retired) {
+        try {
+            retired.awaitReplaced();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while a reservation ledger was reloading", ex);
+        }
+    }
+
+    // Applies to the current ledger and, if it is mid-reload, to its replacement as well
+    private void onLedgerChain(Key key, Consumer<ReservationLedger> action) {
+        ReservationLedger ledger = loaded(key);
+        while (ledger != null) {
+            action.accept(ledger);
+            if (!ledger.isRetired()) {
+                return;
+            }
+            awaitReplacement(ledger);
+            ledger = loaded(key);
+        }
+    }
+
+    private void committed(Key key, long orderId, ReservationStatus status) {
+        onLedgerChain(key, ledger -> ledger.markCommitted(orderId));
+        if (status == ReservationStatus.ACCEPTED) {
+            writeBehind.add(new WriteBehind(Op.ALLOCATE, key.farmId(), List.of(orderId)));
+        }
+        // A waitlisted head blocks promotion until it commits
+        promote(key);
+    }
+
+    private void rolledBack(Key key, long orderId) {
+        orderKeys.remove(orderId, key);
+        onLedgerChain(key, ledger -> {
+            ledger.release(orderId);
+            ledger.markCommitted(orderId);
+        });
+        promote(key);
+    }
+
+    private void promote(Key key) {
+        ReservationLedger ledger = loaded(key);
+        if (ledger == null) {
+            return;
+        }
+        List<Long> promoted = ledger.promote();
+        if (!promoted.isEmpty()) {
+            writeBehind.add(new WriteBehind(Op.PROMOTE, key.farmId(), promoted));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static long toMillilitres(double liters) {
+        return Math.round(liters * 1000.0);
+    }
+}
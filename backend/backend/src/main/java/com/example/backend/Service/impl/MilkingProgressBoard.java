@@ -0,0 +1,316 @@
+package com.example.backend.Service.impl;
+
+import com.example.backend.DTO.FarmLiveEvent;
+import com.example.backend.DTO.RemainingCattleDto;
+import com.example.backend.DTO.ShedStatusDto;
+import com.example.backend.Entity.type.LiveEventType;
+import com.example.backend.Entity.type.MilkSession;
+import com.example.backend.Repository.CattleMilkEntryRepository;
+import com.example.backend.Repository.CattleRepository;
+import com.example.backend.Repository.FarmWorkerShedRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Today's milking progress per farm, kept in memory.
+ * <p>
+ * A farm's board is built on first use from three grouped queries (active cattle with
+ * sheds, today's recorded sessions, worker shed assignments). Each animal gets an index;
+ * every shed holds a {@link BitSet} of its animals and every session a bitset of the
+ * animals milked, with per-shed milked counts kept alongside. Committed milk entries set
+ * bits, from this replica directly and from other replicas through the live event channel.
+ * A new board is published before today's sessions are read, with its lock held until they
+ * are, so an entry committed meanwhile is either in the query or applied to the board.
+ * Herd or shed changes drop the board so the next read rebuilds it, as does the date
+ * rolling over; boards older than {@code app.live.board-max-age} are rebuilt as well, which
+ * repairs events lost on the channel.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MilkingProgressBoard {
+
+    private static final String UNASSIGNED = "Unassigned";
+
+    private final CattleRepository cattleRepository;
+    private final CattleMilkEntryRepository cattleMilkEntryRepository;
+    private final FarmWorkerShedRepository farmWorkerShedRepository;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.live.channel:farm-live-events}")
+    private String channel;
+
+    @Value("${app.live.board-max-age:5m}")
+    private Duration maxAge;
+
+    private final Map<Long, FarmBoard> boards = new ConcurrentHashMap<>();
+    // Bumped on every herd change so a board built from the old herd is not kept
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            try {
+                apply(objectMapper.readValue(
+                        new String(message.getBody(), StandardCharsets.UTF_8), FarmLiveEvent.class));
+            } catch (Exception ex) {
+                log.debug("Ignoring live event on milking board: {}", ex.getMessage());
+            }
+        }, new ChannelTopic(channel));
+    }
+
+    /**
+     * Shed totals for a session; {@link MilkSession#ALL} counts an animal once it was
+     * milked in any session today.
+     */
+    public List<ShedStatusDto> shedStatus(Long farmId, MilkSession session) {
+        FarmBoard board = board(farmId);
+        synchronized (board) {
+            BitSet milked = board.milked.get(session);
+            int[] milkedCounts = board.milkedPerShed.get(session);
+            List<ShedStatusDto> result = new ArrayList<>(board.shedNames.length);
+            for (int s = 0; s < board.shedNames.length; s++) {
+                int total = board.cattleByShed[s].cardinality();
+                if (total == 0) {
+                    continue;
+                }
+                result.add(ShedStatusDto.builder()
+                        .shedId(board.shedIds[s])
+                        .shedName(board.shedNames[s])
+                        .totalCattle(total)
+                        .milkedCattle(milkedCounts[s])
+                        .remainingCattle(total - milkedCounts[s])
+                        .workerInCharge(board.workerNames[s] != null ? board.workerNames[s] : UNASSIGNED)
+                        .build());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Animals not yet milked in the session, limited to the sheds assigned to
+     * {@code workerId}, or across the farm when it is null.
+     */
+    public List<RemainingCattleDto> remainingCattle(Long farmId, MilkSession session, Long workerId) {
+        FarmBoard board = board(farmId);
+        synchronized (board) {
+            BitSet milked = board.milked.get(session);
+            List<RemainingCattleDto> result = new ArrayList<>();
+            for (int s = 0; s < board.shedNames.length; s++) {
+                if (workerId != null && !board.workerIds[s].contains(workerId)) {
+                    continue;
+                }
+                BitSet remaining = (BitSet) board.cattleByShed[s].clone();
+                remaining.andNot(milked);
+                for (int i = remaining.nextSetBit(0); i >= 0; i = remaining.nextSetBit(i + 1)) {
+                    result.add(RemainingCattleDto.builder()
+                            .cattleId(board.cattleIds[i])
+                            .tagId(board.tagIds[i])
+                            .type(board.types[i])
+                            .shedId(board.shedIds[s])
+                            .shedName(board.shedNames[s])
+                            .build());
+                }
+            }
+            return result;
+        }
+    }
+
+    public void invalidate(Long farmId) {
+        generations.merge(farmId, 1L, Long::sum);
+        boards.remove(farmId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommitted(FarmLiveEvent event) {
+        apply(event);
+    }
+
+    // Both the local and the Redis path land here; setting a bit twice is harmless
+    private void apply(FarmLiveEvent event) {
+        if (event.type() == LiveEventType.HERD_CHANGED) {
+            invalidate(event.farmId());
+            return;
+        }
+        if (event.type() != LiveEventType.MILK_RECORDED
+                || !(event.data().get("cattleIdsBySession") instanceof Map<?, ?> bySession)) {
+            return;
+        }
+        FarmBoard board = boards.get(event.farmId());
+        if (board == null || !board.date.toString().equals(event.data().get("date"))) {
+            return;
+        }
+        synchronized (board) {
+            bySession.forEach((session, ids) -> {
+                if (ids instanceof Collection<?> cattleIds) {
+                    for (Object id : cattleIds) {
+                        board.markMilked(((Number) id).longValue(), MilkSession.valueOf(String.valueOf(session)));
+                    }
+                }
+            });
+        }
+    }
+
+    private FarmBoard board(Long farmId) {
+        LocalDate today = LocalDate.now();
+        FarmBoard board = boards.get(farmId);
+        if (board != null && board.date.equals(today)
+                && System.nanoTime() - board.builtAtNanos < maxAge.toNanos()) {
+            return board;
+        }
+
+        long generation = generations.getOrDefault(farmId, 0L);
+        FarmBoard built = build(farmId, today);
+        synchronized (built) {
+            // Another reader may have published a board meanwhile; its builder fills it
+            FarmBoard current = boards.compute(farmId, (id, existing) ->
+                    existing != null && existing != board ? existing : built);
+            if (current != built) {
+                return current;
+            }
+            try {
+                for (Object[] r : cattleMilkEntryRepository.findMilkedSessions(farmId, today)) {
+                    built.markMilked((Long) r[0], (MilkSession) r[1]);
+                }
+            } catch (RuntimeException ex) {
+                boards.remove(farmId, built);
+                throw ex;
+            }
+        }
+        if (generations.getOrDefault(farmId, 0L) != generation) {
+            // The herd changed while we read it; serve this read, rebuild on the next one
+            boards.remove(farmId, built);
+        }
+        return built;
+    }
+
+    // Cattle and shed workers; milked sessions are loaded once the board is published
+    private FarmBoard build(Long farmId, LocalDate date) {
+        List<Object[]> cattle = cattleRepository.findBoardRows(farmId);
+
+        Map<Long, Integer> shedIndex = new HashMap<>();
+        List<Long> shedIds = new ArrayList<>();
+        List<String> shedNames = new ArrayList<>();
+        int n = cattle.size();
+        long[] cattleIds = new long[n];
+        String[] tagIds = new String[n];
+        String[] types = new String[n];
+        int[] shedOf = new int[n];
+        for (int i = 0; i < n; i++) {
+            Object[] r = cattle.get(i);
+            cattleIds[i] = (Long) r[0];
+            tagIds[i] = (String) r[1];
+            types[i] = (String) r[2];
+            Long shedId = (Long) r[3];
+            // Shed id -1 stands for cattle without a shed
+            Integer s = shedIndex.get(shedId == null ? -1L : shedId);
+            if (s == null) {
+                s = shedIds.size();
+                shedIndex.put(shedId == null ? -1L : shedId, s);
+                shedIds.add(shedId);
+                shedNames.add(shedId == null ? UNASSIGNED : (String) r[4]);
+            }
+            shedOf[i] = s;
+        }
+
+        FarmBoard board = new FarmBoard(date, cattleIds, tagIds, types, shedOf,
+                shedIds.toArray(Long[]::new), shedNames.toArray(String[]::new));
+
+        for (Object[] r : farmWorkerShedRepository.findShedWorkersByFarmId(farmId)) {
+            Integer s = shedIndex.get((Long) r[0]);
+            if (s != null) {
+                board.workerIds[s].add((Long) r[1]);
+                String name = (String) r[2];
+                board.workerNames[s] = board.workerNames[s] == null ? name : board.workerNames[s] + ", " + name;
+            }
+        }
+        return board;
+    }
+
+    private static final class FarmBoard {
+
+        final LocalDate date;
+        final long builtAtNanos = System.nanoTime();
+        final long[] cattleIds;
+        final String[] tagIds;
+        final String[] types;
+        final int[] shedOf;
+        final Long[] shedIds;
+        final String[] shedNames;
+        final String[] workerNames;
+        final Set<Long>[] workerIds;
+        final BitSet[] cattleByShed;
+        final Map<Long, Integer> indexByCattleId;
+        // MORNING, EVENING and ALL (milked in any session)
+        final Map<MilkSession, BitSet> milked = new EnumMap<>(MilkSession.class);
+        final Map<MilkSession, int[]> milkedPerShed = new EnumMap<>(MilkSession.class);
+
+        @SuppressWarnings("unchecked")
+        FarmBoard(LocalDate date, long[] cattleIds, String[] tagIds, String[] types, int[] shedOf,
+                  Long[] shedIds, String[] shedNames) {
+            this.date = date;
+            this.cattleIds = cattleIds;
+            this.tagIds = tagIds;
+            this.types = types;
+            this.shedOf = shedOf;
+            this.shedIds = shedIds;
+            this.shedNames = shedNames;
+            this.workerNames = new String[shedIds.length];
+            this.workerIds = new Set[shedIds.length];
+            this.cattleByShed = new BitSet[shedIds.length];
+            for (int s = 0; s < shedIds.length; s++) {
+                workerIds[s] = new HashSet<>();
+                cattleByShed[s] = new BitSet(cattleIds.length);
+            }
+            this.indexByCattleId = new HashMap<>(cattleIds.length * 2);
+            for (int i = 0; i < cattleIds.length; i++) {
+                indexByCattleId.put(cattleIds[i], i);
+                cattleByShed[shedOf[i]].set(i);
+            }
+            for (MilkSession session : MilkSession.values()) {
+                milked.put(session, new BitSet(cattleIds.length));
+                milkedPerShed.put(session, new int[shedIds.length]);
+            }
+        }
+
+        void markMilked(long cattleId, MilkSession session) {
+            Integer i = indexByCattleId.get(cattleId);
+            if (i == null) {
+                return; // not active, or added after the board was built
+            }
+            mark(i, session);
+            mark(i, MilkSession.ALL);
+        }
+
+        private void mark(int i, MilkSession session) {
+            BitSet bits = milked.get(session);
+            if (!bits.get(i)) {
+                bits.set(i);
+                milkedPerShed.get(session)[shedOf[i]]++;
+            }
+        }
+    }
+}
@@ -1,18 +1,26 @@
 package com.example.backend.Service.impl;
 
+import com.example.backend.DTO.OrderDecisionBatchRequestDto;
+import com.example.backend.DTO.OrderDecisionDto;
+import com.example.backend.DTO.OrderDecisionResultDto;
+import com.example.backend.DTO.OrderDecisionRowResultDto;
 import com.example.backend.DTO.OrderPaymentRequestDto;
 import com.example.backend.DTO.OrderResponseDto;
+import com.example.backend.DTO.OrdersTimedOutEvent;
 import com.example.backend.DTO.RazorpayOrderResponseDto;
 import com.example.backend.Entity.MilkAllocation;
 import com.example.backend.Entity.MilkInventory;
 import com.example.backend.Entity.Orders;
 import com.example.backend.Entity.User;
 import com.example.backend.Entity.type.AllocationType;
+import com.example.backend.Entity.type.OrderDecision;
 import com.example.backend.Entity.type.OrderStatus;
 import com.example.backend.Repository.MilkAllocationRepository;
 import com.example.backend.Repository.MilkInventoryRepository;
 import com.example.backend.Repository.OrdersRepository;
+import com.example.backend.Service.ExpiryScheduler;
 import com.example.backend.Service.FarmAccessService;
+import com.example.backend.Service.FarmAvailabilityService;
 import com.example.backend.Service.OrderService;
 import com.razorpay.Order;
 import com.razorpay.RazorpayClient;
@@ -22,12 +30,24 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,10 +55,21 @@ import java.util.stream.Collectors;
 @Slf4j
 public class OrderServiceImpl implements OrderService {
 
+        private static final int MAX_DECISIONS = 1000;
+
         private final OrdersRepository ordersRepository;
         private final MilkInventoryRepository milkInventoryRepository;
         private final MilkAllocationRepository milkAllocationRepository;
         private final FarmAccessService farmAccessService;
+        private final FarmAvailabilityService farmAvailabilityService;
+        private final ExpiryScheduler expiryScheduler;
+        private final org.springframework.context.ApplicationEventPublisher eventPublisher;
+        private final TransactionTemplate transactionTemplate;
+        private final CacheManager cacheManager;
+        @Value("${app.expiry.timeout:1d}")
+        private Duration expiryTimeout;
+        @Value("${app.expiry.batch-size:500}")
+        private int sweepChunkSize;
         @Value("${RAZORPAY_KEY}")
         private String razorpayKey;
         @Value("${RAZORPAY_SECRET}")
@@ -70,6 +101,7 @@ public class OrderServiceImpl implements OrderService {
                 order.setStatus(OrderStatus.CONFIRMED);
                 order.setConfirmedAt(LocalDateTime.now());
                 ordersRepository.save(order);
+                publishStatusChange(order);
 
                 // 9. Return response
                 return mapToDto(order);
@@ -96,10 +128,89 @@ public class OrderServiceImpl implements OrderService {
         // 4. Update status to CANCELLED
         order.setStatus(OrderStatus.CANCELLED);
         ordersRepository.save(order);
+        farmAvailabilityService.release(List.of(order));
+        publishStatusChange(order);
 
         return mapToDto(order);
     }
 
+    @Override
+    @Transactional
+    public OrderDecisionResultDto decideOrders(Long farmId, OrderDecisionBatchRequestDto request, User user) {
+        List<OrderDecisionDto> decisions = request != null && request.getDecisions() != null
+                ? request.getDecisions() : List.of();
+        if (decisions.isEmpty()) {
+            throw new IllegalArgumentException("Batch contains no order decisions");
+        }
+        if (decisions.size() > MAX_DECISIONS) {
+            throw new IllegalArgumentException("A batch may contain at most " + MAX_DECISIONS + " order decisions");
+        }
+
+        // Access is resolved once for the whole batch
+        farmAccessService.verifyFarmAccess(user, farmId);
+
+        // One locking query for the current state of every submitted order of this farm
+        Set<Long> ids = new HashSet<>();
+        for (OrderDecisionDto decision : decisions) {
+            if (decision != null && decision.getOrderId() != null) {
+                ids.add(decision.getOrderId());
+            }
+        }
+        Map<Long, OrderStatus> statusById = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Object[] row : ordersRepository.lockFarmOrderStatuses(farmId, ids)) {
+                statusById.put(((Number) row[0]).longValue(), OrderStatus.values()[((Number) row[1]).intValue()]);
+            }
+        }
+
+        List<OrderDecisionRowResultDto> rows = new ArrayList<>(decisions.size());
+        List<Long> approveIds = new ArrayList<>();
+        List<Long> rejectIds = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < decisions.size(); i++) {
+            OrderDecisionDto decision = decisions.get(i);
+            OrderDecisionRowResultDto.OrderDecisionRowResultDtoBuilder row = OrderDecisionRowResultDto.builder().index(i);
+            if (decision == null || decision.getOrderId() == null || decision.getDecision() == null) {
+                rows.add(row.result("INVALID").message("orderId and decision are required").build());
+                continue;
+            }
+            Long orderId = decision.getOrderId();
+            row.orderId(orderId).decision(decision.getDecision());
+            OrderStatus current = statusById.get(orderId);
+            if (current == null) {
+                rows.add(row.result("NOT_FOUND").message("Order not found on this farm").build());
+            } else if (!seen.add(orderId)) {
+                rows.add(row.result("DUPLICATE").status(current).message("Order appears earlier in the batch").build());
+            } else if (current != OrderStatus.PENDING) {
+                rows.add(row.result("NOT_PENDING").status(current)
+                        .message("Only pending orders can be decided. Current status: " + current).build());
+            } else if (decision.getDecision() == OrderDecision.APPROVE) {
+                approveIds.add(orderId);
+                rows.add(row.result("APPROVED").status(OrderStatus.CONFIRMED).build());
+            } else {
+                rejectIds.add(orderId);
+                rows.add(row.result("REJECTED").status(OrderStatus.CANCELLED).build());
+            }
+        }
+
+        if (!approveIds.isEmpty()) {
+            ordersRepository.markConfirmed(approveIds, LocalDateTime.now());
+            publishStatusChanges(farmId, approveIds, OrderStatus.CONFIRMED);
+        }
+        if (!rejectIds.isEmpty()) {
+            ordersRepository.markCancelled(rejectIds);
+            farmAvailabilityService.releaseOrderIds(rejectIds);
+            publishStatusChanges(farmId, rejectIds, OrderStatus.CANCELLED);
+        }
+
+        return OrderDecisionResultDto.builder()
+                .approved(approveIds.size())
+                .rejected(rejectIds.size())
+                .failed(decisions.size() - approveIds.size() - rejectIds.size())
+                .rows(rows)
+                .build();
+    }
+
     @Override
     public List<OrderResponseDto> getPendingOrders(Long farmId, User user) {
         // 1. Verify user has access to the farm
@@ -117,31 +228,64 @@ public class OrderServiceImpl implements OrderService {
                 .collect(Collectors.toList());
     }
 
-    @Scheduled(cron = "0 */30 * * * *")
-    @Transactional
+    // Safety net for registrations the expiry wheel missed; only its leader runs it.
+    // Each chunk is its own short transaction over ids only, so memory and lock time stay flat;
+    // read committed keeps the claims from holding next-key locks on rows they do not take
+    @Scheduled(cron = "${app.expiry.sweep-cron:0 17 * * * *}")
     public void autoRejectTimedOutPendingOrders() {
-        LocalDateTime cutoff = LocalDateTime.now().minusDays(1);
-        List<Orders> stalePendingOrders = ordersRepository.findByStatusAndCreatedAtBefore(OrderStatus.PENDING, cutoff);
-        List<Orders> staleUnpaidConfirmedOrders = ordersRepository.findTimedOutUnpaidConfirmedOrders(cutoff);
-
-        if (stalePendingOrders.isEmpty() && staleUnpaidConfirmedOrders.isEmpty()) {
+        if (!expiryScheduler.isLeader()) {
             return;
         }
-
-        for (Orders order : stalePendingOrders) {
-            order.setStatus(OrderStatus.TIMEOUT_REJECTED);
+        TransactionTemplate perChunk = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        perChunk.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        LocalDateTime cutoff = LocalDateTime.now().minus(expiryTimeout);
+        int total = 0;
+        int claimed;
+        do {
+            claimed = perChunk.execute(status -> timeOutChunk(cutoff));
+            total += claimed;
+        } while (claimed == sweepChunkSize);
+
+        if (total > 0) {
+            log.info("Auto timeout-rejected {} pending or unpaid confirmed orders older than {}", total, expiryTimeout);
         }
+    }
 
-        for (Orders order : staleUnpaidConfirmedOrders) {
-            order.setStatus(OrderStatus.TIMEOUT_REJECTED);
+    private int timeOutChunk(LocalDateTime cutoff) {
+        List<Object[]> claimed = new ArrayList<>(ordersRepository.claimTimedOutPending(
+                OrderStatus.PENDING.ordinal(), cutoff, sweepChunkSize));
+        if (claimed.size() < sweepChunkSize) {
+            claimed.addAll(ordersRepository.claimTimedOutUnpaid(
+                    OrderStatus.CONFIRMED.ordinal(), cutoff, sweepChunkSize - claimed.size()));
+        }
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+        Map<Long, List<Long>> idsByFarm = new HashMap<>();
+        for (Object[] row : claimed) {
+            idsByFarm.computeIfAbsent(((Number) row[1]).longValue(), farmId -> new ArrayList<>())
+                    .add(((Number) row[0]).longValue());
         }
+        List<Long> ids = idsByFarm.values().stream().flatMap(List::stream).toList();
 
-        ordersRepository.saveAll(stalePendingOrders);
-        ordersRepository.saveAll(staleUnpaidConfirmedOrders);
-        log.info(
-                "Auto timeout-rejected {} pending orders and {} unpaid confirmed orders older than 1 day",
-                stalePendingOrders.size(),
-                staleUnpaidConfirmedOrders.size());
+        ordersRepository.markTimedOut(ids);
+        farmAvailabilityService.releaseOrderIds(ids);
+        idsByFarm.forEach((farmId, orderIds) -> publishStatusChanges(farmId, orderIds, OrderStatus.TIMEOUT_REJECTED));
+        eventPublisher.publishEvent(new OrdersTimedOutEvent(idsByFarm));
+        return claimed.size();
+    }
+
+    // Timed-out orders no longer count against availability shown in the breakdown and listing
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrdersTimedOut(OrdersTimedOutEvent event) {
+        Cache breakdown = cacheManager.getCache("todayMilkBreakdown");
+        if (breakdown != null) {
+            event.orderIdsByFarm().keySet().forEach(breakdown::evict);
+        }
+        Cache farmsList = cacheManager.getCache("farmsList");
+        if (farmsList != null) {
+            farmsList.clear();
+        }
     }
 
     @Override
@@ -175,6 +319,7 @@ public class OrderServiceImpl implements OrderService {
         order.setPaidAmount(amount);
         order.setPaidAt(LocalDateTime.now());
         ordersRepository.save(order);
+        publishStatusChange(order);
 
         return mapToDto(order);
     }
@@ -291,10 +436,30 @@ public class OrderServiceImpl implements OrderService {
         order.setRazorpayOrderId(request.getRazorpayOrderId());
         order.setRazorpayPaymentId(request.getRazorpayPaymentId());
         ordersRepository.save(order);
+        publishStatusChange(order);
 
         return mapToDto(order);
     }
 
+    // Delivered to the farm's live dashboards after commit
+    private void publishStatusChanges(Long farmId, List<Long> orderIds, OrderStatus status) {
+        eventPublisher.publishEvent(com.example.backend.DTO.FarmLiveEvent.of(
+                farmId,
+                com.example.backend.Entity.type.LiveEventType.ORDER_STATUS_CHANGED,
+                "orderIds", orderIds,
+                "status", status));
+    }
+
+    private void publishStatusChange(Orders order) {
+        eventPublisher.publishEvent(com.example.backend.DTO.FarmLiveEvent.of(
+                order.getFarm().getId(),
+                com.example.backend.Entity.type.LiveEventType.ORDER_STATUS_CHANGED,
+                "orderId", order.getId(),
+                "displayCode", order.getDisplayCode(),
+                "status", order.getStatus(),
+                "paid", order.getPaid()));
+    }
+
     private OrderResponseDto mapToDto(Orders order) {
         OrderResponseDto dto = new OrderResponseDto();
         dto.setId(order.getId());
@@ -304,6 +469,7 @@ public class OrderServiceImpl implements OrderService {
         dto.setSession(order.getSession());
         dto.setTimeSlot(order.getTimeSlot());
         dto.setStatus(order.getStatus());
+        dto.setReservationStatus(order.getReservationStatus());
         dto.setBuyerId(order.getBuyer() != null ? order.getBuyer().getId() : null);
         dto.setBuyerName(order.getBuyer() != null ? order.getBuyer().getName() : order.getBuyerName());
         dto.setFarmId(order.getFarm() != null ? order.getFarm().getId() : null);
@@ -0,0 +1,261 @@
+package com.example.backend.Service.impl;
+
+import com.example.backend.Entity.type.ReservationStatus;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Produced vs reserved millilitres of one farm/day/session/animal type.
+ * <p>
+ * Accepting an order is a compare-and-set on the reserved counter, so buyers of a hot farm
+ * never queue on a lock. Orders that do not fit wait in FIFO order and are promoted when
+ * production is recorded or reservations are released; while anyone waits, new orders queue
+ * behind them. Uncommitted (in-flight) orders are never promoted, and a waitlisted one at the
+ * head holds the queue until it commits.
+ * <p>
+ * A ledger is replaced wholesale when reloaded from the database. The old one is
+ * {@link #retire retired} first: a reservation that lands on it afterwards is undone and
+ * {@link #reserve} returns null so the caller waits in {@link #awaitReplaced} and retries on
+ * the replacement.
+ */
+public final class ReservationLedger {
+
+    private final AtomicLong producedMl;
+    private final AtomicLong reservedMl = new AtomicLong();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<Long> inflight = ConcurrentHashMap.newKeySet();
+    private final Deque<Long> waitlist = new ArrayDeque<>(); // guarded by this
+    private final long builtAtNanos;
+    private final CountDownLatch replaced = new CountDownLatch(1);
+    private volatile int waiting;
+    private volatile boolean retired;
+
+    /**
+     * @param producedMl   millilitres produced so far
+     * @param builtAtNanos {@link System#nanoTime} taken before the state was read
+     */
+    public ReservationLedger(long producedMl, long builtAtNanos) {
+        this.producedMl = new AtomicLong(producedMl);
+        this.builtAtNanos = builtAtNanos;
+    }
+
+    /**
+     * Accepts the order when it fits and nobody is waiting, otherwise waitlists it.
+     * Repeated calls for one order return its current status.
+     *
+     * @return the status, or null when the ledger was retired meanwhile
+     */
+    public ReservationStatus reserve(long orderId, long ml, boolean uncommitted) {
+        Entry existing = entries.get(orderId);
+        if (existing != null) {
+            return existing.status;
+        }
+        Entry entry = new Entry(ml, System.nanoTime());
+        if (uncommitted) {
+            inflight.add(orderId);
+        }
+        if (waiting == 0 && claim(ml)) {
+            entry.status = ReservationStatus.ACCEPTED;
+            entries.put(orderId, entry);
+        } else {
+            synchronized (this) {
+                entry.status = ReservationStatus.WAITLISTED;
+                entries.put(orderId, entry);
+                waitlist.addLast(orderId);
+                waiting = waitlist.size();
+            }
+        }
+        if (retired) {
+            release(orderId);
+            inflight.remove(orderId);
+            return null;
+        }
+        return entry.status;
+    }
+
+    /**
+     * Re-adds an order read back from the database; accepted orders count even when they
+     * exceed production, they were accepted against an earlier view.
+     */
+    public void restore(long orderId, long ml, ReservationStatus status) {
+        Entry entry = new Entry(ml, builtAtNanos);
+        entry.status = status;
+        entries.put(orderId, entry);
+        if (status == ReservationStatus.ACCEPTED) {
+            reservedMl.addAndGet(ml);
+        } else {
+            synchronized (this) {
+                waitlist.addLast(orderId);
+                waiting = waitlist.size();
+            }
+        }
+    }
+
+    /**
+     * Gives back an accepted order's millilitres or drops it from the waitlist. Does not
+     * promote; call {@link #promote} afterwards.
+     *
+     * @return false when the order is not on this ledger
+     */
+    public boolean release(long orderId) {
+        Entry entry = entries.remove(orderId);
+        if (entry == null) {
+            return false;
+        }
+        synchronized (this) {
+            if (entry.status == ReservationStatus.WAITLISTED) {
+                waitlist.remove(orderId);
+                waiting = waitlist.size();
+                return true;
+            }
+        }
+        reservedMl.addAndGet(-entry.ml);
+        return true;
+    }
+
+    /** The order's transaction committed; it may now be promoted. */
+    public void markCommitted(long orderId) {
+        inflight.remove(orderId);
+    }
+
+    /** Production changes only move the limit; accepted orders stay accepted. */
+    public void setProducedMl(long ml) {
+        producedMl.set(ml);
+    }
+
+    /**
+     * Accepts waitlisted orders from the head while they fit.
+     *
+     * @return ids of the promoted orders, oldest first
+     */
+    public List<Long> promote() {
+        if (retired || waiting == 0) {
+            return List.of();
+        }
+        List<Long> promoted = new ArrayList<>();
+        synchronized (this) {
+            while (!waitlist.isEmpty()) {
+                Long head = waitlist.peekFirst();
+                Entry entry = entries.get(head);
+                if (entry == null) {
+                    waitlist.pollFirst();
+                    continue;
+                }
+                if (inflight.contains(head) || !claim(entry.ml)) {
+                    break;
+                }
+                entry.status = ReservationStatus.ACCEPTED;
+                waitlist.pollFirst();
+                promoted.add(head);
+            }
+            waiting = waitlist.size();
+        }
+        return promoted;
+    }
+
+    /**
+     * Takes over what a freshly loaded ledger could not have seen in the database: orders
+     * in flight when {@code from} started reloading or reserved on it since, and promotions
+     * not yet written back. Call on the new ledger after retiring {@code from} and before
+     * publishing the new one.
+     */
+    public void carryOver(ReservationLedger from, Set<Long> inflightAtStart) {
+        for (Map.Entry<Long, Entry> e : from.entries.entrySet()) {
+            Long orderId = e.getKey();
+            Entry theirs = e.getValue();
+            Entry mine = entries.get(orderId);
+            if (mine != null) {
+                if (mine.status == ReservationStatus.WAITLISTED && theirs.status == ReservationStatus.ACCEPTED) {
+                    synchronized (this) {
+                        waitlist.remove(orderId);
+                        waiting = waitlist.size();
+                    }
+                    mine.status = ReservationStatus.ACCEPTED;
+                    reservedMl.addAndGet(mine.ml);
+                }
+                continue;
+            }
+            boolean uncommitted = from.inflight.contains(orderId);
+            if (!uncommitted && !inflightAtStart.contains(orderId) && theirs.reservedAtNanos - builtAtNanos < 0) {
+                continue;
+            }
+            restore(orderId, theirs.ml, theirs.status);
+            if (uncommitted) {
+                inflight.add(orderId);
+            }
+        }
+    }
+
+    public void retire() {
+        retired = true;
+    }
+
+    public boolean isRetired() {
+        return retired;
+    }
+
+    /** The replacement is published (or the ledger was dropped); wakes {@link #awaitReplaced}. */
+    public void markReplaced() {
+        replaced.countDown();
+    }
+
+    public void awaitReplaced() throws InterruptedException {
+        replaced.await();
+    }
+
+    public Set<Long> inflightIds() {
+        return Set.copyOf(inflight);
+    }
+
+    public long builtAtNanos() {
+        return builtAtNanos;
+    }
+
+    public long producedMl() {
+        return producedMl.get();
+    }
+
+    public long reservedMl() {
+        return reservedMl.get();
+    }
+
+    public int waitlisted() {
+        return waiting;
+    }
+
+    public ReservationStatus statusOf(long orderId) {
+        Entry entry = entries.get(orderId);
+        return entry != null ? entry.status : null;
+    }
+
+    private boolean claim(long ml) {
+        while (true) {
+            long reserved = reservedMl.get();
+            if (reserved + ml > producedMl.get()) {
+                return false;
+            }
+            if (reservedMl.compareAndSet(reserved, reserved + ml)) {
+                return true;
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final long ml;
+        private final long reservedAtNanos;
+        private volatile ReservationStatus status;
+
+        private Entry(long ml, long reservedAtNanos) {
+            this.ml = ml;
+            this.reservedAtNanos = reservedAtNanos;
+        }
+    }
+}
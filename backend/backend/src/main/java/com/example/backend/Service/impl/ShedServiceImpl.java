@@ -1,15 +1,18 @@
 package com.example.backend.Service.impl;
 
 import com.example.backend.DTO.CreateShedDto;
+import com.example.backend.DTO.FarmLiveEvent;
 import com.example.backend.DTO.ShedResponseDto;
 import com.example.backend.Entity.Farm;
 import com.example.backend.Entity.Shed;
 import com.example.backend.Entity.User;
+import com.example.backend.Entity.type.LiveEventType;
 import com.example.backend.Entity.type.UserRole;
 import com.example.backend.Repository.FarmRepository;
 import com.example.backend.Repository.ShedRepository;
 import com.example.backend.Service.ShedService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +25,7 @@ public class ShedServiceImpl implements ShedService {
 
     private final ShedRepository shedRepository;
     private final FarmRepository farmRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -69,5 +73,6 @@ public class ShedServiceImpl implements ShedService {
         }
 
         shedRepository.deleteById(shedId);
+        eventPublisher.publishEvent(FarmLiveEvent.of(shed.getFarm().getId(), LiveEventType.HERD_CHANGED));
     }
 }
@@ -0,0 +1,389 @@
+package com.example.backend.Service.impl;
+
+import com.example.backend.DTO.FarmLiveEvent;
+import com.example.backend.Entity.Orders;
+import com.example.backend.Entity.Subscription;
+import com.example.backend.Entity.SubscriptionGenerationRun;
+import com.example.backend.Entity.type.GenerationRunStatus;
+import com.example.backend.Entity.type.LiveEventType;
+import com.example.backend.Entity.type.OrderStatus;
+import com.example.backend.Entity.type.SubscriptionStatus;
+import com.example.backend.Repository.OrdersBatchRepository;
+import com.example.backend.Repository.SubscriptionGenerationRunRepository;
+import com.example.backend.Repository.SubscriptionRepository;
+import com.example.backend.Repository.SubscriptionRunRepository;
+import com.example.backend.Service.DisplayCodeAllocator;
+import com.example.backend.Service.ExpiryScheduler;
+import com.example.backend.Service.FarmAvailabilityService;
+import com.example.backend.Service.JobLeaseService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates the day's orders for all active subscriptions.
+ * <p>
+ * Only the replica holding the {@code job_lease} runs the job. Active subscriptions are
+ * read in keyset pages by id with farm and buyer, classified in memory, and the
+ * status/skip/counter housekeeping is applied with a few bulk UPDATEs. Orders are built
+ * per farm and written in JDBC batches, one transaction per chunk, with farms processed
+ * concurrently. Each chunk also writes its {@code subscription_run} ledger rows, and the
+ * last processed id is checkpointed after every page, so a restarted run resumes there
+ * and never generates a second order for the same subscription and date. A failing chunk
+ * rolls back on its own and is bisected until the failing subscriptions are isolated, and
+ * only those are counted as failed; when a scan ends with failures the run
+ * scans again from the start (the ledger skips what was generated), up to
+ * {@code max-passes} times. A run that still has failures stays RUNNING and is picked up
+ * again by {@link #resume}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SubscriptionOrderGenerator {
+
+    private static final String LEASE_NAME = "subscription-order-generation";
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final OrdersBatchRepository ordersBatchRepository;
+    private final SubscriptionGenerationRunRepository generationRunRepository;
+    private final SubscriptionRunRepository subscriptionRunRepository;
+    private final JobLeaseService jobLeaseService;
+    private final FarmAvailabilityService farmAvailabilityService;
+    private final DisplayCodeAllocator displayCodeAllocator;
+    private final ExpiryScheduler expiryScheduler;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.subscriptions.generation.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.subscriptions.generation.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${app.subscriptions.generation.page-size:2000}")
+    private int pageSize;
+
+    @Value("${app.subscriptions.generation.lease-ttl:10m}")
+    private Duration leaseTtl;
+
+    @Value("${app.subscriptions.generation.max-passes:3}")
+    private int maxPasses;
+
+    /**
+     * Which active subscriptions get an order today, plus counts of the ones that don't.
+     */
+    public record GenerationPlan(
+            List<Subscription> toGenerate,
+            int notStarted,
+            int ended,
+            int skippedToday,
+            int awaitingPayment,
+            int invalid) {
+    }
+
+    public static GenerationPlan plan(List<Subscription> activeSubs, LocalDate today) {
+        List<Subscription> toGenerate = new ArrayList<>();
+        int notStarted = 0;
+        int ended = 0;
+        int skippedToday = 0;
+        int awaitingPayment = 0;
+        int invalid = 0;
+
+        for (Subscription sub : activeSubs) {
+            if (sub.getStartDate() == null || sub.getStartDate().isAfter(today)) {
+                notStarted++;
+            } else if (sub.getEndDate() != null && sub.getEndDate().isBefore(today)) {
+                ended++;
+            } else if (today.equals(sub.getSkipDate())) {
+                skippedToday++;
+            } else if (sub.getBillingDayCounter() != null
+                    && sub.getBillingDayCounter() >= SubscriptionServiceImpl.MAX_BILLING_DAYS) {
+                awaitingPayment++;
+            } else if (sub.getQuantity() == null || !BuyMilkServiceImpl.isAllowedQuantity(sub.getQuantity())) {
+                invalid++;
+            } else {
+                toGenerate.add(sub);
+            }
+        }
+        return new GenerationPlan(toGenerate, notStarted, ended, skippedToday, awaitingPayment, invalid);
+    }
+
+    /**
+     * Runs (or resumes) today's generation if this replica gets the job lease.
+     * Returns null when another replica holds the lease.
+     */
+    public SubscriptionGenerationRun generate(LocalDate today) {
+        if (!jobLeaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+            log.info("Subscription order generation for {} is running on another replica", today);
+            return null;
+        }
+        try {
+            return generateUnderLease(today);
+        } finally {
+            jobLeaseService.release(LEASE_NAME);
+        }
+    }
+
+    /**
+     * Continues today's run if one was left RUNNING (failed chunks, lost lease or a crash);
+     * does not start a new one.
+     */
+    public SubscriptionGenerationRun resume(LocalDate today) {
+        if (generationRunRepository.findTopByRunDateAndStatusOrderByIdDesc(today, GenerationRunStatus.RUNNING).isEmpty()) {
+            return null;
+        }
+        return generate(today);
+    }
+
+    private SubscriptionGenerationRun generateUnderLease(LocalDate today) {
+        long start = System.nanoTime();
+
+        SubscriptionGenerationRun run = generationRunRepository
+                .findTopByRunDateAndStatusOrderByIdDesc(today, GenerationRunStatus.RUNNING)
+                .orElse(null);
+        if (run == null) {
+            SubscriptionGenerationRun finished = generationRunRepository
+                    .findTopByRunDateAndStatusOrderByIdDesc(today, GenerationRunStatus.COMPLETED)
+                    .orElse(null);
+            if (finished != null) {
+                log.info("Subscription orders for {} were already generated by run {}", today, finished.getId());
+                return finished;
+            }
+            run = generationRunRepository.save(SubscriptionGenerationRun.builder()
+                    .runDate(today)
+                    .status(GenerationRunStatus.RUNNING)
+                    .lastSubscriptionId(0L)
+                    .pass(1)
+                    .startedAt(LocalDateTime.now())
+                    .durationMs(0L)
+                    .activeSubscriptions(0)
+                    .farmPartitions(0)
+                    .ordersGenerated(0)
+                    .skipped(0)
+                    .completed(0)
+                    .failed(0)
+                    .alreadyGenerated(0)
+                    .build());
+        } else {
+            log.info("Resuming subscription order generation for {} after subscription {}",
+                    today, run.getLastSubscriptionId());
+        }
+
+        // Housekeeping the per-row loop used to do with one save each; safe to repeat on resume.
+        // Today's skip dates stay until the run completes so every page still sees them.
+        Integer ended = transactionTemplate.execute(status -> {
+            subscriptionRepository.clearSkipDatesBefore(today);
+            subscriptionRepository.capBillingCounters(SubscriptionServiceImpl.MAX_BILLING_DAYS);
+            return subscriptionRepository.completeEnded(today);
+        });
+        run.setCompleted(run.getCompleted() + (ended == null ? 0 : ended));
+
+        long cursor = run.getLastSubscriptionId() == null ? 0L : run.getLastSubscriptionId();
+        int pass = run.getPass() == null ? 1 : run.getPass();
+        boolean leaseLost = false;
+        for (int attempt = 1; ; attempt++) {
+            if (pass > 1 && cursor == 0L) {
+                run.setFailed(0); // a retry pass recounts what still fails
+            }
+            while (true) {
+                List<Subscription> page = subscriptionRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                        SubscriptionStatus.ACTIVE, cursor, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                generatePage(page, today, run, pass > 1);
+
+                cursor = page.get(page.size() - 1).getId();
+                run.setLastSubscriptionId(cursor);
+                generationRunRepository.save(run);
+
+                if (!jobLeaseService.tryAcquire(LEASE_NAME, leaseTtl)) {
+                    leaseLost = true;
+                    break;
+                }
+            }
+            if (leaseLost || run.getFailed() == 0) {
+                break;
+            }
+
+            // Generated subscriptions are in the ledger now, so a rescan only retries the failed ones
+            pass++;
+            cursor = 0L;
+            run.setPass(pass);
+            run.setLastSubscriptionId(cursor);
+            generationRunRepository.save(run);
+            if (attempt >= Math.max(1, maxPasses)) {
+                break;
+            }
+            log.warn("Retrying {} failed subscription orders for {} (pass {})", run.getFailed(), today, pass);
+        }
+
+        if (leaseLost) {
+            log.warn("Lost the subscription generation lease for {} at subscription {}; another replica will resume",
+                    today, cursor);
+        } else if (run.getFailed() > 0) {
+            log.warn("{} subscription orders for {} still failing; run {} stays RUNNING and is retried on resume",
+                    run.getFailed(), today, run.getId());
+        } else {
+            transactionTemplate.executeWithoutResult(status -> subscriptionRepository.clearSkipDatesUpTo(today));
+            run.setStatus(GenerationRunStatus.COMPLETED);
+            run.setFinishedAt(LocalDateTime.now());
+        }
+
+        Cache farmsList = cacheManager.getCache("farmsList");
+        if (farmsList != null) {
+            farmsList.clear();
+        }
+
+        long durationMs = run.getDurationMs() + Duration.ofNanos(System.nanoTime() - start).toMillis();
+        run.setDurationMs(durationMs);
+        run.setOrdersPerSecond(run.getOrdersGenerated() * 1000.0 / Math.max(durationMs, 1));
+        run = generationRunRepository.save(run);
+
+        log.info("Subscription orders for {}: {} generated, {} already generated, {} failed, {} skipped, {} completed across {} farm partitions in {} ms ({} orders/s)",
+                today, run.getOrdersGenerated(), run.getAlreadyGenerated(), run.getFailed(), run.getSkipped(),
+                run.getCompleted(), run.getFarmPartitions(), durationMs, String.format("%.1f", run.getOrdersPerSecond()));
+        return run;
+    }
+
+    // A retry pass only adds generated/failed; the other counts were taken on the first pass
+    private void generatePage(List<Subscription> page, LocalDate today, SubscriptionGenerationRun run, boolean retry) {
+        GenerationPlan plan = plan(page, today);
+
+        // Orders already in the ledger were generated before a crash or by another replica
+        List<Subscription> toGenerate = plan.toGenerate();
+        int alreadyGenerated = 0;
+        if (!toGenerate.isEmpty()) {
+            Set<Long> processed = new HashSet<>(subscriptionRunRepository.findProcessedSubscriptionIds(
+                    today, toGenerate.stream().map(Subscription::getId).toList()));
+            if (!processed.isEmpty()) {
+                toGenerate = toGenerate.stream().filter(sub -> !processed.contains(sub.getId())).toList();
+                alreadyGenerated = processed.size();
+            }
+        }
+
+        Map<Long, List<Subscription>> byFarm = new LinkedHashMap<>();
+        for (Subscription sub : toGenerate) {
+            byFarm.computeIfAbsent(sub.getFarm().getId(), id -> new ArrayList<>()).add(sub);
+        }
+
+        AtomicInteger generated = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Semaphore permits = new Semaphore(Math.max(1, parallelism));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            byFarm.forEach((farmId, subs) -> executor.submit(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    generateForFarm(farmId, subs, today, generated, failed);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        run.setOrdersGenerated(run.getOrdersGenerated() + generated.get());
+        run.setFailed(run.getFailed() + failed.get());
+        if (retry) {
+            return;
+        }
+        run.setActiveSubscriptions(run.getActiveSubscriptions() + page.size());
+        run.setFarmPartitions(run.getFarmPartitions() + byFarm.size());
+        run.setAlreadyGenerated(run.getAlreadyGenerated() + alreadyGenerated);
+        run.setSkipped(run.getSkipped()
+                + plan.notStarted() + plan.skippedToday() + plan.awaitingPayment() + plan.invalid());
+        run.setCompleted(run.getCompleted() + plan.ended());
+    }
+
+    private void generateForFarm(Long farmId, List<Subscription> subs, LocalDate today,
+                                 AtomicInteger generated, AtomicInteger failed) {
+        for (int from = 0; from < subs.size(); from += chunkSize) {
+            generateChunk(farmId, subs.subList(from, Math.min(from + chunkSize, subs.size())), today, generated, failed);
+        }
+
+        Cache breakdown = cacheManager.getCache("todayMilkBreakdown");
+        if (breakdown != null) {
+            breakdown.evict(farmId);
+        }
+    }
+
+    // One transaction per chunk; a failing chunk is split in halves until the failing
+    // subscriptions are isolated, so they don't take the healthy ones down with them
+    private void generateChunk(Long farmId, List<Subscription> chunk, LocalDate today,
+                               AtomicInteger generated, AtomicInteger failed) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<String> codes = displayCodeAllocator.nextOrderCodes(farmId, chunk.size());
+                List<Orders> orders = new ArrayList<>(chunk.size());
+                LocalDateTime now = LocalDateTime.now();
+                for (int i = 0; i < chunk.size(); i++) {
+                    orders.add(toOrder(chunk.get(i), today, now, codes.get(i)));
+                }
+                ordersBatchRepository.insertSubscriptionRuns(orders);
+                ordersBatchRepository.insertAll(orders);
+                farmAvailabilityService.allocateAll(orders);
+                expiryScheduler.scheduleFarmOrders(farmId);
+                subscriptionRepository.incrementBillingCounters(
+                        chunk.stream().map(Subscription::getId).toList(),
+                        today,
+                        SubscriptionServiceImpl.MAX_BILLING_DAYS);
+                eventPublisher.publishEvent(FarmLiveEvent.of(farmId, LiveEventType.ORDERS_GENERATED,
+                        "count", orders.size(),
+                        "orderDate", today.toString()));
+            });
+            generated.addAndGet(chunk.size());
+        } catch (RuntimeException e) {
+            if (chunk.size() == 1) {
+                log.error("Failed to generate the order of subscription {} for farm {}: {}",
+                        chunk.get(0).getId(), farmId, e.getMessage());
+                failed.incrementAndGet();
+                return;
+            }
+            log.debug("Chunk of {} subscription orders for farm {} failed, splitting it: {}",
+                    chunk.size(), farmId, e.getMessage());
+            int half = chunk.size() / 2;
+            generateChunk(farmId, chunk.subList(0, half), today, generated, failed);
+            generateChunk(farmId, chunk.subList(half, chunk.size()), today, generated, failed);
+        }
+    }
+
+    private static Orders toOrder(Subscription sub, LocalDate today, LocalDateTime now, String displayCode) {
+        return Orders.builder()
+                .displayCode(displayCode)
+                .orderDate(today)
+                .quantity(sub.getQuantity())
+                .status(OrderStatus.PENDING)
+                .session(sub.getSession())
+                .animalType(sub.getAnimalType())
+                .totalPrice(sub.getQuantity() * BuyMilkServiceImpl.pricePerLiter(sub.getFarm(), sub.getAnimalType()))
+                .paid(false)
+                .buyerName(sub.getBuyer().getName())
+                .farmName(sub.getFarm().getName())
+                .createdAt(now)
+                .buyer(sub.getBuyer())
+                .farm(sub.getFarm())
+                .subscription(sub)
+                .build();
+    }
+}
@@ -1,7 +1,5 @@
 package com.example.backend.Service.impl;
 
-import com.example.backend.DTO.MilkBuyDto;
-import com.example.backend.DTO.OrderResponseDto;
 import com.example.backend.DTO.SubscribeDto;
 import com.example.backend.Entity.Farm;
 import com.example.backend.Entity.Orders;
@@ -12,7 +10,6 @@ import com.example.backend.Entity.type.SubscriptionStatus;
 import com.example.backend.Repository.FarmRepository;
 import com.example.backend.Repository.OrdersRepository;
 import com.example.backend.Repository.SubscriptionRepository;
-import com.example.backend.Service.BuyMilkService;
 import com.example.backend.Service.SubscriptionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,7 +19,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.security.SecureRandom;
 import java.util.Comparator;
 import java.util.List;
 
@@ -31,8 +27,7 @@ import java.util.List;
 @Slf4j
 public class SubscriptionServiceImpl implements SubscriptionService {
 
-    private static final int MAX_BILLING_DAYS = 30;
-    private static final SecureRandom DISPLAY_CODE_RANDOM = new SecureRandom();
+    static final int MAX_BILLING_DAYS = 30;
         private static final Comparator<Subscription> SUBSCRIPTION_LIST_COMPARATOR = Comparator
             .comparing(Subscription::getStartDate, Comparator.nullsLast(Comparator.reverseOrder()))
             .thenComparing(subscription -> subscription.getStatus() == SubscriptionStatus.PENDING ? 0 : 1)
@@ -41,9 +36,20 @@ public class SubscriptionServiceImpl implements SubscriptionService {
 
     private final SubscriptionRepository subscriptionRepository;
     private final FarmRepository farmRepository;
-    private final BuyMilkService buyMilkService;
     private final OrdersRepository ordersRepository;
     private final com.example.backend.Service.FarmAccessService farmAccessService;
+    private final com.example.backend.Service.FarmAvailabilityService farmAvailabilityService;
+    private final SubscriptionOrderGenerator subscriptionOrderGenerator;
+    private final com.example.backend.Service.DisplayCodeAllocator displayCodeAllocator;
+    private final com.example.backend.Service.DemandProjectionService demandProjectionService;
+    private final com.example.backend.Service.ExpiryScheduler expiryScheduler;
+    private final org.springframework.transaction.support.TransactionTemplate transactionTemplate;
+
+    @org.springframework.beans.factory.annotation.Value("${app.expiry.timeout:1d}")
+    private java.time.Duration expiryTimeout;
+
+    @org.springframework.beans.factory.annotation.Value("${app.expiry.batch-size:500}")
+    private int sweepChunkSize;
 
     @Override
     @Transactional
@@ -65,7 +71,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         Subscription subscription = Subscription.builder()
                 .buyer(user)
                 .farm(farm)
-                .displayCode(nextDisplayCode(farm.getId()))
+                .displayCode(displayCodeAllocator.nextSubscriptionCode(farm.getId()))
                 .quantity(dto.getQuantity())
                 .session(dto.getSession())
                 .startDate(startDate)
@@ -74,7 +80,9 @@ public class SubscriptionServiceImpl implements SubscriptionService {
                 .status(SubscriptionStatus.PENDING)
                 .build();
 
-        return subscriptionRepository.save(subscription);
+        Subscription saved = subscriptionRepository.save(subscription);
+        expiryScheduler.scheduleSubscriptions(List.of(saved.getId()));
+        return saved;
     }
 
     @Override
@@ -96,6 +104,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         }
 
         subscription.setStatus(SubscriptionStatus.ACTIVE);
+        demandProjectionService.markDirty(farmId);
         return subscriptionRepository.save(subscription);
     }
 
@@ -149,6 +158,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         subscription.setEndDate(LocalDate.now());
         subscription.setSkipDate(null);
         subscription.setStatus(SubscriptionStatus.CANCELLED);
+        demandProjectionService.markDirty(subscription.getFarm().getId());
         return subscriptionRepository.save(subscription);
     }
 
@@ -191,8 +201,10 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         }
         if (!todaysPendingOrders.isEmpty()) {
             ordersRepository.saveAll(todaysPendingOrders);
+            farmAvailabilityService.release(todaysPendingOrders);
         }
 
+        demandProjectionService.markDirty(subscription.getFarm().getId());
         return subscriptionRepository.save(subscription);
     }
 
@@ -225,6 +237,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         subscription.setBillingCounterUpdatedDate(null);
         subscription.setLastCyclePaidAt(LocalDateTime.now());
 
+        demandProjectionService.markDirty(subscription.getFarm().getId());
         return subscriptionRepository.save(subscription);
     }
 
@@ -235,34 +248,30 @@ public class SubscriptionServiceImpl implements SubscriptionService {
                 .toList();
     }
 
-    @Scheduled(cron = "0 */30 * * * *")
-    @Transactional
+    // Safety net for registrations the expiry wheel missed; only its leader runs it.
+    // Chunks of ids are claimed and flipped in short transactions without loading entities
+    @Scheduled(cron = "${app.expiry.sweep-cron:0 17 * * * *}")
     public void autoRejectTimedOutPendingSubscriptions() {
-        LocalDateTime cutoff = LocalDateTime.now().minusDays(1);
-        List<Subscription> stalePendingSubs = subscriptionRepository.findByStatusAndCreatedAtBefore(
-                SubscriptionStatus.PENDING,
-                cutoff);
-
-        if (stalePendingSubs.isEmpty()) {
+        if (!expiryScheduler.isLeader()) {
             return;
         }
+        LocalDateTime cutoff = LocalDateTime.now().minus(expiryTimeout);
+        int total = 0;
+        int claimed;
+        do {
+            claimed = transactionTemplate.execute(status -> {
+                List<Long> ids = subscriptionRepository.claimTimedOutPending(cutoff, sweepChunkSize);
+                if (!ids.isEmpty()) {
+                    subscriptionRepository.timeoutPending(ids, cutoff);
+                }
+                return ids.size();
+            });
+            total += claimed;
+        } while (claimed == sweepChunkSize);
 
-        for (Subscription subscription : stalePendingSubs) {
-            subscription.setStatus(SubscriptionStatus.TIMEOUT_REJECTED);
-        }
-
-        subscriptionRepository.saveAll(stalePendingSubs);
-        log.info("Auto timeout-rejected {} pending subscriptions older than 1 day", stalePendingSubs.size());
-    }
-
-    private String nextDisplayCode(Long farmId) {
-        for (int attempt = 0; attempt < 50; attempt++) {
-            String candidate = String.valueOf(100000 + DISPLAY_CODE_RANDOM.nextInt(900000));
-            if (!subscriptionRepository.existsByFarm_IdAndDisplayCode(farmId, candidate)) {
-                return candidate;
-            }
+        if (total > 0) {
+            log.info("Auto timeout-rejected {} pending subscriptions older than {}", total, expiryTimeout);
         }
-        throw new IllegalStateException("Unable to generate a unique subscription display code for this farm");
     }
 
     @Override
@@ -270,69 +279,13 @@ public class SubscriptionServiceImpl implements SubscriptionService {
     // @Scheduled(fixedRate = 60000) // For testing: runs every minute
     public void generateDailyOrders() {
         log.info("Generating daily orders from subscriptions...");
-        List<Subscription> activeSubs = subscriptionRepository.findAllByStatus(SubscriptionStatus.ACTIVE);
-        LocalDate today = LocalDate.now();
-
-        for (Subscription sub : activeSubs) {
-            try {
-                if (sub.getSkipDate() != null && sub.getSkipDate().isBefore(today)) {
-                    sub.setSkipDate(null);
-                    subscriptionRepository.save(sub);
-                }
-
-                // Check if subscription has started and not ended
-                if (sub.getStartDate().isAfter(today)) {
-                    continue;
-                }
-                if (sub.getEndDate() != null && sub.getEndDate().isBefore(today)) {
-                    sub.setStatus(SubscriptionStatus.COMPLETED); // Or EXPIRED
-                    subscriptionRepository.save(sub);
-                    continue;
-                }
-                if (today.equals(sub.getSkipDate())) {
-                    log.info("Skipping today's order for subscription: {}", sub.getId());
-                    sub.setSkipDate(null);
-                    subscriptionRepository.save(sub);
-                    continue;
-                }
-
-                int currentCounter = normalizeCounter(sub.getBillingDayCounter());
-                if (currentCounter >= MAX_BILLING_DAYS) {
-                    log.info("Payment pending for subscription {}, skipping daily order generation", sub.getId());
-                    if (sub.getBillingDayCounter() == null || sub.getBillingDayCounter() > MAX_BILLING_DAYS) {
-                        sub.setBillingDayCounter(MAX_BILLING_DAYS);
-                        subscriptionRepository.save(sub);
-                    }
-                    continue;
-                }
-
-                // Construct BuyDto
-                MilkBuyDto buyDto = new MilkBuyDto();
-                buyDto.setFarmId(sub.getFarm().getId());
-                buyDto.setQuantity(sub.getQuantity());
-                buyDto.setSession(sub.getSession());
-                buyDto.setDate(today);
-                buyDto.setAnimalType(sub.getAnimalType());
-
-                // Use BuyMilkService to place order (handles inventory)
-                OrderResponseDto generatedOrder = buyMilkService.buyMilk(buyDto, sub.getBuyer());
-                ordersRepository.findById(generatedOrder.getId()).ifPresent(order -> {
-                    order.setSubscription(sub);
-                    ordersRepository.save(order);
-                });
-
-                if (!today.equals(sub.getBillingCounterUpdatedDate())) {
-                    sub.setBillingDayCounter(Math.min(MAX_BILLING_DAYS, currentCounter + 1));
-                    sub.setBillingCounterUpdatedDate(today);
-                    subscriptionRepository.save(sub);
-                }
-                log.info("Order generated for subscription: {}", sub.getId());
+        subscriptionOrderGenerator.generate(LocalDate.now());
+    }
 
-            } catch (Exception e) {
-                log.error("Failed to generate order for subscription {}: {}", sub.getId(), e.getMessage());
-                // verify other subscriptions continue
-            }
-        }
+    // Finishes a run that was left RUNNING (failed chunks, lost lease); never starts one
+    @Scheduled(cron = "${app.subscriptions.generation.resume-cron:0 30 6-23 * * *}")
+    public void resumeDailyOrders() {
+        subscriptionOrderGenerator.resume(LocalDate.now());
     }
 
     /**
@@ -370,25 +323,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         if (subscription.getFarm() == null) {
             return 0.0;
         }
-
-        String animalType = subscription.getAnimalType();
-        if (animalType == null) {
-            return subscription.getFarm().getPricePerLiter() == null ? 0.0 : subscription.getFarm().getPricePerLiter();
-        }
-
-        if ("COW".equalsIgnoreCase(animalType) && subscription.getFarm().getCowPrice() != null) {
-            return subscription.getFarm().getCowPrice();
-        }
-        if ("BUFFALO".equalsIgnoreCase(animalType) && subscription.getFarm().getBuffaloPrice() != null) {
-            return subscription.getFarm().getBuffaloPrice();
-        }
-        if ("SHEEP".equalsIgnoreCase(animalType) && subscription.getFarm().getSheepPrice() != null) {
-            return subscription.getFarm().getSheepPrice();
-        }
-        if ("GOAT".equalsIgnoreCase(animalType) && subscription.getFarm().getGoatPrice() != null) {
-            return subscription.getFarm().getGoatPrice();
-        }
-        return subscription.getFarm().getPricePerLiter() == null ? 0.0 : subscription.getFarm().getPricePerLiter();
+        return BuyMilkServiceImpl.pricePerLiter(subscription.getFarm(), subscription.getAnimalType());
     }
 
     private String resolveBuyerAddress(User user) {
@@ -8,6 +8,7 @@ import com.example.backend.Entity.User;
 import com.example.backend.Entity.type.UserRole;
 import com.example.backend.Repository.FarmRepository;
 import com.example.backend.Repository.UserRepository;
+import com.example.backend.Security.PrincipalCache;
 import com.example.backend.Service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
@@ -25,6 +26,7 @@ public class UserServiceImpl implements UserService {
     private final FarmRepository farmRepository;
     private final ModelMapper modelMapper;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
 
     @Override
     public UserResponseDto createNewUser(CreateUserRequestDto dto) {
@@ -84,6 +86,7 @@ public class UserServiceImpl implements UserService {
     public UserResponseDto updateUser(Long id, CreateUserRequestDto request) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        principalCache.evict(user);
 
         user.setName(request.getName());
         user.setEmail(request.getEmail());
@@ -101,6 +104,7 @@ public class UserServiceImpl implements UserService {
 
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        principalCache.evict(user);
 
         if (patchDto.getName() != null) {
             user.setName(patchDto.getName());
@@ -1,39 +1,21 @@
 package com.example.backend.Service;
 
-import com.example.backend.DTO.MilkBuyDto;
 import com.example.backend.Entity.Farm;
 import com.example.backend.Entity.Subscription;
 import com.example.backend.Entity.User;
 import com.example.backend.Entity.type.MilkSession;
 import com.example.backend.Entity.type.SubscriptionStatus;
-import com.example.backend.Repository.SubscriptionRepository;
-import com.example.backend.Service.impl.SubscriptionServiceImpl;
+import com.example.backend.Service.impl.SubscriptionOrderGenerator;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
 import java.util.Collections;
-import java.util.List;
 
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@ExtendWith(MockitoExtension.class)
 public class SubscriptionServiceTest {
 
-    @Mock
-    private SubscriptionRepository subscriptionRepository;
-
-    @Mock
-    private BuyMilkService buyMilkService;
-
-    @InjectMocks
-    private SubscriptionServiceImpl subscriptionService;
-
     @Test
     void testGenerateDailyOrders_ActiveSubscription() {
         // Given
@@ -51,14 +33,12 @@ public class SubscriptionServiceTest {
         sub.setStartDate(LocalDate.now().minusDays(1)); // Started yesterday
         sub.setStatus(SubscriptionStatus.ACTIVE);
 
-        when(subscriptionRepository.findAllByStatus(SubscriptionStatus.ACTIVE))
-                .thenReturn(Collections.singletonList(sub));
-
         // When
-        subscriptionService.generateDailyOrders();
+        SubscriptionOrderGenerator.GenerationPlan plan =
+                SubscriptionOrderGenerator.plan(Collections.singletonList(sub), LocalDate.now());
 
         // Then
-        verify(buyMilkService, times(1)).buyMilk(any(MilkBuyDto.class), eq(user));
+        assertEquals(Collections.singletonList(sub), plan.toGenerate());
     }
 
     @Test
@@ -68,13 +48,12 @@ public class SubscriptionServiceTest {
         sub.setStartDate(LocalDate.now().plusDays(1)); // Starts tomorrow
         sub.setStatus(SubscriptionStatus.ACTIVE);
 
-        when(subscriptionRepository.findAllByStatus(SubscriptionStatus.ACTIVE))
-                .thenReturn(Collections.singletonList(sub));
-
         // When
-        subscriptionService.generateDailyOrders();
+        SubscriptionOrderGenerator.GenerationPlan plan =
+                SubscriptionOrderGenerator.plan(Collections.singletonList(sub), LocalDate.now());
 
         // Then
-        verify(buyMilkService, never()).buyMilk(any(), any());
+        assertTrue(plan.toGenerate().isEmpty());
+        assertEquals(1, plan.notStarted());
     }
 }
@@ -0,0 +1,95 @@
+package com.example.backend.Service.forecast;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WalkForwardBacktesterTest {
+
+    private static TrainingSeries series(int days, boolean weekly) {
+        double[] liters = new double[days];
+        double[][] conditions = new double[days][TrainingSeries.CONDITION_FEATURES];
+        for (int i = 0; i < days; i++) {
+            liters[i] = weekly ? 100 + 20 * Math.sin(2 * Math.PI * i / 7) : 100;
+        }
+        return new TrainingSeries(LocalDate.of(2025, 1, 1), liters, conditions);
+    }
+
+    @Test
+    void constantSeriesHasNoError() {
+        BacktestResult result = WalkForwardBacktester.evaluate(
+                new MovingAverageForecast(), series(60, false), 7, 4, 7);
+
+        assertNotNull(result);
+        assertEquals(4, result.folds());
+        assertEquals(28, result.points());
+        assertEquals(0.0, result.mae(), 1e-9);
+        assertEquals(0.0, result.mape(), 1e-9);
+    }
+
+    @Test
+    void seasonalMethodWinsOnWeeklyPattern() {
+        TrainingSeries weekly = series(90, true);
+        BacktestResult average = WalkForwardBacktester.evaluate(new MovingAverageForecast(), weekly, 7, 6, 7);
+        BacktestResult holtWinters = WalkForwardBacktester.evaluate(new HoltWintersForecast(), weekly, 7, 6, 7);
+
+        assertTrue(holtWinters.mae() < average.mae());
+        assertEquals("HOLT_WINTERS",
+                WalkForwardBacktester.best(List.of(average, holtWinters)).orElseThrow().method());
+    }
+
+    @Test
+    void foldsBeforeMinimumHistoryAreSkipped() {
+        // 21 days: Holt-Winters needs 14 before the origin, so only the last fold fits
+        BacktestResult result = WalkForwardBacktester.evaluate(
+                new HoltWintersForecast(), series(21, true), 7, 3, 7);
+
+        assertNotNull(result);
+        assertEquals(1, result.folds());
+        assertNull(WalkForwardBacktester.evaluate(new HoltWintersForecast(), series(15, true), 7, 3, 7));
+    }
+
+    @Test
+    void comparedMethodsShareTheOriginsOfTheLongestMinimumHistory() {
+        // Origins 21, 14 and 7: the moving average alone fits all three, Holt-Winters only two
+        TrainingSeries weekly = series(28, true);
+        assertEquals(3, WalkForwardBacktester.evaluate(new MovingAverageForecast(), weekly, 7, 3, 7).folds());
+
+        List<BacktestResult> results = WalkForwardBacktester.evaluateAll(
+                List.of(new MovingAverageForecast(), new HoltWintersForecast(), new RidgeRegressionForecast()),
+                weekly, 7, 3, 7);
+
+        // Ridge regression needs 21 days, so the shared origins shrink to the last one
+        assertEquals(3, results.size());
+        results.forEach(result -> assertEquals(1, result.folds()));
+        assertEquals(WalkForwardBacktester.evaluate(new MovingAverageForecast(), series(28, true), 7, 1, 7).mae(),
+                results.get(0).mae(), 1e-9);
+    }
+
+    @Test
+    void methodsWithoutAFoldDoNotNarrowTheOthers() {
+        // 20 days leave origin 13 at most: Holt-Winters (14) is left out, the average keeps its folds
+        List<BacktestResult> results = WalkForwardBacktester.evaluateAll(
+                List.of(new MovingAverageForecast(), new HoltWintersForecast()), series(20, true), 7, 2, 7);
+
+        assertEquals(1, results.size());
+        assertEquals("MOVING_AVERAGE", results.get(0).method());
+        assertEquals(2, results.get(0).folds());
+    }
+
+    @Test
+    void daysWithoutMilkAreLeftOutOfMape() {
+        TrainingSeries empty = new TrainingSeries(LocalDate.of(2025, 1, 1), new double[30],
+                new double[30][TrainingSeries.CONDITION_FEATURES]);
+        BacktestResult result = WalkForwardBacktester.evaluate(new MovingAverageForecast(), empty, 7, 2, 7);
+
+        assertEquals(0.0, result.mae(), 1e-9);
+        assertNull(result.mape());
+    }
+}
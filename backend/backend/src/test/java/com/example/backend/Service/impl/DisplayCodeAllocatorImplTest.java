@@ -0,0 +1,51 @@
+package com.example.backend.Service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DisplayCodeAllocatorImplTest {
+
+    private static final long[] KEYS = {0L, 42L, -7_046_029_254_386_353_131L};
+
+    @Test
+    void permuteIsABijectionOnTheCodeSpace() {
+        for (long key : KEYS) {
+            BitSet seen = new BitSet(DisplayCodeAllocatorImpl.CODE_SPACE);
+            for (int value = 0; value < DisplayCodeAllocatorImpl.CODE_SPACE; value++) {
+                int code = DisplayCodeAllocatorImpl.permute(value, key);
+                assertTrue(code >= 0 && code < DisplayCodeAllocatorImpl.CODE_SPACE);
+                assertFalse(seen.get(code));
+                seen.set(code);
+            }
+            assertEquals(DisplayCodeAllocatorImpl.CODE_SPACE, seen.cardinality());
+        }
+    }
+
+    @Test
+    void unpermuteRecoversTheSequenceValue() {
+        for (long key : KEYS) {
+            for (int value = 0; value < DisplayCodeAllocatorImpl.CODE_SPACE; value++) {
+                assertEquals(value, DisplayCodeAllocatorImpl.unpermute(
+                        DisplayCodeAllocatorImpl.permute(value, key), key));
+            }
+        }
+    }
+
+    @Test
+    void consecutiveValuesGetUnrelatedCodes() {
+        int adjacent = 0;
+        for (int value = 0; value < 1_000; value++) {
+            int a = DisplayCodeAllocatorImpl.permute(value, 42L);
+            int b = DisplayCodeAllocatorImpl.permute(value + 1, 42L);
+            if (Math.abs(a - b) <= 1) {
+                adjacent++;
+            }
+        }
+        assertTrue(adjacent < 5);
+    }
+}
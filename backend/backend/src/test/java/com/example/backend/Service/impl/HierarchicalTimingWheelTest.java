@@ -0,0 +1,57 @@
+package com.example.backend.Service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HierarchicalTimingWheelTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void firesInTheTickOfTheDeadline() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 6, 4, START);
+        wheel.add("soon", START + 2_500);
+        wheel.add("later", START + 90 * 60_000L);
+
+        assertTrue(wheel.advance(START + 2_000).isEmpty());
+        assertEquals(List.of("soon"), wheel.advance(START + 3_000));
+        assertTrue(wheel.advance(START + 90 * 60_000L - 1_000).isEmpty());
+        assertEquals(List.of("later"), wheel.advance(START + 90 * 60_000L));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void pastDeadlinesFireOnNextAdvance() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 6, 4, START);
+        wheel.add("overdue", START - 60_000);
+
+        assertEquals(List.of("overdue"), wheel.advance(START));
+    }
+
+    @Test
+    void deadlinesBeyondTheTopLevelAreKept() {
+        // 4 slots x 2 levels covers 16 ticks
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 2, 2, START);
+        wheel.add("far", START + 50_000);
+
+        for (long t = START; t < START + 50_000; t += 1_000) {
+            assertTrue(wheel.advance(t).isEmpty());
+        }
+        assertEquals(List.of("far"), wheel.advance(START + 50_000));
+    }
+
+    @Test
+    void catchesUpAfterAGap() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1000, 6, 4, START);
+        for (int i = 1; i <= 100; i++) {
+            wheel.add(i, START + i * 37_000L);
+        }
+
+        assertEquals(100, wheel.advance(START + 100 * 37_000L).size());
+        assertEquals(0, wheel.size());
+    }
+}
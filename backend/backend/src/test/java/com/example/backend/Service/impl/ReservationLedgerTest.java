@@ -0,0 +1,141 @@
+package com.example.backend.Service.impl;
+
+import com.example.backend.Entity.type.ReservationStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReservationLedgerTest {
+
+    @Test
+    void acceptsUntilProductionIsReservedThenWaitlists() {
+        ReservationLedger ledger = new ReservationLedger(3_000, System.nanoTime());
+
+        assertEquals(ReservationStatus.ACCEPTED, ledger.reserve(1, 2_000, false));
+        assertEquals(ReservationStatus.WAITLISTED, ledger.reserve(2, 1_500, false));
+        // Would fit, but queues behind order 2
+        assertEquals(ReservationStatus.WAITLISTED, ledger.reserve(3, 500, false));
+        assertEquals(2_000, ledger.reservedMl());
+        assertEquals(2, ledger.waitlisted());
+    }
+
+    @Test
+    void promotesInArrivalOrderWhenMilkFreesUp() {
+        ReservationLedger ledger = new ReservationLedger(2_000, System.nanoTime());
+        ledger.reserve(1, 2_000, false);
+        ledger.reserve(2, 1_000, false);
+        ledger.reserve(3, 1_000, false);
+        ledger.reserve(4, 1_000, false);
+
+        ledger.setProducedMl(3_000);
+        assertEquals(List.of(2L), ledger.promote());
+
+        ledger.release(1);
+        assertEquals(List.of(3L, 4L), ledger.promote());
+        assertEquals(3_000, ledger.reservedMl());
+        assertEquals(0, ledger.waitlisted());
+    }
+
+    @Test
+    void uncommittedHeadHoldsTheQueue() {
+        ReservationLedger ledger = new ReservationLedger(0, System.nanoTime());
+        ledger.reserve(1, 500, true);
+        ledger.reserve(2, 500, false);
+        ledger.setProducedMl(1_000);
+
+        assertTrue(ledger.promote().isEmpty());
+        ledger.markCommitted(1);
+        assertEquals(List.of(1L, 2L), ledger.promote());
+    }
+
+    @Test
+    void retiredLedgerRejectsAndUndoes() {
+        ReservationLedger ledger = new ReservationLedger(1_000, System.nanoTime());
+        ledger.retire();
+
+        assertNull(ledger.reserve(1, 500, true));
+        assertEquals(0, ledger.reservedMl());
+        assertNull(ledger.statusOf(1));
+    }
+
+    @Test
+    void waitersWakeOnceTheReplacementIsPublished() throws Exception {
+        ReservationLedger ledger = new ReservationLedger(1_000, System.nanoTime());
+        ledger.retire();
+        Thread waiter = new Thread(() -> {
+            try {
+                ledger.awaitReplaced();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        waiter.join(100);
+        assertTrue(waiter.isAlive());
+
+        ledger.markReplaced();
+        waiter.join(1_000);
+        assertFalse(waiter.isAlive());
+    }
+
+    @Test
+    void carriesOverWhatTheReloadCouldNotSee() {
+        ReservationLedger old = new ReservationLedger(1_000, System.nanoTime());
+        old.restore(1, 500, ReservationStatus.ACCEPTED);
+        old.reserve(2, 500, true);
+        Set<Long> inflightAtStart = old.inflightIds();
+
+        ReservationLedger fresh = new ReservationLedger(1_000, System.nanoTime());
+        fresh.restore(1, 500, ReservationStatus.ACCEPTED);
+        old.reserve(3, 250, false);
+        old.retire();
+        fresh.carryOver(old, inflightAtStart);
+
+        assertEquals(ReservationStatus.ACCEPTED, fresh.statusOf(2));
+        assertEquals(ReservationStatus.WAITLISTED, fresh.statusOf(3));
+        assertEquals(1_000, fresh.reservedMl());
+        assertEquals(Set.of(2L), fresh.inflightIds());
+    }
+
+    @Test
+    void concurrentBuyersNeverOversell() throws Exception {
+        ReservationLedger ledger = new ReservationLedger(100_000, System.nanoTime());
+        AtomicLong nextId = new AtomicLong();
+        AtomicLong acceptedMl = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        long ml = 500 * (1 + (i % 4));
+                        if (ledger.reserve(nextId.incrementAndGet(), ml, false) == ReservationStatus.ACCEPTED) {
+                            acceptedMl.addAndGet(ml);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(acceptedMl.get(), ledger.reservedMl());
+        assertTrue(ledger.reservedMl() <= 100_000);
+    }
+}